@@ -0,0 +1,235 @@
+package com.example.FinBuddy.analytics;
+
+/**
+ * Return and risk kernels over primitive series, oldest first. Each is a single pass over
+ * double[] with no boxing, so a 10-year daily series costs microseconds.
+ * Returns are simple per-period returns (0.01 = 1%); ratios are annualized with the number
+ * of periods per year the caller observed.
+ */
+public final class PerformanceMath {
+
+    private PerformanceMath() {
+    }
+
+    /**
+     * Per-period returns net of external cash flows: flows[i] is the money added (negative:
+     * withdrawn) during period i, so it is not counted as gain. A period starting from a zero
+     * value has a zero return.
+     *
+     * @return values.length - 1 returns
+     */
+    public static double[] periodReturns(double[] values, double[] flows) {
+        int n = values.length;
+        double[] returns = new double[Math.max(0, n - 1)];
+        for (int i = 1; i < n; i++) {
+            double previous = values[i - 1];
+            returns[i - 1] = previous > 0 ? (values[i] - flows[i]) / previous - 1 : 0;
+        }
+        return returns;
+    }
+
+    /**
+     * Time-weighted return: the sub-period returns chained geometrically
+     */
+    public static double timeWeightedReturn(double[] returns) {
+        double growth = 1;
+        for (double r : returns) {
+            growth *= 1 + r;
+        }
+        return growth - 1;
+    }
+
+    /**
+     * A total return over the given number of years as a yearly rate
+     */
+    public static double annualize(double totalReturn, double years) {
+        if (totalReturn <= -1) {
+            return -1;
+        }
+        if (years <= 0) {
+            return Double.NaN;
+        }
+        return Math.pow(1 + totalReturn, 1 / years) - 1;
+    }
+
+    public static double mean(double[] returns) {
+        if (returns.length == 0) {
+            return Double.NaN;
+        }
+        double sum = 0;
+        for (double r : returns) {
+            sum += r;
+        }
+        return sum / returns.length;
+    }
+
+    /**
+     * Sample standard deviation of the returns scaled to a year; NaN under two returns
+     */
+    public static double annualizedVolatility(double[] returns, double periodsPerYear) {
+        return standardDeviation(returns) * Math.sqrt(periodsPerYear);
+    }
+
+    /**
+     * Annualized excess return over the risk-free rate per unit of volatility
+     */
+    public static double sharpeRatio(double[] returns, double riskFreeRate, double periodsPerYear) {
+        double deviation = standardDeviation(returns);
+        if (!(deviation > 0)) {
+            return Double.NaN;
+        }
+        double excess = mean(returns) - riskFreeRate / periodsPerYear;
+        return excess / deviation * Math.sqrt(periodsPerYear);
+    }
+
+    /**
+     * Like the Sharpe ratio, but only returns below the risk-free rate count as risk
+     */
+    public static double sortinoRatio(double[] returns, double riskFreeRate, double periodsPerYear) {
+        if (returns.length < 2) {
+            return Double.NaN;
+        }
+        double target = riskFreeRate / periodsPerYear;
+        double sum = 0;
+        double downside = 0;
+        for (double r : returns) {
+            sum += r;
+            double shortfall = Math.min(0, r - target);
+            downside += shortfall * shortfall;
+        }
+        double downsideDeviation = Math.sqrt(downside / returns.length);
+        if (!(downsideDeviation > 0)) {
+            return Double.NaN;
+        }
+        return (sum / returns.length - target) / downsideDeviation * Math.sqrt(periodsPerYear);
+    }
+
+    /**
+     * Growth of 1 invested at the start: n returns give n + 1 points
+     */
+    public static double[] wealthIndex(double[] returns) {
+        double[] wealth = new double[returns.length + 1];
+        wealth[0] = 1;
+        for (int i = 0; i < returns.length; i++) {
+            wealth[i + 1] = wealth[i] * (1 + returns[i]);
+        }
+        return wealth;
+    }
+
+    /**
+     * Largest fall from a running peak, as a positive fraction (0.25 = 25% below the peak)
+     *
+     * @param range if not null, receives the indexes of the peak and the trough
+     */
+    public static double maxDrawdown(double[] wealth, int[] range) {
+        double worst = 0;
+        int peak = 0;
+        int worstPeak = 0;
+        int worstTrough = 0;
+        for (int i = 1; i < wealth.length; i++) {
+            if (wealth[i] > wealth[peak]) {
+                peak = i;
+            } else if (wealth[peak] > 0) {
+                double drawdown = 1 - wealth[i] / wealth[peak];
+                if (drawdown > worst) {
+                    worst = drawdown;
+                    worstPeak = peak;
+                    worstTrough = i;
+                }
+            }
+        }
+        if (range != null) {
+            range[0] = worstPeak;
+            range[1] = worstTrough;
+        }
+        return worst;
+    }
+
+    /**
+     * Money-weighted return: the yearly rate at which the cash flows (negative: invested,
+     * positive: received or current value) have a net present value of zero. Newton's method
+     * from 10%, falling back to bisection when it does not converge; NaN when the flows do not
+     * change sign.
+     *
+     * @param years time of each flow in years from the first
+     */
+    public static double xirr(double[] amounts, double[] years) {
+        boolean negative = false;
+        boolean positive = false;
+        for (double amount : amounts) {
+            negative |= amount < 0;
+            positive |= amount > 0;
+        }
+        if (!negative || !positive) {
+            return Double.NaN;
+        }
+
+        double rate = 0.1;
+        for (int iteration = 0; iteration < 50; iteration++) {
+            double npv = 0;
+            double derivative = 0;
+            for (int i = 0; i < amounts.length; i++) {
+                double discount = Math.pow(1 + rate, -years[i]);
+                npv += amounts[i] * discount;
+                derivative -= years[i] * amounts[i] * discount / (1 + rate);
+            }
+            if (Math.abs(npv) < 1e-7) {
+                return rate;
+            }
+            if (derivative == 0 || !Double.isFinite(derivative)) {
+                break;
+            }
+            double next = rate - npv / derivative;
+            if (!Double.isFinite(next) || next <= -1) {
+                break;
+            }
+            if (Math.abs(next - rate) < 1e-10) {
+                return next;
+            }
+            rate = next;
+        }
+        return bisectXirr(amounts, years);
+    }
+
+    private static double bisectXirr(double[] amounts, double[] years) {
+        double low = -0.9999;
+        double high = 10;
+        double lowNpv = npv(amounts, years, low);
+        if (Math.signum(lowNpv) == Math.signum(npv(amounts, years, high))) {
+            return Double.NaN;
+        }
+        for (int iteration = 0; iteration < 200 && high - low > 1e-10; iteration++) {
+            double mid = (low + high) / 2;
+            double midNpv = npv(amounts, years, mid);
+            if (Math.signum(midNpv) == Math.signum(lowNpv)) {
+                low = mid;
+                lowNpv = midNpv;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    private static double npv(double[] amounts, double[] years, double rate) {
+        double npv = 0;
+        for (int i = 0; i < amounts.length; i++) {
+            npv += amounts[i] * Math.pow(1 + rate, -years[i]);
+        }
+        return npv;
+    }
+
+    private static double standardDeviation(double[] returns) {
+        int n = returns.length;
+        if (n < 2) {
+            return Double.NaN;
+        }
+        double mean = mean(returns);
+        double squares = 0;
+        for (double r : returns) {
+            double deviation = r - mean;
+            squares += deviation * deviation;
+        }
+        return Math.sqrt(squares / (n - 1));
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.FinBuddy.controllers;
 
+import com.example.FinBuddy.dto.AssetSummaryDTO;
 import com.example.FinBuddy.entities.*;
+import com.example.FinBuddy.services.AssetExportService;
 import com.example.FinBuddy.services.AssetService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -20,14 +24,28 @@ import java.util.List;
 public class AssetController {
 
     private final AssetService assetService;
+    private final AssetExportService assetExportService;
 
     /**
-     * Get all assets
+     * Get all assets in id order, one page at a time.
+     * When more follow, the X-Next-Cursor header holds the cursor for the next page.
      */
     @GetMapping
-    public ResponseEntity<List<Asset>> getAllAssets() {
-        List<Asset> assets = assetService.getAllAssets();
-        return ResponseEntity.ok(assets);
+    public ResponseEntity<List<AssetSummaryDTO>> getAllAssets(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return assetService.getAssetSummaryPage(cursor, limit).toResponse();
+    }
+
+    /**
+     * Export every asset as newline-delimited JSON, streamed row by row
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportAssets() {
+        StreamingResponseBody body = assetExportService::exportAssets;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"assets.ndjson\"")
+                .body(body);
     }
 
     /**
@@ -44,8 +62,8 @@ public class AssetController {
      * Get assets by portfolio
      */
     @GetMapping("/portfolio/{portfolioId}")
-    public ResponseEntity<List<Asset>> getAssetsByPortfolio(@PathVariable Long portfolioId) {
-        List<Asset> assets = assetService.getAssetsByPortfolio(portfolioId);
+    public ResponseEntity<List<AssetSummaryDTO>> getAssetsByPortfolio(@PathVariable Long portfolioId) {
+        List<AssetSummaryDTO> assets = assetService.getAssetSummariesByPortfolio(portfolioId, null);
         return ResponseEntity.ok(assets);
     }
 
@@ -53,8 +71,8 @@ public class AssetController {
      * Get invested assets (non-wishlist)
      */
     @GetMapping("/portfolio/{portfolioId}/invested")
-    public ResponseEntity<List<Asset>> getInvestedAssets(@PathVariable Long portfolioId) {
-        List<Asset> assets = assetService.getInvestedAssets(portfolioId);
+    public ResponseEntity<List<AssetSummaryDTO>> getInvestedAssets(@PathVariable Long portfolioId) {
+        List<AssetSummaryDTO> assets = assetService.getAssetSummariesByPortfolio(portfolioId, false);
         return ResponseEntity.ok(assets);
     }
 
@@ -62,8 +80,8 @@ public class AssetController {
      * Get wishlist assets
      */
     @GetMapping("/portfolio/{portfolioId}/wishlist")
-    public ResponseEntity<List<Asset>> getWishlistAssets(@PathVariable Long portfolioId) {
-        List<Asset> assets = assetService.getWishlistAssets(portfolioId);
+    public ResponseEntity<List<AssetSummaryDTO>> getWishlistAssets(@PathVariable Long portfolioId) {
+        List<AssetSummaryDTO> assets = assetService.getAssetSummariesByPortfolio(portfolioId, true);
         return ResponseEntity.ok(assets);
     }
 
@@ -219,35 +237,39 @@ public class AssetController {
      * Get stocks only
      */
     @GetMapping("/stocks")
-    public ResponseEntity<List<Asset>> getStocks() {
-        List<Asset> stocks = assetService.getAssetsByType(Stock.class);
-        return ResponseEntity.ok(stocks);
+    public ResponseEntity<List<AssetSummaryDTO>> getStocks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return assetService.getAssetSummaryPageByType(Stock.class, cursor, limit).toResponse();
     }
 
     /**
      * Get bonds only
      */
     @GetMapping("/bonds")
-    public ResponseEntity<List<Asset>> getBonds() {
-        List<Asset> bonds = assetService.getAssetsByType(Bond.class);
-        return ResponseEntity.ok(bonds);
+    public ResponseEntity<List<AssetSummaryDTO>> getBonds(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return assetService.getAssetSummaryPageByType(Bond.class, cursor, limit).toResponse();
     }
 
     /**
      * Get mutual funds only
      */
     @GetMapping("/mutualfunds")
-    public ResponseEntity<List<Asset>> getMutualFunds() {
-        List<Asset> funds = assetService.getAssetsByType(MutualFund.class);
-        return ResponseEntity.ok(funds);
+    public ResponseEntity<List<AssetSummaryDTO>> getMutualFunds(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return assetService.getAssetSummaryPageByType(MutualFund.class, cursor, limit).toResponse();
     }
 
     /**
      * Get SIPs only
      */
     @GetMapping("/sips")
-    public ResponseEntity<List<Asset>> getSIPs() {
-        List<Asset> sips = assetService.getAssetsByType(SIP.class);
-        return ResponseEntity.ok(sips);
+    public ResponseEntity<List<AssetSummaryDTO>> getSIPs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        return assetService.getAssetSummaryPageByType(SIP.class, cursor, limit).toResponse();
     }
 }
@@ -1,13 +1,17 @@
 package com.example.FinBuddy.controllers;
 
+import com.example.FinBuddy.marketdata.CachedPrice;
 import com.example.FinBuddy.services.StockPriceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * REST Controller for Stock Market Data
@@ -28,11 +32,20 @@ public class MarketDataController {
         try {
             BigDecimal price = stockPriceService.getRealTimePrice(symbol);
             if (price != null && price.compareTo(BigDecimal.ZERO) > 0) {
-                return ResponseEntity.ok(Map.of(
-                        "symbol", symbol,
-                        "price", price,
-                        "timestamp", System.currentTimeMillis(),
-                        "source", "live"));
+                Map<String, Object> response = new LinkedHashMap<>();
+                response.put("symbol", symbol);
+                response.put("price", price);
+                response.put("timestamp", System.currentTimeMillis());
+                // Report where the served quote came from and how old it is; it may be stale while a refresh runs
+                CachedPrice quote = stockPriceService.getCachedQuote(symbol);
+                // Only mock prices are served without being cached
+                response.put("source", quote != null ? quote.getSource() : "mock");
+                if (quote != null) {
+                    response.put("asOf", quote.getTimestamp());
+                    response.put("ageMs", quote.getAgeMs());
+                    response.put("stale", quote.isExpired());
+                }
+                return ResponseEntity.ok(response);
             }
             return ResponseEntity.ok(Map.of(
                     "symbol", symbol,
@@ -54,7 +67,7 @@ public class MarketDataController {
     @PostMapping("/prices/batch")
     public ResponseEntity<Map<String, BigDecimal>> getBatchPrices(@RequestBody List<String> symbols) {
         Map<String, BigDecimal> prices = stockPriceService.getBatchPrices(symbols);
-        return ResponseEntity.ok(prices);
+        return withMissingSymbols(symbols, prices.keySet()).body(prices);
     }
 
     /**
@@ -63,7 +76,27 @@ public class MarketDataController {
     @PostMapping("/batch-quotes")
     public ResponseEntity<List<Map<String, Object>>> getBatchQuotes(@RequestBody List<String> symbols) {
         List<Map<String, Object>> quotes = stockPriceService.getBatchDetailedQuotes(symbols);
-        return ResponseEntity.ok(quotes);
+        Set<String> resolved = quotes.stream()
+                .map(quote -> (String) quote.get("symbol"))
+                .collect(Collectors.toSet());
+        return withMissingSymbols(symbols, resolved).body(quotes);
+    }
+
+    /**
+     * Batch responses are partial when some symbols did not resolve before the batch deadline;
+     * those symbols are listed in the X-Missing-Symbols header
+     */
+    private ResponseEntity.BodyBuilder withMissingSymbols(List<String> requested, Set<String> resolved) {
+        List<String> missing = requested.stream()
+                .filter(symbol -> !resolved.contains(symbol))
+                .distinct()
+                .collect(Collectors.toList());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!missing.isEmpty()) {
+            response.header("X-Partial-Result", "true");
+            response.header("X-Missing-Symbols", String.join(",", missing));
+        }
+        return response;
     }
 
     /**
@@ -98,6 +131,27 @@ public class MarketDataController {
         return ResponseEntity.ok(quote);
     }
 
+    /**
+     * Get the live quotes recorded for a symbol between from and to (epoch millis, to exclusive;
+     * default the last day), as raw ticks or, with bucketMs, as OHLC bars
+     */
+    @GetMapping("/history/{symbol}")
+    public ResponseEntity<Object> getPriceHistory(
+            @PathVariable String symbol,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(required = false) Long bucketMs) {
+        long toMs = to != null ? to : System.currentTimeMillis() + 1;
+        long fromMs = from != null ? from : toMs - 24L * 60 * 60 * 1000;
+        if (bucketMs != null) {
+            if (bucketMs <= 0) {
+                return ResponseEntity.badRequest().body(Map.of("error", "bucketMs must be positive"));
+            }
+            return ResponseEntity.ok(stockPriceService.getPriceBars(symbol, fromMs, toMs, bucketMs));
+        }
+        return ResponseEntity.ok(stockPriceService.getPriceHistory(symbol, fromMs, toMs));
+    }
+
     /**
      * Clear price cache - useful for forcing fresh data fetch
      */
@@ -107,6 +161,30 @@ public class MarketDataController {
         return ResponseEntity.ok(Map.of("message", "Price cache cleared successfully"));
     }
 
+    /**
+     * Get price cache statistics (size, hits, misses, evictions)
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(stockPriceService.getCacheStats());
+    }
+
+    /**
+     * Get remaining upstream API quota per provider
+     */
+    @GetMapping("/quota")
+    public ResponseEntity<Map<String, Object>> getQuotaStats() {
+        return ResponseEntity.ok(stockPriceService.getQuotaStats());
+    }
+
+    /**
+     * Get circuit breaker state and call timeout per upstream provider
+     */
+    @GetMapping("/providers/health")
+    public ResponseEntity<Map<String, Object>> getProviderHealth() {
+        return ResponseEntity.ok(stockPriceService.getProviderHealth());
+    }
+
     /**
      * Search for stocks/assets by symbol or name
      */
@@ -144,13 +222,15 @@ public class MarketDataController {
     }
 
     /**
-     * Search all asset types with optional type filter (with fuzzy search)
+     * Search all asset types with optional type filter (with fuzzy search).
+     * maxDistance caps the typos allowed per query word; by default it depends on the word length.
      */
     @GetMapping("/search/all")
     public ResponseEntity<List<Map<String, Object>>> searchAllAssets(
             @RequestParam String query,
-            @RequestParam(required = false) String type) {
-        List<Map<String, Object>> results = stockPriceService.searchAllAssets(query, type);
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer maxDistance) {
+        List<Map<String, Object>> results = stockPriceService.searchAllAssets(query, type, maxDistance);
         return ResponseEntity.ok(results);
     }
 }
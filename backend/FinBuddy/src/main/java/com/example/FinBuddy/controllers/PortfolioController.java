@@ -1,18 +1,30 @@
 package com.example.FinBuddy.controllers;
 
+import com.example.FinBuddy.dto.CursorPage;
 import com.example.FinBuddy.dto.DashboardSummaryDTO;
+import com.example.FinBuddy.dto.HistorySeriesDTO;
+import com.example.FinBuddy.dto.PortfolioAnalyticsDTO;
+import com.example.FinBuddy.dto.PortfolioSummaryDTO;
 import com.example.FinBuddy.entities.Portfolio;
 import com.example.FinBuddy.entities.PortfolioHistory;
+import com.example.FinBuddy.services.DashboardSummaryCache;
+import com.example.FinBuddy.services.DashboardSummaryCache.CachedDashboard;
+import com.example.FinBuddy.services.PortfolioAnalyticsService;
+import com.example.FinBuddy.services.PortfolioHistoryRollupService;
 import com.example.FinBuddy.services.PortfolioRecalculationService;
 import com.example.FinBuddy.services.PortfolioService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST Controller for Portfolio management
@@ -25,14 +37,20 @@ public class PortfolioController {
 
     private final PortfolioService portfolioService;
     private final PortfolioRecalculationService portfolioRecalculationService;
+    private final PortfolioHistoryRollupService portfolioHistoryRollupService;
+    private final DashboardSummaryCache dashboardSummaryCache;
+    private final PortfolioAnalyticsService portfolioAnalyticsService;
 
     /**
-     * Get all portfolios
+     * Get portfolios, newest first, one page at a time.
+     * When more follow, the X-Next-Cursor header holds the cursor for the next page.
      */
     @GetMapping
-    public ResponseEntity<List<Portfolio>> getAllPortfolios() {
-        List<Portfolio> portfolios = portfolioService.getAllPortfolios();
-        return ResponseEntity.ok(portfolios);
+    public ResponseEntity<List<PortfolioSummaryDTO>> getAllPortfolios(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit) {
+        CursorPage<PortfolioSummaryDTO> page = portfolioService.getPortfolioSummaryPage(cursor, limit);
+        return page.toResponse();
     }
 
     /**
@@ -102,14 +120,34 @@ public class PortfolioController {
         }
     }
 
+    /**
+     * Revalue portfolio assets from a symbol to price map in one batch
+     */
+    @PostMapping("/{id}/revalue")
+    public ResponseEntity<Portfolio> revaluePortfolio(
+            @PathVariable Long id,
+            @RequestBody Map<String, BigDecimal> prices) {
+        Portfolio portfolio = portfolioService.revaluePortfolio(id, prices);
+        return ResponseEntity.ok(portfolio);
+    }
+
     /**
      * Get dashboard summary
+     * Served from the dashboard cache with an ETag; an unchanged dashboard returns 304
      */
     @GetMapping("/{id}/dashboard")
-    public ResponseEntity<DashboardSummaryDTO> getDashboardSummary(@PathVariable Long id) {
+    public ResponseEntity<DashboardSummaryDTO> getDashboardSummary(@PathVariable Long id, WebRequest request) {
         try {
-            DashboardSummaryDTO dashboard = portfolioService.getDashboardSummary(id);
-            return ResponseEntity.ok(dashboard);
+            CachedDashboard dashboard = dashboardSummaryCache.get(id);
+            if (request.checkNotModified(dashboard.getEtag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(dashboard.getEtag())
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(dashboard.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .body(dashboard.getSummary());
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -126,4 +164,24 @@ public class PortfolioController {
         List<PortfolioHistory> history = portfolioService.getPortfolioHistory(id, startDate, endDate);
         return ResponseEntity.ok(history);
     }
+
+    /**
+     * Get downsampled portfolio value history (daily, weekly or monthly OHLC) within a point budget
+     */
+    @GetMapping("/{id}/history/rollup")
+    public ResponseEntity<HistorySeriesDTO> getPortfolioHistoryRollup(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "500") Integer maxPoints) {
+        return ResponseEntity.ok(portfolioHistoryRollupService.getHistory(id, startDate, endDate, maxPoints));
+    }
+
+    /**
+     * Get return and risk analytics (TWR, XIRR, volatility, Sharpe/Sortino, max drawdown)
+     */
+    @GetMapping("/{id}/analytics")
+    public ResponseEntity<PortfolioAnalyticsDTO> getPortfolioAnalytics(@PathVariable Long id) {
+        return ResponseEntity.ok(portfolioAnalyticsService.getAnalytics(id));
+    }
 }
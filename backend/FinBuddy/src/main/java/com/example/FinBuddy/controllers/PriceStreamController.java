@@ -0,0 +1,40 @@
+package com.example.FinBuddy.controllers;
+
+import com.example.FinBuddy.services.PriceStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST Controller for live price streaming (Server-Sent Events)
+ */
+@RestController
+@RequestMapping("/api/market")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class PriceStreamController {
+
+    private final PriceStreamService priceStreamService;
+
+    /**
+     * Stream price updates for the given symbols, e.g. /api/market/stream?symbols=AAPL,MSFT
+     * Each update is a "price" event with symbol, price and timestamp
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPrices(@RequestParam List<String> symbols) {
+        return priceStreamService.subscribe(symbols);
+    }
+
+    /**
+     * Get open streams and fan-out counters
+     */
+    @GetMapping("/stream/stats")
+    public ResponseEntity<Map<String, Object>> getStreamStats() {
+        return ResponseEntity.ok(priceStreamService.getStats());
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.FinBuddy.dto;
+
+import com.example.FinBuddy.entities.Asset;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the asset export: every field of the asset and its type, plus the id of the
+ * portfolio it belongs to, which the entity's own JSON leaves out
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetExportDTO {
+    private Long portfolioId;
+
+    @JsonUnwrapped
+    private Asset asset;
+
+    public static AssetExportDTO of(Asset asset) {
+        // Reading the id does not initialize a lazy portfolio proxy
+        return new AssetExportDTO(asset.getPortfolio() != null ? asset.getPortfolio().getId() : null, asset);
+    }
+}
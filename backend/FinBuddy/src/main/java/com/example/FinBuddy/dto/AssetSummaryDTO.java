@@ -0,0 +1,33 @@
+package com.example.FinBuddy.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO for asset list rows: the columns common to all asset types,
+ * selected directly by a JPQL constructor expression
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssetSummaryDTO {
+    private Long id;
+    private Long portfolioId;
+    private String assetType;
+    private String name;
+    private String symbol;
+    private Integer quantity;
+    private BigDecimal purchasePrice;
+    private BigDecimal currentPrice;
+    private BigDecimal investedAmount;
+    private BigDecimal currentValue;
+    private BigDecimal gainLoss;
+    private BigDecimal gainLossPercentage;
+    private String currency;
+    private LocalDate purchaseDate;
+    private Boolean isWishlist;
+}
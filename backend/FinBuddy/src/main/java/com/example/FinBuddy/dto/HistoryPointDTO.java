@@ -0,0 +1,23 @@
+package com.example.FinBuddy.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO for one downsampled point of portfolio value history
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryPointDTO {
+    private LocalDate date;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+    private BigDecimal totalInvestment;
+}
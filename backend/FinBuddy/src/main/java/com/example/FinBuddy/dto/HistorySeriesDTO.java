@@ -0,0 +1,22 @@
+package com.example.FinBuddy.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for portfolio value history at the resolution chosen for the requested point budget
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistorySeriesDTO {
+    private Long portfolioId;
+    private String resolution;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<HistoryPointDTO> points;
+}
@@ -0,0 +1,50 @@
+package com.example.FinBuddy.dto;
+
+import com.example.FinBuddy.exceptions.InvalidRequestException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset pagination position: the sort key of the last row of the previous page.
+ * Sent to clients as an opaque URL-safe token.
+ */
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    private final Long id;
+    private final LocalDateTime createdAt;
+
+    public static PageCursor of(Long id) {
+        return new PageCursor(id, null);
+    }
+
+    public String encode() {
+        String key = createdAt != null ? createdAt + "|" + id : String.valueOf(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}; null or blank means the first page
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = key.lastIndexOf('|');
+            if (separator < 0) {
+                return of(Long.valueOf(key));
+            }
+            return new PageCursor(Long.valueOf(key.substring(separator + 1)),
+                    LocalDateTime.parse(key.substring(0, separator)));
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("Invalid page cursor: " + token);
+        }
+    }
+}
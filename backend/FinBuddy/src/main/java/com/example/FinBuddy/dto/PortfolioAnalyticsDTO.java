@@ -0,0 +1,32 @@
+package com.example.FinBuddy.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for portfolio return and risk analytics over the recorded history.
+ * Rates and ratios are fractions (0.05 = 5%); a metric is null when the history is too short
+ * or the cash flows do not define it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioAnalyticsDTO {
+    private Long portfolioId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Integer observations;
+    private Double timeWeightedReturn;
+    private Double annualizedTimeWeightedReturn;
+    private Double xirr;
+    private Double annualizedVolatility;
+    private Double sharpeRatio;
+    private Double sortinoRatio;
+    private Double maxDrawdown;
+    private LocalDate maxDrawdownPeakDate;
+    private LocalDate maxDrawdownTroughDate;
+    private Double riskFreeRate;
+}
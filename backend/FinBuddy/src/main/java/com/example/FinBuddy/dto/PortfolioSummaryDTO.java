@@ -0,0 +1,27 @@
+package com.example.FinBuddy.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for portfolio list rows, without the assets collection
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioSummaryDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private String baseCurrency;
+    private BigDecimal totalValue;
+    private BigDecimal totalInvestment;
+    private BigDecimal totalGainLoss;
+    private BigDecimal gainLossPercentage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
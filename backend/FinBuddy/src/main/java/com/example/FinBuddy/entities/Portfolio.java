@@ -74,6 +74,20 @@ public class Portfolio {
                 .map(Asset::getInvestedAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
+        updateGainLoss();
+    }
+
+    /**
+     * Adjusts portfolio metrics by one asset's change in value and investment,
+     * without visiting the other assets
+     */
+    public void applyDelta(BigDecimal valueDelta, BigDecimal investmentDelta) {
+        this.totalValue = this.totalValue.add(valueDelta);
+        this.totalInvestment = this.totalInvestment.add(investmentDelta);
+        updateGainLoss();
+    }
+
+    private void updateGainLoss() {
         this.totalGainLoss = this.totalValue.subtract(this.totalInvestment);
 
         if (this.totalInvestment.compareTo(BigDecimal.ZERO) > 0) {
@@ -10,10 +10,13 @@ import java.time.LocalDate;
 
 /**
  * Portfolio History entity for tracking portfolio value over time
- * Used for generating performance charts
+ * Used for generating performance charts; one row per portfolio per day holding the day's latest values
  */
 @Entity
-@Table(name = "portfolio_history")
+@Table(name = "portfolio_history",
+        uniqueConstraints = @UniqueConstraint(name = "uk_portfolio_history_portfolio_date",
+                columnNames = {"portfolio_id", "record_date"}),
+        indexes = @Index(name = "idx_portfolio_history_portfolio_date", columnList = "portfolio_id, record_date"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,7 +30,7 @@ public class PortfolioHistory {
     @JoinColumn(name = "portfolio_id", nullable = false)
     private Portfolio portfolio;
 
-    @Column(nullable = false)
+    @Column(name = "record_date", nullable = false)
     private LocalDate recordDate;
 
     @Column(nullable = false, precision = 19, scale = 4)
@@ -41,4 +44,7 @@ public class PortfolioHistory {
 
     @Column(nullable = false, precision = 10, scale = 4)
     private BigDecimal gainLossPercentage;
+
+    @Column(name = "synthetic")
+    private Boolean synthetic = false; // Interpolated by the backfill rather than recorded
 }
@@ -0,0 +1,129 @@
+package com.example.FinBuddy.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Downsampled portfolio value for one day, week or month (open/high/low/close of the snapshots
+ * taken in the period). Maintained as snapshots are written so long-range charts never have to
+ * read the raw history.
+ */
+@Entity
+@Table(name = "portfolio_history_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_history_rollup_portfolio_resolution_period",
+                columnNames = {"portfolio_id", "resolution", "period_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioHistoryRollup {
+
+    /**
+     * Rollup granularity, finest first
+     */
+    public enum Resolution {
+        DAILY(1),
+        WEEKLY(7),
+        MONTHLY(30);
+
+        private final int approximateDays;
+
+        Resolution(int approximateDays) {
+            this.approximateDays = approximateDays;
+        }
+
+        public int getApproximateDays() {
+            return approximateDays;
+        }
+
+        /**
+         * First day of the period containing the date (weeks start on Monday)
+         */
+        public LocalDate periodStart(LocalDate date) {
+            switch (this) {
+                case WEEKLY:
+                    return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTHLY:
+                    return date.withDayOfMonth(1);
+                default:
+                    return date;
+            }
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "portfolio_id", nullable = false)
+    private Long portfolioId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Resolution resolution;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal openValue;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal highValue;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal lowValue;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal closeValue;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal closeInvestment;
+
+    @Column(nullable = false)
+    private Integer sampleCount = 0;
+
+    /**
+     * Fold one snapshot value into the period; snapshots arrive in time order
+     */
+    public void addSample(BigDecimal totalValue, BigDecimal totalInvestment) {
+        if (sampleCount == 0) {
+            openValue = totalValue;
+            highValue = totalValue;
+            lowValue = totalValue;
+        } else {
+            highValue = highValue.max(totalValue);
+            lowValue = lowValue.min(totalValue);
+        }
+        closeValue = totalValue;
+        closeInvestment = totalInvestment;
+        sampleCount++;
+    }
+
+    /**
+     * Fold in the rollup of snapshots that precede every one already in the period: they open it
+     * and widen its range, while the close stays with the later snapshots
+     */
+    public void prependSamples(PortfolioHistoryRollup earlier) {
+        if (earlier.sampleCount == 0) {
+            return;
+        }
+        if (sampleCount == 0) {
+            highValue = earlier.highValue;
+            lowValue = earlier.lowValue;
+            closeValue = earlier.closeValue;
+            closeInvestment = earlier.closeInvestment;
+        } else {
+            highValue = highValue.max(earlier.highValue);
+            lowValue = lowValue.min(earlier.lowValue);
+        }
+        openValue = earlier.openValue;
+        sampleCount += earlier.sampleCount;
+    }
+}
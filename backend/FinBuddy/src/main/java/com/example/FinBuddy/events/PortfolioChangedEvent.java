@@ -0,0 +1,18 @@
+package com.example.FinBuddy.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a portfolio's holdings or stored metrics change (asset added, updated, sold or
+ * deleted, metrics recalculated, portfolio deleted)
+ */
+@Getter
+@AllArgsConstructor
+public class PortfolioChangedEvent {
+
+    private final Long portfolioId;
+
+    // True when the portfolio itself was deleted
+    private final boolean deleted;
+}
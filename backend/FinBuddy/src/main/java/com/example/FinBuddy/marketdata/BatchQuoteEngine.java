@@ -0,0 +1,116 @@
+package com.example.FinBuddy.marketdata;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Fans a batch of symbol lookups out over a bounded worker pool and waits for
+ * them up to a single deadline. Symbols that are still loading when the deadline
+ * passes are reported as timed out; their loads keep running and warm the cache
+ * for the next request.
+ */
+@Component
+@Slf4j
+public class BatchQuoteEngine {
+
+    public static final int DEFAULT_PARALLELISM = 8;
+    public static final long DEFAULT_TIMEOUT_MS = 6000; // one 5s upstream round-trip plus slack
+
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final long timeoutMs;
+
+    @Autowired
+    public BatchQuoteEngine(
+            @Value("${market.batch.parallelism:8}") int parallelism,
+            @Value("${market.batch.timeout-ms:6000}") long timeoutMs) {
+        this.parallelism = parallelism;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "batch-quote-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("BatchQuoteEngine initialized - parallelism: {}, timeout: {}ms", parallelism, timeoutMs);
+    }
+
+    public BatchQuoteEngine() {
+        this(DEFAULT_PARALLELISM, DEFAULT_TIMEOUT_MS);
+    }
+
+    /**
+     * Load every distinct symbol concurrently and return whatever finished before the deadline
+     */
+    public <T> BatchResult<T> fetchAll(Collection<String> symbols, Function<String, T> loader) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+
+        Map<String, CompletableFuture<T>> pending = new LinkedHashMap<>();
+        for (String symbol : new LinkedHashSet<>(symbols)) {
+            pending.put(symbol, CompletableFuture.supplyAsync(() -> loader.apply(symbol), executor));
+        }
+
+        try {
+            long remaining = deadline - System.nanoTime();
+            CompletableFuture.allOf(pending.values().toArray(new CompletableFuture[0]))
+                    .get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Timed out or a load failed; completed loads are collected below
+        }
+
+        Map<String, T> results = new LinkedHashMap<>();
+        List<String> timedOut = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        pending.forEach((symbol, future) -> {
+            if (!future.isDone()) {
+                timedOut.add(symbol);
+            } else if (future.isCompletedExceptionally()) {
+                failed.add(symbol);
+            } else {
+                T value = future.join();
+                if (value != null) {
+                    results.put(symbol, value);
+                } else {
+                    failed.add(symbol);
+                }
+            }
+        });
+
+        if (!timedOut.isEmpty()) {
+            log.warn("Batch of {} symbols returned partial results; timed out after {}ms: {}",
+                    pending.size(), timeoutMs, timedOut);
+        }
+        return new BatchResult<>(results, timedOut, failed);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.FinBuddy.marketdata;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a batch lookup: the values that arrived in time plus the symbols that did not
+ */
+@Getter
+@AllArgsConstructor
+public class BatchResult<T> {
+
+    // Resolved values in request order
+    private final Map<String, T> results;
+
+    // Still loading when the batch deadline passed
+    private final List<String> timedOut;
+
+    // Load threw or produced no value
+    private final List<String> failed;
+
+    public boolean isPartial() {
+        return !timedOut.isEmpty() || !failed.isEmpty();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.FinBuddy.marketdata;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Burkhard-Keller tree of terms under edit distance: finds every term within a given distance
+ * of a query while comparing against only a small part of the terms. Each term carries an int
+ * value (e.g. its index in a dictionary). Not thread-safe for inserts; read-only once built.
+ */
+public class BkTree {
+
+    /**
+     * Receives each term within range of a query
+     */
+    public interface Visitor {
+        void accept(String term, int value, int distance);
+    }
+
+    private Node root;
+    private int size;
+
+    public void add(String term, int value) {
+        if (root == null) {
+            root = new Node(term, value);
+            size++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = EditDistance.bounded(node.term, term, Math.max(node.term.length(), term.length()));
+            if (distance == 0) {
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(term, value));
+                node.maxEdge = Math.max(node.maxEdge, distance);
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Visit every term within maxDistance edits of the query
+     */
+    public void search(String query, int maxDistance, Visitor visitor) {
+        if (root != null) {
+            search(root, query, maxDistance, visitor);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static void search(Node node, String query, int maxDistance, Visitor visitor) {
+        // Exact up to maxDistance + maxEdge; beyond that no child edge can be in range
+        int distance = EditDistance.bounded(node.term, query, maxDistance + node.maxEdge);
+        if (distance <= maxDistance) {
+            visitor.accept(node.term, node.value, distance);
+        }
+        if (node.children.isEmpty()) {
+            return;
+        }
+        int low = Math.max(1, distance - maxDistance);
+        int high = Math.min(node.maxEdge, distance + maxDistance);
+        for (int edge = low; edge <= high; edge++) {
+            Node child = node.children.get(edge);
+            if (child != null) {
+                search(child, query, maxDistance, visitor);
+            }
+        }
+    }
+
+    private static final class Node {
+        private final String term;
+        private final int value;
+        private final Map<Integer, Node> children = new HashMap<>(4);
+        private int maxEdge;
+
+        private Node(String term, int value) {
+            this.term = term;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.FinBuddy.marketdata;
+
+import java.math.BigDecimal;
+
+/**
+ * A single cached quote together with the time it was fetched and how long it stays fresh
+ */
+public final class CachedPrice {
+
+    private final BigDecimal price;
+    private final long timestamp;
+    private final long ttlMs;
+    private final boolean mock;
+
+    public CachedPrice(BigDecimal price, long ttlMs) {
+        this(price, System.currentTimeMillis(), ttlMs);
+    }
+
+    public CachedPrice(BigDecimal price, long timestamp, long ttlMs) {
+        this(price, timestamp, ttlMs, false);
+    }
+
+    public CachedPrice(BigDecimal price, long timestamp, long ttlMs, boolean mock) {
+        this.price = price;
+        this.timestamp = timestamp;
+        this.ttlMs = ttlMs;
+        this.mock = mock;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    /**
+     * Milliseconds elapsed since the quote was fetched
+     */
+    public long getAgeMs() {
+        return System.currentTimeMillis() - timestamp;
+    }
+
+    /**
+     * Whether the price is generated fallback data rather than a provider quote
+     */
+    public boolean isMock() {
+        return mock;
+    }
+
+    /**
+     * Where the served price comes from: "live" for a fresh provider quote, "cache" for one
+     * past its TTL, "mock" for fallback data
+     */
+    public String getSource() {
+        if (mock) {
+            return "mock";
+        }
+        return isExpired() ? "cache" : "live";
+    }
+
+    public boolean isExpired() {
+        return getAgeMs() > ttlMs;
+    }
+
+    /**
+     * Whether the quote is fresh or expired by no more than maxStaleMs
+     */
+    public boolean isServable(long maxStaleMs) {
+        return getAgeMs() <= ttlMs + maxStaleMs;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.FinBuddy.marketdata;
+
+/**
+ * Who is waiting on an upstream market data call.
+ * Interactive calls serve a user request; background calls pre-warm the cache.
+ */
+public enum CallPriority {
+    INTERACTIVE,
+    BACKGROUND
+}
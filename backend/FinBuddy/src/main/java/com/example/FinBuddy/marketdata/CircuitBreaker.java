@@ -0,0 +1,332 @@
+package com.example.FinBuddy.marketdata;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for one upstream provider.
+ * Opens when too many recent calls fail, rejects calls while open, and after a cool-down
+ * lets a limited number of probe calls through (half-open) to decide whether to close again.
+ * The call timeout follows the provider's observed p99 latency instead of a fixed value.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final int MAX_TRANSITIONS = 20;
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+    private final long minTimeoutMs;
+    private final long maxTimeoutMs;
+    private final double timeoutMultiplier;
+    private final LongSupplier nanoClock;
+
+    // Outcomes of the last windowSize calls, true = failure
+    private final boolean[] outcomes;
+    private int outcomeCount;
+    private int outcomeIndex;
+    private int failuresInWindow;
+
+    // Latencies of the last calls, timed-out calls counted at the timeout they hit
+    private final long[] latenciesMs;
+    private int latencyCount;
+    private int latencyIndex;
+    private volatile long timeoutMs;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int probesInFlight;
+    private int probeSuccesses;
+    private long rejectedCount;
+    private final Deque<Map<String, Object>> transitions = new ArrayDeque<>();
+
+    /**
+     * @param windowSize           number of recent calls the failure rate is computed over
+     * @param minimumCalls         calls needed in the window before the breaker may open
+     * @param failureRateThreshold failure rate (0-1) at which the breaker opens
+     * @param openDurationMs       time to stay open before probing
+     * @param halfOpenProbes       probe calls allowed (and required to succeed) while half-open
+     * @param minTimeoutMs         lower bound of the adaptive timeout
+     * @param maxTimeoutMs         upper bound of the adaptive timeout, used until enough latencies are seen
+     * @param timeoutMultiplier    headroom applied on top of the observed p99 latency
+     */
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+            long openDurationMs, int halfOpenProbes, long minTimeoutMs, long maxTimeoutMs,
+            double timeoutMultiplier) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, openDurationMs, halfOpenProbes,
+                minTimeoutMs, maxTimeoutMs, timeoutMultiplier, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+            long openDurationMs, int halfOpenProbes, long minTimeoutMs, long maxTimeoutMs,
+            double timeoutMultiplier, LongSupplier nanoClock) {
+        this.name = name;
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, this.windowSize));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.minTimeoutMs = minTimeoutMs;
+        this.maxTimeoutMs = Math.max(minTimeoutMs, maxTimeoutMs);
+        this.timeoutMultiplier = timeoutMultiplier;
+        this.nanoClock = nanoClock;
+        this.outcomes = new boolean[this.windowSize];
+        this.latenciesMs = new long[100];
+        this.timeoutMs = this.maxTimeoutMs;
+    }
+
+    /**
+     * Run a provider call through the breaker: rejected immediately while open,
+     * otherwise bounded by the adaptive timeout and recorded as a success or failure.
+     * Half-open probes get the full maxTimeoutMs, so a provider that has become slower than
+     * the learned timeout can still close the breaker.
+     */
+    public <T> Mono<T> protect(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquirePermission()) {
+                return Mono.error(new CallNotPermittedException(name));
+            }
+            long start = nanoClock.getAsLong();
+            long callTimeoutMs = getState() == State.HALF_OPEN ? maxTimeoutMs : timeoutMs;
+            return call
+                    .timeout(Duration.ofMillis(callTimeoutMs))
+                    .doOnSuccess(value -> onSuccess(elapsedMs(start)))
+                    .doOnError(error -> {
+                        if (error instanceof TimeoutException) {
+                            onTimeout(callTimeoutMs);
+                        } else if (isProviderFailure(error)) {
+                            onFailure();
+                        } else {
+                            onSuccess(elapsedMs(start));
+                        }
+                    })
+                    .doOnCancel(this::onCancelled);
+        });
+    }
+
+    /**
+     * Whether a call would currently be let through, without taking a half-open probe slot
+     */
+    public synchronized boolean isCallPermitted() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return nanoClock.getAsLong() - openedAtNanos >= openDurationNanos;
+            default:
+                return probesInFlight < halfOpenProbes;
+        }
+    }
+
+    synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openDurationNanos) {
+            transitionTo(State.HALF_OPEN, "cool-down of " + TimeUnit.NANOSECONDS.toMillis(openDurationNanos)
+                    + "ms elapsed");
+        }
+        switch (state) {
+            case CLOSED:
+                return true;
+            case HALF_OPEN:
+                if (probesInFlight < halfOpenProbes) {
+                    probesInFlight++;
+                    return true;
+                }
+                rejectedCount++;
+                return false;
+            default:
+                rejectedCount++;
+                return false;
+        }
+    }
+
+    synchronized void onSuccess(long latencyMs) {
+        recordLatency(latencyMs);
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            probeSuccesses++;
+            if (probeSuccesses >= halfOpenProbes) {
+                transitionTo(State.CLOSED, probeSuccesses + " probe call(s) succeeded");
+            }
+            return;
+        }
+        recordOutcome(false);
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            transitionTo(State.OPEN, "probe call failed");
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        recordOutcome(true);
+        if (outcomeCount >= minimumCalls) {
+            double failureRate = failuresInWindow / (double) outcomeCount;
+            if (failureRate >= failureRateThreshold) {
+                transitionTo(State.OPEN, String.format("failure rate %.0f%% over last %d calls",
+                        failureRate * 100, outcomeCount));
+            }
+        }
+    }
+
+    /**
+     * A call cut off after timeoutMs: a failure, and a latency of at least timeoutMs, so
+     * repeated timeouts grow the adaptive timeout instead of leaving it below the provider's latency
+     */
+    synchronized void onTimeout(long timeoutMs) {
+        recordLatency(timeoutMs);
+        onFailure();
+    }
+
+    private synchronized void onCancelled() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Current call timeout: p99 of recent call latencies times the multiplier, within the configured bounds
+     */
+    public Duration getTimeout() {
+        return Duration.ofMillis(timeoutMs);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * State, failure rate, adaptive timeout and recent transitions
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state.name());
+        stats.put("failureRate", outcomeCount == 0 ? 0.0 : failuresInWindow / (double) outcomeCount);
+        stats.put("callsInWindow", outcomeCount);
+        stats.put("timeoutMs", timeoutMs);
+        stats.put("p99LatencyMs", latencyCount == 0 ? null : percentile(0.99));
+        stats.put("rejected", rejectedCount);
+        stats.put("transitions", new ArrayList<>(transitions));
+        return stats;
+    }
+
+    private void transitionTo(State newState, String reason) {
+        State previous = state;
+        state = newState;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAtNanos = nanoClock.getAsLong();
+            log.warn("Circuit breaker '{}' {} -> OPEN: {}", name, previous, reason);
+        } else {
+            log.info("Circuit breaker '{}' {} -> {}: {}", name, previous, newState, reason);
+        }
+        if (newState == State.CLOSED) {
+            resetWindow();
+        }
+
+        Map<String, Object> transition = new LinkedHashMap<>();
+        transition.put("at", Instant.now().toString());
+        transition.put("from", previous.name());
+        transition.put("to", newState.name());
+        transition.put("reason", reason);
+        transitions.addLast(transition);
+        if (transitions.size() > MAX_TRANSITIONS) {
+            transitions.removeFirst();
+        }
+    }
+
+    private void recordOutcome(boolean failure) {
+        if (outcomeCount == windowSize) {
+            if (outcomes[outcomeIndex]) {
+                failuresInWindow--;
+            }
+        } else {
+            outcomeCount++;
+        }
+        outcomes[outcomeIndex] = failure;
+        if (failure) {
+            failuresInWindow++;
+        }
+        outcomeIndex = (outcomeIndex + 1) % windowSize;
+    }
+
+    private void resetWindow() {
+        Arrays.fill(outcomes, false);
+        outcomeCount = 0;
+        outcomeIndex = 0;
+        failuresInWindow = 0;
+    }
+
+    private void recordLatency(long latencyMs) {
+        latenciesMs[latencyIndex] = latencyMs;
+        latencyIndex = (latencyIndex + 1) % latenciesMs.length;
+        latencyCount = Math.min(latencyCount + 1, latenciesMs.length);
+        if (latencyCount >= MIN_LATENCY_SAMPLES) {
+            long adaptive = (long) Math.ceil(percentile(0.99) * timeoutMultiplier);
+            timeoutMs = Math.max(minTimeoutMs, Math.min(maxTimeoutMs, adaptive));
+        }
+    }
+
+    private long percentile(double quantile) {
+        long[] sorted = Arrays.copyOf(latenciesMs, latencyCount);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(rank, sorted.length - 1))];
+    }
+
+    private long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - startNanos);
+    }
+
+    /**
+     * Timeouts, connection errors and 5xx responses count against the provider;
+     * other 4xx responses mean it is up and answering
+     */
+    private static boolean isProviderFailure(Throwable error) {
+        if (error instanceof WebClientResponseException) {
+            return ((WebClientResponseException) error).getStatusCode().is5xxServerError();
+        }
+        return error instanceof TimeoutException || error instanceof WebClientRequestException;
+    }
+
+    /**
+     * Thrown instead of calling the provider while the breaker is open
+     */
+    public static class CallNotPermittedException extends RuntimeException {
+        public CallNotPermittedException(String name) {
+            super("Circuit breaker '" + name + "' is open");
+        }
+    }
+}
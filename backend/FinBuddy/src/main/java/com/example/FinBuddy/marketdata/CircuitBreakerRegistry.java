@@ -0,0 +1,61 @@
+package com.example.FinBuddy.marketdata;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One circuit breaker per upstream market data provider, sharing the same settings
+ */
+@Component
+@Slf4j
+public class CircuitBreakerRegistry {
+
+    private final Map<String, CircuitBreaker> breakers = new LinkedHashMap<>();
+
+    @Autowired
+    public CircuitBreakerRegistry(
+            @Value("${market.breaker.window-size:20}") int windowSize,
+            @Value("${market.breaker.minimum-calls:5}") int minimumCalls,
+            @Value("${market.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${market.breaker.open-duration-ms:30000}") long openDurationMs,
+            @Value("${market.breaker.half-open-probes:1}") int halfOpenProbes,
+            @Value("${market.breaker.min-timeout-ms:500}") long minTimeoutMs,
+            @Value("${market.breaker.max-timeout-ms:5000}") long maxTimeoutMs,
+            @Value("${market.breaker.timeout-multiplier:2.0}") double timeoutMultiplier) {
+        for (String provider : new String[] { QuotaScheduler.FINNHUB, QuotaScheduler.ALPHA_VANTAGE }) {
+            breakers.put(provider, new CircuitBreaker(provider, windowSize, minimumCalls, failureRateThreshold,
+                    openDurationMs, halfOpenProbes, minTimeoutMs, maxTimeoutMs, timeoutMultiplier));
+        }
+        log.info("Circuit breakers initialized - open at {}% failures over {} calls, timeout {}-{}ms",
+                (int) (failureRateThreshold * 100), windowSize, minTimeoutMs, maxTimeoutMs);
+    }
+
+    /**
+     * Registry with the default breaker settings
+     */
+    public CircuitBreakerRegistry() {
+        this(20, 5, 0.5, 30000, 1, 500, 5000, 2.0);
+    }
+
+    public CircuitBreaker get(String provider) {
+        CircuitBreaker breaker = breakers.get(provider);
+        if (breaker == null) {
+            throw new IllegalArgumentException("Unknown market data provider: " + provider);
+        }
+        return breaker;
+    }
+
+    /**
+     * Breaker state and adaptive timeout per provider
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        breakers.forEach((name, breaker) -> stats.put(name, breaker.getStats()));
+        return stats;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.FinBuddy.marketdata;
+
+/**
+ * Bounded Levenshtein distance for typo-tolerant search.
+ * Only the diagonal band of width 2 * max + 1 is computed, the scan stops as soon as a whole
+ * row exceeds the bound, and the two DP rows come from a per-thread buffer, so a comparison
+ * allocates nothing and costs O(max * length) rather than O(length^2).
+ */
+public final class EditDistance {
+
+    private static final ThreadLocal<int[][]> ROWS = ThreadLocal.withInitial(() -> new int[2][32]);
+
+    private EditDistance() {
+    }
+
+    /**
+     * Edit distance between a and b if it is at most max, otherwise max + 1
+     */
+    public static int bounded(CharSequence a, CharSequence b, int max) {
+        int n = a.length();
+        int m = b.length();
+        int over = max + 1;
+        if (Math.abs(n - m) > max) {
+            return over;
+        }
+        if (n == 0 || m == 0) {
+            return Math.max(n, m);
+        }
+
+        int[][] rows = ROWS.get();
+        if (rows[0].length < m + 1) {
+            rows[0] = new int[m + 1 + 16];
+            rows[1] = new int[m + 1 + 16];
+        }
+        int[] previous = rows[0];
+        int[] current = rows[1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j <= max ? j : over;
+        }
+
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - max);
+            int to = Math.min(m, i + max);
+            current[from - 1] = from == 1 && i <= max ? i : over;
+            int rowMin = current[from - 1];
+            char ca = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int substitute = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                int value = Math.min(substitute, Math.min(previous[j], current[j - 1]) + 1);
+                current[j] = Math.min(value, over);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m) {
+                current[to + 1] = over;
+            }
+            if (rowMin > max) {
+                return over;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[m], over);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.FinBuddy.marketdata;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One searchable instrument of the {@link InstrumentCatalog}: symbol, name, currency and the
+ * type-specific details (sector, issuer, NAV, ...) returned with search results. Immutable.
+ */
+public final class Instrument {
+
+    public enum Type {
+        STOCK("Stock", List.of("sector")),
+        BOND("Bond", List.of("issuer", "bondType")),
+        MUTUAL_FUND("Mutual Fund", List.of("fundHouse", "category")),
+        SIP("SIP", List.of("fundHouse", "category"));
+
+        private final String label;
+        private final List<String> searchFields;
+
+        Type(String label, List<String> searchFields) {
+            this.label = label;
+            this.searchFields = searchFields;
+        }
+
+        /**
+         * Name shown in the "type" field of search results
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Detail fields matched by search besides symbol and name
+         */
+        public List<String> getSearchFields() {
+            return searchFields;
+        }
+    }
+
+    private static final BigDecimal BOND_PAR_PRICE = new BigDecimal("100.00");
+
+    private final Type type;
+    private final String symbol;
+    private final String name;
+    private final String currency;
+    private final Map<String, Object> details;
+
+    public Instrument(Type type, String symbol, String name, String currency, Map<String, Object> details) {
+        this.type = type;
+        this.symbol = symbol;
+        this.name = name;
+        this.currency = currency;
+        this.details = Collections.unmodifiableMap(new LinkedHashMap<>(details));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public Object getDetail(String field) {
+        return details.get(field);
+    }
+
+    /**
+     * Reference price known without a market data call: par for bonds, NAV for funds and SIPs.
+     * Null for stocks, whose price has to be looked up.
+     */
+    public BigDecimal getReferencePrice() {
+        switch (type) {
+            case BOND:
+                return BOND_PAR_PRICE;
+            case MUTUAL_FUND:
+            case SIP:
+                return (BigDecimal) details.get("nav");
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * A new, mutable search result row; "price" holds the reference price, which callers may replace
+     */
+    public Map<String, Object> toSearchResult() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("symbol", symbol);
+        result.put("name", name);
+        result.putAll(details);
+        result.put("currency", currency);
+        result.put("type", type.getLabel());
+        result.put("price", getReferencePrice());
+        return result;
+    }
+}
@@ -0,0 +1,379 @@
+package com.example.FinBuddy.marketdata;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable catalog of the instruments offered by market search, loaded once from a CSV file.
+ * Symbols are indexed in a prefix trie and the words of names and descriptive fields (sector,
+ * issuer, fund house, ...) in a sorted token dictionary, so a typeahead query is a few lookups
+ * instead of a scan. Tokens are also held in a BK-tree, so a misspelt word still finds its
+ * instrument within a bounded number of edits. Candidates are scored once and kept in a bounded
+ * top-K heap. Prices are not part of the catalog; callers attach them.
+ */
+@Component
+@Slf4j
+public class InstrumentCatalog {
+
+    public static final String DEFAULT_LOCATION = "classpath:marketdata/instruments.csv";
+
+    private static final Set<String> BASE_COLUMNS = Set.of("type", "symbol", "name", "currency");
+    private static final int MAX_EDITS = 3;
+    private static final Set<String> NUMERIC_COLUMNS = Set.of("couponRate", "nav", "expenseRatio", "minSIP");
+
+    private final List<Instrument> instruments;
+    private final String[] symbols;
+    private final String[] names;
+    private final Map<Instrument.Type, BitSet> byType = new EnumMap<>(Instrument.Type.class);
+    private final TrieNode symbolTrie = new TrieNode();
+    private final String[] tokens;
+    private final int[][] postings;
+    private final BkTree tokenTree = new BkTree();
+
+    @Autowired
+    public InstrumentCatalog(@Value("${market.instruments.file:" + DEFAULT_LOCATION + "}") String file) {
+        this(load(file));
+        log.info("Instrument catalog loaded - {} instruments, {} tokens from {}",
+                instruments.size(), tokens.length, file);
+    }
+
+    /**
+     * Catalog of the bundled instruments file
+     */
+    public InstrumentCatalog() {
+        this(load(DEFAULT_LOCATION));
+    }
+
+    public InstrumentCatalog(List<Instrument> instruments) {
+        this.instruments = Collections.unmodifiableList(new ArrayList<>(instruments));
+        int size = this.instruments.size();
+        this.symbols = new String[size];
+        this.names = new String[size];
+        Map<String, List<Integer>> tokenIds = new TreeMap<>();
+        for (int id = 0; id < size; id++) {
+            Instrument instrument = this.instruments.get(id);
+            symbols[id] = normalize(instrument.getSymbol());
+            names[id] = normalize(instrument.getName());
+            byType.computeIfAbsent(instrument.getType(), type -> new BitSet(size)).set(id);
+            symbolTrie.insert(symbols[id], id);
+            for (String token : tokensOf(instrument)) {
+                List<Integer> ids = tokenIds.computeIfAbsent(token, key -> new ArrayList<>());
+                if (ids.isEmpty() || ids.get(ids.size() - 1) != id) {
+                    ids.add(id);
+                }
+            }
+        }
+        this.tokens = tokenIds.keySet().toArray(new String[0]);
+        this.postings = new int[tokens.length][];
+        for (int i = 0; i < tokens.length; i++) {
+            postings[i] = tokenIds.get(tokens[i]).stream().mapToInt(Integer::intValue).toArray();
+            tokenTree.add(tokens[i], i);
+        }
+        symbolTrie.freeze();
+    }
+
+    /**
+     * Instruments matching the query, best first, allowing for typos by word length
+     *
+     * @see #search(String, Instrument.Type, int, Integer)
+     */
+    public List<Instrument> search(String query, Instrument.Type type, int limit) {
+        return search(query, type, limit, null);
+    }
+
+    /**
+     * Instruments matching the query, best first
+     *
+     * @see #rank(String, Instrument.Type, int, Integer)
+     */
+    public List<Instrument> search(String query, Instrument.Type type, int limit, Integer maxDistance) {
+        List<SearchHit> hits = rank(query, type, limit, maxDistance);
+        List<Instrument> results = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            results.add(hit.getInstrument());
+        }
+        return results;
+    }
+
+    /**
+     * The best hits for the query: the symbol starts with the query, or every word of the query
+     * starts a word of the name or descriptive fields, or is within the allowed number of edits
+     * of one. Exact matches rank above typo matches. A blank query returns the first instruments
+     * in catalog order. Each type is ranked into its own top-K heap and the sorted per-type lists
+     * are merged, so no more than the limit is ever sorted.
+     *
+     * @param type        restrict to one type, or null for all
+     * @param maxDistance edits allowed per query word (0 disables typo matching); null picks
+     *                    1 for words of 4-7 characters and 2 for longer words
+     */
+    public List<SearchHit> rank(String query, Instrument.Type type, int limit, Integer maxDistance) {
+        String normalized = normalize(query);
+        BitSet matches = new BitSet(instruments.size());
+        Map<Integer, Integer> typoDistances = new HashMap<>();
+        if (normalized.isEmpty()) {
+            matches.set(0, instruments.size());
+        } else {
+            symbolTrie.collect(normalized, matches);
+            BitSet wordMatches = matchWords(normalized, maxDistance, typoDistances);
+            if (wordMatches != null) {
+                matches.or(wordMatches);
+            }
+        }
+
+        List<List<SearchHit>> perType = new ArrayList<>();
+        for (Map.Entry<Instrument.Type, BitSet> entry : byType.entrySet()) {
+            if (type != null && entry.getKey() != type) {
+                continue;
+            }
+            BitSet candidates = (BitSet) matches.clone();
+            candidates.and(entry.getValue());
+            if (candidates.isEmpty()) {
+                continue;
+            }
+            TopK<SearchHit> best = new TopK<>(limit, SearchHit.ORDER);
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                best.offer(score(id, normalized, typoDistances.getOrDefault(id, 0)));
+            }
+            perType.add(best.toList());
+        }
+        return TopK.merge(perType, SearchHit.ORDER, limit);
+    }
+
+    /**
+     * All instruments of a type (or all, for null) in catalog order
+     */
+    public List<Instrument> getInstruments(Instrument.Type type) {
+        if (type == null) {
+            return instruments;
+        }
+        BitSet ids = byType.getOrDefault(type, new BitSet());
+        List<Instrument> result = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            result.add(instruments.get(id));
+        }
+        return result;
+    }
+
+    public int size() {
+        return instruments.size();
+    }
+
+    /**
+     * Same ordering as the relevance score the linear search used, with typo matches last
+     */
+    private SearchHit score(int id, String query, int typoDistance) {
+        SearchHit.Match match;
+        if (symbols[id].equals(query)) {
+            match = SearchHit.Match.SYMBOL_EXACT;
+        } else if (symbols[id].startsWith(query)) {
+            match = SearchHit.Match.SYMBOL_PREFIX;
+        } else if (names[id].startsWith(query)) {
+            match = SearchHit.Match.NAME_PREFIX;
+        } else if (symbols[id].contains(query)) {
+            match = SearchHit.Match.SYMBOL_CONTAINS;
+        } else if (names[id].contains(query)) {
+            match = SearchHit.Match.NAME_CONTAINS;
+        } else {
+            match = typoDistance == 0 ? SearchHit.Match.WORDS : SearchHit.Match.TYPO;
+        }
+        return new SearchHit(instruments.get(id), id, match, match == SearchHit.Match.TYPO ? typoDistance : 0);
+    }
+
+    /**
+     * Instruments having, for every query word, a token that starts with the word or is within
+     * the allowed edits of it; null if the query has no words. Instruments matched through a
+     * typo get the edits needed (summed over words) in typoDistances.
+     */
+    private BitSet matchWords(String query, Integer maxDistance, Map<Integer, Integer> typoDistances) {
+        BitSet result = null;
+        for (String word : splitWords(query)) {
+            BitSet wordMatches = new BitSet(instruments.size());
+            int first = lowerBound(word);
+            for (int i = first; i < tokens.length && tokens[i].startsWith(word); i++) {
+                for (int id : postings[i]) {
+                    wordMatches.set(id);
+                }
+            }
+
+            Map<Integer, Integer> wordTypos = new HashMap<>();
+            int allowed = allowedEdits(word, maxDistance);
+            if (allowed > 0) {
+                tokenTree.search(word, allowed, (token, tokenIndex, distance) -> {
+                    for (int id : postings[tokenIndex]) {
+                        if (!wordMatches.get(id)) {
+                            wordTypos.merge(id, distance, Math::min);
+                        }
+                    }
+                });
+            }
+            wordTypos.keySet().forEach(wordMatches::set);
+
+            if (result == null) {
+                result = wordMatches;
+            } else {
+                result.and(wordMatches);
+            }
+            wordTypos.forEach((id, distance) -> typoDistances.merge(id, distance, Integer::sum));
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        if (result != null) {
+            BitSet matched = result;
+            typoDistances.keySet().removeIf(id -> !matched.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Words under three characters are never fuzzy-matched: one edit would match almost anything
+     */
+    static int allowedEdits(String word, Integer maxDistance) {
+        if (word.length() < 3) {
+            return 0;
+        }
+        if (maxDistance != null) {
+            return Math.max(0, Math.min(maxDistance, MAX_EDITS));
+        }
+        return word.length() >= 8 ? 2 : word.length() >= 4 ? 1 : 0;
+    }
+
+    private int lowerBound(String word) {
+        int index = Arrays.binarySearch(tokens, word);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static List<String> tokensOf(Instrument instrument) {
+        List<String> tokens = new ArrayList<>(splitWords(normalize(instrument.getSymbol())));
+        tokens.addAll(splitWords(normalize(instrument.getName())));
+        for (String field : instrument.getType().getSearchFields()) {
+            Object value = instrument.getDetail(field);
+            if (value != null) {
+                tokens.addAll(splitWords(normalize(value.toString())));
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> splitWords(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : text.split("[^a-z0-9]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Instrument> load(String location) {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            return parse(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read instrument catalog from " + location, e);
+        }
+    }
+
+    /**
+     * Parse the catalog CSV: a header row naming the columns (type, symbol, name, currency and
+     * any detail columns), then one instrument per line; blank lines and '#' comments are skipped
+     */
+    static List<Instrument> parse(Reader source) throws IOException {
+        List<Instrument> instruments = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(source);
+        String[] header = null;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (header == null) {
+                header = fields;
+                continue;
+            }
+            if (fields.length != header.length) {
+                throw new IllegalStateException("Malformed instrument on line " + lineNumber + ": " + line);
+            }
+            Map<String, String> row = new HashMap<>();
+            Map<String, Object> details = new LinkedHashMap<>();
+            for (int i = 0; i < header.length; i++) {
+                String column = header[i].trim();
+                String value = fields[i].trim();
+                row.put(column, value);
+                if (value.isEmpty() || BASE_COLUMNS.contains(column)) {
+                    continue;
+                }
+                details.put(column, NUMERIC_COLUMNS.contains(column) ? new BigDecimal(value) : value);
+            }
+            instruments.add(new Instrument(Instrument.Type.valueOf(row.get("type")), row.get("symbol"),
+                    row.get("name"), row.get("currency"), details));
+        }
+        return instruments;
+    }
+
+    /**
+     * Symbol prefix trie; each node lists the instruments whose symbol starts with the path to it
+     */
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private List<Integer> pending = new ArrayList<>();
+        private int[] ids;
+
+        void insert(String symbol, int id) {
+            TrieNode node = this;
+            for (int i = 0; i < symbol.length(); i++) {
+                node = node.children.computeIfAbsent(symbol.charAt(i), key -> new TrieNode());
+                node.pending.add(id);
+            }
+        }
+
+        void freeze() {
+            ids = pending.stream().mapToInt(Integer::intValue).toArray();
+            pending = null;
+            children.values().forEach(TrieNode::freeze);
+        }
+
+        void collect(String prefix, BitSet into) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            if (node != null) {
+                for (int id : node.ids) {
+                    into.set(id);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.FinBuddy.marketdata;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Open, high, low and close of the ticks in one time bucket of a {@link PriceSeries}
+ */
+@Getter
+@AllArgsConstructor
+public class PriceBar {
+
+    // Bucket start, epoch millis
+    private final long start;
+
+    private final double open;
+    private final double high;
+    private final double low;
+    private final double close;
+    private final int ticks;
+}
@@ -0,0 +1,214 @@
+package com.example.FinBuddy.marketdata;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded quote cache shared by the market data services.
+ * Entries are evicted by size (W-TinyLFU) and go stale individually once their TTL passes.
+ * Stale quotes are kept for up to maxStaleMs more so callers can serve them while a refresh
+ * runs; a background scheduler removes them after that even when nobody reads them again.
+ */
+@Component
+@Slf4j
+public class PriceCache {
+
+    public static final long DEFAULT_MAX_ENTRIES = 10_000;
+    public static final long DEFAULT_TTL_MS = 5 * 60 * 1000; // 5 minutes
+    public static final long DEFAULT_FALLBACK_TTL_MS = 60 * 1000; // 1 minute
+    public static final long DEFAULT_MAX_STALE_MS = 15 * 60 * 1000; // 15 minutes
+
+    private final Cache<String, CachedPrice> cache;
+    private final long maxEntries;
+    private final long ttlMs;
+    private final long fallbackTtlMs;
+    private final long maxStaleMs;
+    private final AtomicLong staleHits = new AtomicLong();
+    private final List<PriceUpdateListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param maxStaleMs how long past its TTL a quote may still be served; 0 disables serve-stale
+     */
+    @Autowired
+    public PriceCache(
+            @Value("${market.cache.max-entries:10000}") long maxEntries,
+            @Value("${market.cache.ttl-ms:300000}") long ttlMs,
+            @Value("${market.cache.fallback-ttl-ms:60000}") long fallbackTtlMs,
+            @Value("${market.cache.max-stale-ms:900000}") long maxStaleMs) {
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.fallbackTtlMs = fallbackTtlMs;
+        this.maxStaleMs = Math.max(0, maxStaleMs);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new QuoteExpiry())
+                .scheduler(Scheduler.systemScheduler())
+                .recordStats()
+                .build();
+        log.info("PriceCache initialized - max entries: {}, TTL: {}ms, fallback TTL: {}ms, max stale: {}ms",
+                maxEntries, ttlMs, fallbackTtlMs, this.maxStaleMs);
+    }
+
+    /**
+     * Cache with the default limits (used outside the Spring context)
+     */
+    public PriceCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MS, DEFAULT_FALLBACK_TTL_MS, DEFAULT_MAX_STALE_MS);
+    }
+
+    /**
+     * Get a quote that is still within its TTL, or null on a miss
+     */
+    public BigDecimal getFresh(String symbol) {
+        CachedPrice cached = cache.getIfPresent(symbol);
+        return cached != null && !cached.isExpired() ? cached.getPrice() : null;
+    }
+
+    /**
+     * Same as getFresh but without counting towards hit/miss statistics
+     */
+    public BigDecimal peekFresh(String symbol) {
+        CachedPrice cached = cache.policy().getIfPresentQuietly(symbol);
+        return cached != null && !cached.isExpired() ? cached.getPrice() : null;
+    }
+
+    /**
+     * Get a quote that is fresh or at most maxStaleMs past its TTL, or null on a miss.
+     * Callers check {@link CachedPrice#isExpired()} to decide whether to revalidate.
+     */
+    public CachedPrice getServable(String symbol) {
+        CachedPrice cached = cache.getIfPresent(symbol);
+        if (cached == null || !cached.isServable(maxStaleMs)) {
+            return null;
+        }
+        if (cached.isExpired()) {
+            staleHits.incrementAndGet();
+        }
+        return cached;
+    }
+
+    /**
+     * Same as getServable but without counting towards statistics
+     */
+    public CachedPrice peekServable(String symbol) {
+        CachedPrice cached = cache.policy().getIfPresentQuietly(symbol);
+        return cached != null && cached.isServable(maxStaleMs) ? cached : null;
+    }
+
+    public long getMaxStaleMs() {
+        return maxStaleMs;
+    }
+
+    /**
+     * Store a quote fetched from a live provider and notify listeners if the price moved
+     */
+    public void put(String symbol, BigDecimal price) {
+        CachedPrice previous = cache.asMap().put(symbol, new CachedPrice(price, ttlMs));
+        if (previous == null || previous.getPrice().compareTo(price) != 0) {
+            for (PriceUpdateListener listener : listeners) {
+                try {
+                    listener.onPriceUpdate(symbol, price);
+                } catch (Exception e) {
+                    log.warn("Price update listener failed for {}: {}", symbol, e.getMessage());
+                }
+            }
+        }
+    }
+
+    public void addListener(PriceUpdateListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(PriceUpdateListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Put back a quote fetched before a restart, with its original fetch time, without notifying
+     * listeners; quotes too old to be served are left out
+     *
+     * @return whether the quote was cached
+     */
+    public boolean restore(String symbol, BigDecimal price, long timestamp) {
+        CachedPrice quote = new CachedPrice(price, timestamp, ttlMs);
+        if (!quote.isServable(maxStaleMs)) {
+            return false;
+        }
+        cache.asMap().putIfAbsent(symbol, quote);
+        return true;
+    }
+
+    /**
+     * Store a fallback (mock) quote; these expire sooner so the live provider is retried
+     */
+    public void putFallback(String symbol, BigDecimal price) {
+        cache.put(symbol, new CachedPrice(price, System.currentTimeMillis(), fallbackTtlMs, true));
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Run pending eviction and expiry work now instead of on the next write
+     */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * Hit, miss and eviction counters for sizing the cache
+     */
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("maxEntries", maxEntries);
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("staleHitCount", staleHits.get());
+        result.put("evictionCount", stats.evictionCount());
+        return result;
+    }
+
+    /**
+     * Retains each entry for its own TTL plus the stale window rather than one cache-wide duration
+     */
+    private class QuoteExpiry implements Expiry<String, CachedPrice> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedPrice value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(value.getTtlMs() + maxStaleMs);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedPrice value, long currentTime, long currentDuration) {
+            return TimeUnit.MILLISECONDS.toNanos(value.getTtlMs() + maxStaleMs);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedPrice value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.FinBuddy.marketdata;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tick history of every symbol quoted by a live provider, one {@link PriceSeries} per symbol
+ * (symbols are matched ignoring case).
+ * Unlike {@link PriceCache}, which keeps only the latest quote, this keeps every fetch so
+ * analytics can compute returns and volatility without going back to a provider. With a
+ * persistent {@link PriceSegmentStore} the series are mapped back in at startup, and the last
+ * tick of each is the last known quote to warm the cache with.
+ */
+@Component
+@Slf4j
+public class PriceHistoryStore {
+
+    private final Map<String, PriceSeries> series = new ConcurrentHashMap<>();
+    private final AtomicLong ticks = new AtomicLong();
+    private final PriceSegmentStore segments;
+
+    /**
+     * History kept in memory only (used outside the Spring context)
+     */
+    public PriceHistoryStore() {
+        this(new PriceSegmentStore((Path) null));
+    }
+
+    @Autowired
+    public PriceHistoryStore(PriceSegmentStore segments) {
+        this.segments = segments;
+        long start = System.currentTimeMillis();
+        for (PriceSeries restored : segments.restore()) {
+            series.put(restored.getSymbol(), restored);
+            ticks.addAndGet(restored.size());
+        }
+        if (!series.isEmpty()) {
+            log.info("Price history restored - {} symbols, {} ticks in {}ms",
+                    series.size(), ticks.get(), System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Record a live quote fetched now
+     */
+    public void record(String symbol, BigDecimal price) {
+        record(symbol, System.currentTimeMillis(), price.doubleValue());
+    }
+
+    /**
+     * Record a tick; history is best-effort, so a failure to store it is logged, never thrown
+     */
+    public void record(String symbol, long epochMs, double price) {
+        try {
+            series.computeIfAbsent(PriceSegmentStore.normalize(symbol), this::newSeries).append(epochMs, price);
+            ticks.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.warn("Cannot record price history for {}: {}", symbol, e.getMessage());
+        }
+    }
+
+    /**
+     * The series of a symbol, or null if it was never quoted
+     */
+    public PriceSeries getSeries(String symbol) {
+        return series.get(PriceSegmentStore.normalize(symbol));
+    }
+
+    public Set<String> getSymbols() {
+        return Collections.unmodifiableSet(series.keySet());
+    }
+
+    /**
+     * Ticks with fromMs <= time < toMs; empty for an unknown symbol
+     */
+    public PriceSlice range(String symbol, long fromMs, long toMs) {
+        PriceSeries symbolSeries = series.get(PriceSegmentStore.normalize(symbol));
+        return symbolSeries != null
+                ? symbolSeries.range(fromMs, toMs)
+                : new PriceSlice(symbol, new long[0], new double[0]);
+    }
+
+    /**
+     * Price in effect at epochMs, or NaN if the symbol had no tick by then
+     */
+    public double asOf(String symbol, long epochMs) {
+        PriceSeries symbolSeries = series.get(PriceSegmentStore.normalize(symbol));
+        return symbolSeries != null ? symbolSeries.asOf(epochMs) : Double.NaN;
+    }
+
+    public List<PriceBar> rollup(String symbol, long fromMs, long toMs, long bucketMs) {
+        PriceSeries symbolSeries = series.get(PriceSegmentStore.normalize(symbol));
+        return symbolSeries != null ? symbolSeries.rollup(fromMs, toMs, bucketMs) : List.of();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("symbols", series.size());
+        stats.put("ticks", ticks.get());
+        stats.putAll(segments.getStats());
+        return stats;
+    }
+
+    private PriceSeries newSeries(String symbol) {
+        return segments.isEnabled()
+                ? new PriceSeries(symbol, segments.storageFor(symbol))
+                : new PriceSeries(symbol);
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.FinBuddy.marketdata;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps {@link PriceSeries} chunks in memory-mapped segment files, one directory per symbol and
+ * one fixed-size file per chunk, so price history survives a restart. A segment is a 64-byte
+ * header (magic, version, chunk size, tick count) followed by the chunk exactly as the series
+ * lays it out, so restoring is mapping the files back in: nothing is parsed or replayed.
+ * <p>
+ * Appends write the price, then the time, then the header count. After a crash, recovery
+ * trusts the count only as far as the times agree with it: a tick without its time is dropped
+ * and a written tick the count missed is picked up. Segments are forced to disk every
+ * flush interval and on shutdown; a process crash loses nothing, a power loss at most the
+ * ticks since the last flush. Disabled unless market.history.dir is set.
+ */
+@Component
+@Slf4j
+public class PriceSegmentStore {
+
+    static final int HEADER_BYTES = 64;
+    private static final int MAGIC = 0x46425053; // "FBPS"
+    private static final int VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CHUNK_TICKS_OFFSET = 8;
+    private static final int COUNT_OFFSET = 12;
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final Set<MappedByteBuffer> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicLong segments = new AtomicLong();
+
+    @Autowired
+    public PriceSegmentStore(@Value("${market.history.dir:}") String directory) {
+        this(directory == null || directory.isBlank() ? null : Paths.get(directory));
+    }
+
+    /**
+     * @param directory where segments live, or null to keep history in memory only
+     */
+    public PriceSegmentStore(Path directory) {
+        this.directory = directory;
+        log.info("PriceSegmentStore initialized - {}",
+                directory != null ? "segments in " + directory.toAbsolutePath() : "disabled, history is in-memory only");
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Map every persisted series back in; series whose files cannot be read are skipped
+     */
+    public List<PriceSeries> restore() {
+        List<PriceSeries> restored = new ArrayList<>();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return restored;
+        }
+        try (DirectoryStream<Path> symbols = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (Path symbolDirectory : symbols) {
+                String symbol = symbolOf(symbolDirectory);
+                try {
+                    PriceSeries series = restoreSeries(symbol, symbolDirectory);
+                    if (series != null) {
+                        restored.add(series);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Cannot restore price history for {}: {}", symbol, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Cannot list price history in {}: {}", directory, e.getMessage());
+        }
+        return restored;
+    }
+
+    /**
+     * Storage that creates the segments of a new series
+     */
+    public PriceSeries.ChunkStorage storageFor(String symbol) {
+        return new SegmentStorage(symbolDirectory(symbol), -1, null);
+    }
+
+    /**
+     * Force the segments written since the last flush to disk
+     */
+    @Scheduled(fixedDelayString = "${market.history.flush-interval-ms:10000}")
+    public void flush() {
+        for (MappedByteBuffer segment : dirty) {
+            dirty.remove(segment);
+            segment.force();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("persistent", isEnabled());
+        stats.put("segments", segments.get());
+        stats.put("mappedBytes", segments.get() * (HEADER_BYTES + PriceSeries.CHUNK_BYTES));
+        return stats;
+    }
+
+    private PriceSeries restoreSeries(String symbol, Path symbolDirectory) throws IOException {
+        List<ByteBuffer> chunks = new ArrayList<>();
+        MappedByteBuffer last = null;
+        int size = 0;
+        long lastTime = Long.MIN_VALUE;
+        for (int index = 0; ; index++) {
+            Path file = segmentFile(symbolDirectory, index);
+            if (!Files.exists(file)) {
+                break;
+            }
+            MappedByteBuffer segment = map(file, false);
+            if (segment.getInt(MAGIC_OFFSET) != MAGIC || segment.getInt(VERSION_OFFSET) != VERSION
+                    || segment.getInt(CHUNK_TICKS_OFFSET) != PriceSeries.CHUNK_TICKS) {
+                log.warn("Ignoring {} and later segments of {}: unrecognised header", file, symbol);
+                break;
+            }
+            ByteBuffer data = segment.slice(HEADER_BYTES, PriceSeries.CHUNK_BYTES);
+            int count = recover(segment, data);
+            if (count == 0 || data.getLong(0) < lastTime) {
+                break;
+            }
+            segments.incrementAndGet();
+            chunks.add(data);
+            last = segment;
+            size += count;
+            lastTime = data.getLong((count - 1) * Long.BYTES);
+            if (count < PriceSeries.CHUNK_TICKS) {
+                // Only the last segment is ever partly filled
+                break;
+            }
+        }
+        discardFrom(symbolDirectory, chunks.size());
+        if (chunks.isEmpty()) {
+            return null;
+        }
+        SegmentStorage storage = new SegmentStorage(symbolDirectory, chunks.size() - 1, last);
+        return new PriceSeries(symbol, storage, chunks.toArray(new ByteBuffer[0]), size);
+    }
+
+    /**
+     * Ticks really in a segment: the header count, corrected by the times actually written
+     */
+    private static int recover(MappedByteBuffer segment, ByteBuffer data) {
+        int count = Math.max(0, Math.min(segment.getInt(COUNT_OFFSET), PriceSeries.CHUNK_TICKS));
+        while (count > 0 && data.getLong((count - 1) * Long.BYTES) == 0) {
+            count--;
+        }
+        while (count < PriceSeries.CHUNK_TICKS) {
+            long time = data.getLong(count * Long.BYTES);
+            if (time == 0 || (count > 0 && time < data.getLong((count - 1) * Long.BYTES))) {
+                break;
+            }
+            count++;
+        }
+        segment.putInt(COUNT_OFFSET, count);
+        return count;
+    }
+
+    /**
+     * Delete the segments from index on, which recovery could not use, so later appends
+     * never line up with what is left of them
+     */
+    private static void discardFrom(Path symbolDirectory, int index) throws IOException {
+        for (Path file = segmentFile(symbolDirectory, index); Files.exists(file); file = segmentFile(symbolDirectory, ++index)) {
+            log.warn("Discarding unrecoverable price segment {}", file);
+            Files.delete(file);
+        }
+    }
+
+    private Path symbolDirectory(String symbol) {
+        return directory.resolve(directoryName(symbol));
+    }
+
+    /**
+     * Directory name of a symbol: uppercased, so symbols differing only in case share one
+     * directory even on a case-insensitive file system, and URL-encoded with dots escaped too,
+     * so no name is "." or ".." or contains a separator
+     */
+    static String directoryName(String symbol) {
+        return URLEncoder.encode(normalize(symbol), StandardCharsets.UTF_8)
+                .replace(".", "%2E")
+                .replace("*", "%2A");
+    }
+
+    /**
+     * Symbol a directory holds; the inverse of {@link #directoryName(String)}
+     */
+    private static String symbolOf(Path symbolDirectory) {
+        return normalize(URLDecoder.decode(symbolDirectory.getFileName().toString(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Case-normalized symbol that keys a series
+     */
+    static String normalize(String symbol) {
+        return symbol.toUpperCase(Locale.ROOT);
+    }
+
+    private static Path segmentFile(Path symbolDirectory, int index) {
+        return symbolDirectory.resolve(String.format("%08d%s", index, SUFFIX));
+    }
+
+    private static MappedByteBuffer map(Path file, boolean create) throws IOException {
+        StandardOpenOption[] options = create
+                ? new StandardOpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE};
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + PriceSeries.CHUNK_BYTES);
+        }
+    }
+
+    /**
+     * Segments of one symbol; appends only ever go to the newest one
+     */
+    private final class SegmentStorage implements PriceSeries.ChunkStorage {
+
+        private final Path symbolDirectory;
+        private int activeIndex;
+        private MappedByteBuffer active;
+
+        private SegmentStorage(Path symbolDirectory, int activeIndex, MappedByteBuffer active) {
+            this.symbolDirectory = symbolDirectory;
+            this.activeIndex = activeIndex;
+            this.active = active;
+        }
+
+        @Override
+        public ByteBuffer allocate(int chunk) {
+            try {
+                Files.createDirectories(symbolDirectory);
+                // Truncating zeroes whatever a crashed run may have left under this name
+                MappedByteBuffer segment = map(segmentFile(symbolDirectory, chunk), true);
+                segment.putInt(MAGIC_OFFSET, MAGIC);
+                segment.putInt(VERSION_OFFSET, VERSION);
+                segment.putInt(CHUNK_TICKS_OFFSET, PriceSeries.CHUNK_TICKS);
+                segment.putInt(COUNT_OFFSET, 0);
+                if (active != null) {
+                    dirty.add(active);
+                }
+                active = segment;
+                activeIndex = chunk;
+                segments.incrementAndGet();
+                return segment.slice(HEADER_BYTES, PriceSeries.CHUNK_BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create price segment " + chunk + " in " + symbolDirectory, e);
+            }
+        }
+
+        @Override
+        public void appended(int chunk, int ticks) {
+            if (chunk == activeIndex) {
+                active.putInt(COUNT_OFFSET, ticks);
+                dirty.add(active);
+            }
+        }
+    }
+}
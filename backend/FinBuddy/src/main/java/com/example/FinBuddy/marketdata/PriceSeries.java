@@ -0,0 +1,227 @@
+package com.example.FinBuddy.marketdata;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only price series of one symbol, stored column-wise in fixed-size off-heap chunks:
+ * the epoch millis of each tick in one region of a chunk and its price in another, so scans
+ * walk contiguous primitives and never box. Timestamps never go backwards; a tick older than
+ * the last one is recorded at the last timestamp.
+ * Chunks come from a {@link ChunkStorage}: direct buffers by default, or memory-mapped segment
+ * files (see {@link PriceSegmentStore}). The first time of every chunk is kept in a sparse
+ * index, so a lookup picks its chunk without touching the others.
+ * One writer at a time; readers run concurrently and see every tick appended before they
+ * read the size.
+ */
+public class PriceSeries {
+
+    public static final int CHUNK_TICKS = 4096;
+    public static final int CHUNK_BYTES = CHUNK_TICKS * (Long.BYTES + Double.BYTES);
+    private static final int PRICE_OFFSET = CHUNK_TICKS * Long.BYTES;
+
+    /**
+     * Supplies the chunk buffers of a series and hears about every append
+     */
+    public interface ChunkStorage {
+
+        /**
+         * A zeroed buffer of CHUNK_BYTES for the chunk with this index
+         */
+        ByteBuffer allocate(int chunk);
+
+        /**
+         * The chunk now holds this many ticks, all of them fully written
+         */
+        default void appended(int chunk, int ticks) {
+        }
+    }
+
+    public static final ChunkStorage DIRECT = chunk -> ByteBuffer.allocateDirect(CHUNK_BYTES);
+
+    private final String symbol;
+    private final ChunkStorage storage;
+    private volatile ByteBuffer[] chunks;
+    private volatile long[] chunkStarts;
+    private volatile int size;
+
+    public PriceSeries(String symbol) {
+        this(symbol, DIRECT);
+    }
+
+    public PriceSeries(String symbol, ChunkStorage storage) {
+        this(symbol, storage, new ByteBuffer[0], 0);
+    }
+
+    /**
+     * Series over chunks that already hold size ticks, e.g. segments mapped back in after a restart
+     */
+    public PriceSeries(String symbol, ChunkStorage storage, ByteBuffer[] chunks, int size) {
+        if (size > chunks.length * CHUNK_TICKS || (chunks.length > 0 && size <= (chunks.length - 1) * CHUNK_TICKS)) {
+            throw new IllegalArgumentException(size + " ticks do not fill " + chunks.length + " chunks");
+        }
+        this.symbol = symbol;
+        this.storage = storage;
+        this.chunks = chunks.clone();
+        this.chunkStarts = new long[chunks.length];
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            chunkStarts[chunk] = chunks[chunk].getLong(0);
+        }
+        this.size = size;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public synchronized void append(long epochMs, double price) {
+        int index = size;
+        if (index > 0) {
+            epochMs = Math.max(epochMs, timeAt(index - 1));
+        }
+        int chunk = index / CHUNK_TICKS;
+        ByteBuffer[] current = chunks;
+        if (chunk == current.length) {
+            ByteBuffer allocated = storage.allocate(chunk);
+            long[] starts = Arrays.copyOf(chunkStarts, chunk + 1);
+            starts[chunk] = epochMs;
+            current = Arrays.copyOf(current, chunk + 1);
+            current[chunk] = allocated;
+            chunkStarts = starts;
+            chunks = current;
+        }
+        // Price before time: a tick whose time is set is complete even if the process dies here
+        int slot = index % CHUNK_TICKS;
+        current[chunk].putDouble(PRICE_OFFSET + slot * Double.BYTES, price);
+        current[chunk].putLong(slot * Long.BYTES, epochMs);
+        storage.appended(chunk, slot + 1);
+        size = index + 1;
+    }
+
+    public long timeAt(int index) {
+        return chunks[index / CHUNK_TICKS].getLong((index % CHUNK_TICKS) * Long.BYTES);
+    }
+
+    public double priceAt(int index) {
+        return chunks[index / CHUNK_TICKS].getDouble(PRICE_OFFSET + (index % CHUNK_TICKS) * Double.BYTES);
+    }
+
+    /**
+     * Price of the latest tick, or NaN if there is none
+     */
+    public double lastPrice() {
+        int count = size;
+        return count == 0 ? Double.NaN : priceAt(count - 1);
+    }
+
+    public long firstTime() {
+        return size == 0 ? Long.MIN_VALUE : timeAt(0);
+    }
+
+    public long lastTime() {
+        int count = size;
+        return count == 0 ? Long.MIN_VALUE : timeAt(count - 1);
+    }
+
+    /**
+     * Index of the first tick at or after epochMs, or the size if there is none
+     */
+    public int ceilingIndex(long epochMs) {
+        return search(epochMs, size);
+    }
+
+    /**
+     * Price in effect at epochMs: the last tick at or before it, or NaN before the first tick
+     */
+    public double asOf(long epochMs) {
+        int index = search(epochMs + 1, size) - 1;
+        return index < 0 ? Double.NaN : priceAt(index);
+    }
+
+    /**
+     * Ticks with fromMs <= time < toMs, copied out into primitive arrays
+     */
+    public PriceSlice range(long fromMs, long toMs) {
+        int count = size;
+        int from = search(fromMs, count);
+        int to = Math.max(from, search(toMs, count));
+        long[] times = new long[to - from];
+        double[] prices = new double[to - from];
+        for (int i = from; i < to; i++) {
+            times[i - from] = timeAt(i);
+            prices[i - from] = priceAt(i);
+        }
+        return new PriceSlice(symbol, times, prices);
+    }
+
+    /**
+     * OHLC bars of the ticks with fromMs <= time < toMs, in buckets of bucketMs aligned to the epoch;
+     * buckets without ticks are left out
+     */
+    public List<PriceBar> rollup(long fromMs, long toMs, long bucketMs) {
+        if (bucketMs <= 0) {
+            throw new IllegalArgumentException("bucketMs must be positive");
+        }
+        int count = size;
+        int to = search(toMs, count);
+        List<PriceBar> bars = new ArrayList<>();
+        int i = search(fromMs, count);
+        while (i < to) {
+            long start = Math.floorDiv(timeAt(i), bucketMs) * bucketMs;
+            long end = start + bucketMs;
+            double open = priceAt(i);
+            double high = open;
+            double low = open;
+            double close = open;
+            int ticks = 0;
+            while (i < to && timeAt(i) < end) {
+                close = priceAt(i);
+                high = Math.max(high, close);
+                low = Math.min(low, close);
+                ticks++;
+                i++;
+            }
+            bars.add(new PriceBar(start, open, high, low, close, ticks));
+        }
+        return bars;
+    }
+
+    /**
+     * Lower bound over the first count ticks: the sparse index names the last chunk starting
+     * before epochMs, and the answer lies in that chunk or starts the next one
+     */
+    private int search(long epochMs, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] starts = chunkStarts;
+        int chunks = Math.min(starts.length, (count - 1) / CHUNK_TICKS + 1);
+        int first = 0;
+        int last = chunks - 1;
+        while (first < last) {
+            int mid = (first + last + 1) >>> 1;
+            if (starts[mid] < epochMs) {
+                first = mid;
+            } else {
+                last = mid - 1;
+            }
+        }
+        int low = first * CHUNK_TICKS;
+        int high = Math.min(count, low + CHUNK_TICKS);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (timeAt(mid) < epochMs) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
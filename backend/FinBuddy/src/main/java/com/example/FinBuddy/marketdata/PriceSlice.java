@@ -0,0 +1,25 @@
+package com.example.FinBuddy.marketdata;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A copied-out range of a {@link PriceSeries}: parallel arrays of epoch millis and prices,
+ * oldest first, ready for return and volatility kernels
+ */
+@Getter
+@AllArgsConstructor
+public class PriceSlice {
+
+    private final String symbol;
+    private final long[] times;
+    private final double[] prices;
+
+    public int size() {
+        return times.length;
+    }
+
+    public boolean isEmpty() {
+        return times.length == 0;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.FinBuddy.marketdata;
+
+import java.math.BigDecimal;
+
+/**
+ * Notified when a live quote for a symbol is cached with a price different from the previous one.
+ * Called on the thread that loaded the quote, so implementations should return quickly.
+ */
+@FunctionalInterface
+public interface PriceUpdateListener {
+
+    void onPriceUpdate(String symbol, BigDecimal price);
+}
@@ -0,0 +1,98 @@
+package com.example.FinBuddy.marketdata;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Enforces the call quota of each upstream market data provider.
+ * Callers queue for a token; interactive requests go ahead of background refreshes
+ * and give up after a shorter wait so a user request never stalls on the quota.
+ */
+@Component
+@Slf4j
+public class QuotaScheduler {
+
+    public static final String FINNHUB = "finnhub";
+    public static final String ALPHA_VANTAGE = "alphavantage";
+
+    private final Map<String, TokenBucket> buckets = new LinkedHashMap<>();
+    private final long interactiveMaxWaitMs;
+    private final long backgroundMaxWaitMs;
+
+    @Autowired
+    public QuotaScheduler(
+            @Value("${finnhub.rate-limit.per-minute:60}") int finnhubPerMinute,
+            @Value("${finnhub.rate-limit.burst:5}") int finnhubBurst,
+            @Value("${alphavantage.rate-limit.per-minute:5}") int alphaVantagePerMinute,
+            @Value("${alphavantage.rate-limit.burst:1}") int alphaVantageBurst,
+            @Value("${market.quota.interactive-reserve:2}") int interactiveReserve,
+            @Value("${market.quota.interactive-max-wait-ms:2000}") long interactiveMaxWaitMs,
+            @Value("${market.quota.background-max-wait-ms:30000}") long backgroundMaxWaitMs) {
+        buckets.put(FINNHUB, new TokenBucket(FINNHUB, finnhubPerMinute, finnhubBurst, interactiveReserve));
+        buckets.put(ALPHA_VANTAGE, new TokenBucket(ALPHA_VANTAGE, alphaVantagePerMinute, alphaVantageBurst, 0));
+        this.interactiveMaxWaitMs = interactiveMaxWaitMs;
+        this.backgroundMaxWaitMs = backgroundMaxWaitMs;
+        log.info("QuotaScheduler initialized - Finnhub: {}/min (burst {}), Alpha Vantage: {}/min (burst {})",
+                finnhubPerMinute, finnhubBurst, alphaVantagePerMinute, alphaVantageBurst);
+    }
+
+    /**
+     * Scheduler with the providers' free-tier quotas
+     */
+    public QuotaScheduler() {
+        this(60, 5, 5, 1, 2, 2000, 30000);
+    }
+
+    /**
+     * Wait for permission to call a provider
+     *
+     * @return false when no token became available in time; the caller should skip the provider
+     */
+    public boolean acquire(String provider, CallPriority priority) {
+        TokenBucket bucket = bucket(provider);
+        long maxWait = priority == CallPriority.INTERACTIVE ? interactiveMaxWaitMs : backgroundMaxWaitMs;
+        boolean acquired = bucket.tryAcquire(priority, maxWait);
+        if (!acquired) {
+            log.warn("{} quota exhausted, skipping {} call", provider, priority);
+        }
+        return acquired;
+    }
+
+    /**
+     * Record that the provider rejected a call with HTTP 429
+     */
+    public void onThrottled(String provider) {
+        log.warn("{} returned 429 Too Many Requests, backing off until the quota refills", provider);
+        bucket(provider).drain();
+    }
+
+    /**
+     * Remaining quota and grant/deny counters per provider
+     */
+    public Map<String, Object> getQuotaStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        buckets.forEach((name, bucket) -> {
+            Map<String, Object> providerStats = new LinkedHashMap<>();
+            providerStats.put("remaining", (int) Math.floor(bucket.getAvailableTokens()));
+            providerStats.put("capacity", bucket.getCapacity());
+            providerStats.put("granted", bucket.getGrantedCount());
+            providerStats.put("denied", bucket.getDeniedCount());
+            providerStats.put("waitingInteractive", bucket.getWaitingInteractive());
+            stats.put(name, providerStats);
+        });
+        return stats;
+    }
+
+    private TokenBucket bucket(String provider) {
+        TokenBucket bucket = buckets.get(provider);
+        if (bucket == null) {
+            throw new IllegalArgumentException("Unknown market data provider: " + provider);
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.FinBuddy.marketdata;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs background refreshes of stale cache entries.
+ * At most one refresh per key is queued or running at a time, and the queue is bounded
+ * so a burst of stale reads cannot pile up work; dropped refreshes are retried by the next read.
+ */
+@Component
+@Slf4j
+public class RevalidationExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Autowired
+    public RevalidationExecutor(
+            @Value("${market.cache.revalidate-threads:2}") int threads,
+            @Value("${market.cache.revalidate-queue:500}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "quote-revalidate-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public RevalidationExecutor() {
+        this(2, 500);
+    }
+
+    /**
+     * Schedule a refresh for the key unless one is already pending
+     *
+     * @return true if the refresh was scheduled by this call
+     */
+    public boolean submit(String key, Runnable refresh) {
+        if (!inFlight.add(key)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh.run();
+                    completed.incrementAndGet();
+                } catch (Exception e) {
+                    log.warn("Background refresh of {} failed: {}", key, e.getMessage());
+                } finally {
+                    inFlight.remove(key);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key);
+            dropped.incrementAndGet();
+            log.debug("Revalidation queue full, dropping refresh of {}", key);
+            return false;
+        }
+    }
+
+    public int getPendingCount() {
+        return inFlight.size();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.FinBuddy.marketdata;
+
+import lombok.Getter;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One ranked search result of the {@link InstrumentCatalog}: the instrument and how its score
+ * was made up. Scored once when the candidate is found; ranking only compares the ints.
+ */
+@Getter
+public class SearchHit {
+
+    /**
+     * How the query matched, strongest first, with the base score of each kind
+     */
+    public enum Match {
+        SYMBOL_EXACT(100),
+        SYMBOL_PREFIX(90),
+        NAME_PREFIX(80),
+        SYMBOL_CONTAINS(70),
+        NAME_CONTAINS(60),
+        WORDS(50),
+        TYPO(40);
+
+        private final int baseScore;
+
+        Match(int baseScore) {
+            this.baseScore = baseScore;
+        }
+
+        public int getBaseScore() {
+            return baseScore;
+        }
+    }
+
+    /**
+     * Highest score first, then catalog order
+     */
+    public static final Comparator<SearchHit> ORDER =
+            Comparator.comparingInt(SearchHit::getScore).reversed().thenComparingInt(SearchHit::getCatalogIndex);
+
+    private final Instrument instrument;
+    private final int catalogIndex;
+    private final Match match;
+
+    // Edits summed over the query words; 0 unless matched as a typo
+    private final int typoDistance;
+
+    private final int score;
+
+    public SearchHit(Instrument instrument, int catalogIndex, Match match, int typoDistance) {
+        this.instrument = instrument;
+        this.catalogIndex = catalogIndex;
+        this.match = match;
+        this.typoDistance = typoDistance;
+        this.score = match.getBaseScore() - typoDistance;
+    }
+
+    /**
+     * Score and its components, as returned with search results
+     */
+    public Map<String, Object> getScoreBreakdown() {
+        Map<String, Object> breakdown = new LinkedHashMap<>();
+        breakdown.put("score", score);
+        breakdown.put("match", match.name());
+        breakdown.put("baseScore", match.getBaseScore());
+        breakdown.put("typoPenalty", typoDistance);
+        return breakdown;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.FinBuddy.marketdata;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket guarding one upstream provider's call quota.
+ * Interactive callers may take any available token; background callers leave a
+ * small reserve untouched and always yield to interactive callers that are waiting.
+ */
+public class TokenBucket {
+
+    private final String name;
+    private final int capacity;
+    private final double tokensPerNano;
+    private final int interactiveReserve;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private int waitingInteractive;
+    private long granted;
+    private long denied;
+
+    /**
+     * @param callsPerMinute     sustained quota of the provider
+     * @param burst              tokens that can be spent at once
+     * @param interactiveReserve tokens background calls may not use
+     */
+    public TokenBucket(String name, int callsPerMinute, int burst, int interactiveReserve) {
+        this.name = name;
+        this.capacity = Math.max(1, burst);
+        // Refill at (quota - burst) per minute so that no 60s window can exceed the quota,
+        // even when it starts with a full bucket
+        int refillPerMinute = Math.max(1, callsPerMinute - this.capacity);
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.interactiveReserve = Math.min(interactiveReserve, this.capacity - 1);
+        this.tokens = this.capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Take one token, waiting up to maxWaitMs for it to become available
+     *
+     * @return true if a token was taken, false if the wait timed out
+     */
+    public synchronized boolean tryAcquire(CallPriority priority, long maxWaitMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        boolean interactive = priority == CallPriority.INTERACTIVE;
+        if (interactive) {
+            waitingInteractive++;
+        }
+        try {
+            while (true) {
+                refill();
+                double required = interactive ? 1 : 1 + interactiveReserve;
+                boolean mayTake = interactive || waitingInteractive == 0;
+                if (mayTake && tokens >= required) {
+                    tokens -= 1;
+                    granted++;
+                    return true;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    denied++;
+                    return false;
+                }
+                // Background callers blocked by a waiting interactive caller sleep until notified
+                long untilNextToken = mayTake
+                        ? (long) Math.ceil(Math.max(required - tokens, 0) / tokensPerNano)
+                        : remaining;
+                long waitNanos = Math.max(Math.min(remaining, untilNextToken), TimeUnit.MILLISECONDS.toNanos(1));
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    denied++;
+                    return false;
+                }
+            }
+        } finally {
+            if (interactive) {
+                waitingInteractive--;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Empty the bucket after the provider answered 429 so calls back off until it refills
+     */
+    public synchronized void drain() {
+        refill();
+        tokens = 0;
+    }
+
+    public synchronized double getAvailableTokens() {
+        refill();
+        return tokens;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getGrantedCount() {
+        return granted;
+    }
+
+    public synchronized long getDeniedCount() {
+        return denied;
+    }
+
+    public synchronized int getWaitingInteractive() {
+        return waitingInteractive;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
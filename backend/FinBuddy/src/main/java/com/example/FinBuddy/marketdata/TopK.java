@@ -0,0 +1,81 @@
+package com.example.FinBuddy.marketdata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the k best of the items offered, in a heap holding the current worst at its root, so
+ * ranking n candidates costs O(n log k) instead of sorting all of them. Not thread-safe.
+ */
+public class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<T> heap;
+
+    /**
+     * @param order best first
+     */
+    public TopK(int k, Comparator<? super T> order) {
+        this.k = Math.max(0, k);
+        this.order = order;
+        this.heap = new PriorityQueue<>(this.k + 1, order.reversed());
+    }
+
+    public void offer(T item) {
+        if (heap.size() < k) {
+            heap.add(item);
+        } else if (k > 0 && order.compare(item, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * The items kept, best first
+     */
+    public List<T> toList() {
+        List<T> items = new ArrayList<>(heap);
+        items.sort(order);
+        return items;
+    }
+
+    /**
+     * The k best items of lists that are each already sorted best first, taking the next head
+     * from a heap of list cursors: O(k log lists) however long the lists are
+     */
+    public static <T> List<T> merge(List<? extends List<T>> sorted, Comparator<? super T> order, int k) {
+        if (sorted.size() == 1) {
+            List<T> only = sorted.get(0);
+            return new ArrayList<>(only.subList(0, Math.min(Math.max(0, k), only.size())));
+        }
+        // Cursor: {list, position}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sorted.size()),
+                (a, b) -> order.compare(sorted.get(a[0]).get(a[1]), sorted.get(b[0]).get(b[1])));
+        for (int i = 0; i < sorted.size(); i++) {
+            if (!sorted.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+        if (k <= 0 || heads.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<T> merged = new ArrayList<>(k);
+        while (merged.size() < k && !heads.isEmpty()) {
+            int[] cursor = heads.poll();
+            List<T> list = sorted.get(cursor[0]);
+            merged.add(list.get(cursor[1]));
+            if (++cursor[1] < list.size()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.FinBuddy.marketdata.provider;
+
+import com.example.FinBuddy.marketdata.CallPriority;
+import com.example.FinBuddy.marketdata.CircuitBreaker;
+import com.example.FinBuddy.marketdata.CircuitBreakerRegistry;
+import com.example.FinBuddy.marketdata.QuotaScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+
+/**
+ * Quotes from the Alpha Vantage GLOBAL_QUOTE API, used as a fallback for Finnhub
+ * Free API: https://www.alphavantage.co (5 calls/minute)
+ */
+@Component
+@Slf4j
+public class AlphaVantageProvider implements MarketDataProvider {
+
+    private final WebClient alphaVantageClient;
+    private final String alphaVantageKey;
+    private final boolean apiEnabled;
+    private final int order;
+    private final QuotaScheduler quotaScheduler;
+    private final CircuitBreaker breaker;
+
+    @Autowired
+    public AlphaVantageProvider(
+            WebClient.Builder webClientBuilder,
+            @Value("${alphavantage.api.key:demo}") String alphaVantageKey,
+            @Value("${finnhub.api.enabled:false}") boolean apiEnabled,
+            @Value("${alphavantage.provider.order:20}") int order,
+            QuotaScheduler quotaScheduler,
+            CircuitBreakerRegistry circuitBreakers) {
+        this.alphaVantageClient = webClientBuilder
+                .baseUrl("https://www.alphavantage.co")
+                .build();
+        this.alphaVantageKey = alphaVantageKey;
+        this.apiEnabled = apiEnabled;
+        this.order = order;
+        this.quotaScheduler = quotaScheduler;
+        this.breaker = circuitBreakers.get(QuotaScheduler.ALPHA_VANTAGE);
+    }
+
+    @Override
+    public String getName() {
+        return QuotaScheduler.ALPHA_VANTAGE;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return apiEnabled && !"demo".equals(alphaVantageKey);
+    }
+
+    @Override
+    public BigDecimal getQuote(String symbol, CallPriority priority) {
+        if (!breaker.isCallPermitted() || !quotaScheduler.acquire(QuotaScheduler.ALPHA_VANTAGE, priority)) {
+            return null;
+        }
+
+        try {
+            log.debug("Fetching price from Alpha Vantage for: {}", symbol);
+
+            Map<String, Object> response = alphaVantageClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/query")
+                            .queryParam("function", "GLOBAL_QUOTE")
+                            .queryParam("symbol", symbol.toUpperCase())
+                            .queryParam("apikey", alphaVantageKey)
+                            .build())
+                    .retrieve()
+                    .bodyToMono(Map.class)
+                    .transform(breaker::protect)
+                    .onErrorResume(error -> {
+                        log.warn("Alpha Vantage API error for {}: {}", symbol, error.getMessage());
+                        return Mono.empty();
+                    })
+                    .block();
+
+            // Alpha Vantage signals rate limiting with a 200 response carrying a "Note" or "Information"
+            if (response != null && (response.containsKey("Note") || response.containsKey("Information"))) {
+                quotaScheduler.onThrottled(QuotaScheduler.ALPHA_VANTAGE);
+                return null;
+            }
+
+            if (response != null && response.containsKey("Global Quote")) {
+                Map<String, Object> quote = (Map<String, Object>) response.get("Global Quote");
+                if (quote.containsKey("05. price")) {
+                    String priceStr = quote.get("05. price").toString();
+                    double price = Double.parseDouble(priceStr);
+
+                    if (price > 0) {
+                        log.info("✓ Fetched Alpha Vantage price for {}: ${}", symbol, price);
+                        return BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP);
+                    }
+                }
+            }
+
+            log.warn("Invalid Alpha Vantage response for {}", symbol);
+            return null;
+
+        } catch (Exception e) {
+            log.error("Alpha Vantage API call failed for {}: {}", symbol, e.getMessage());
+            return null;
+        }
+    }
+}
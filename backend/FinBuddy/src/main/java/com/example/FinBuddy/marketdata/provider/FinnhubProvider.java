@@ -0,0 +1,126 @@
+package com.example.FinBuddy.marketdata.provider;
+
+import com.example.FinBuddy.marketdata.CallPriority;
+import com.example.FinBuddy.marketdata.CircuitBreaker;
+import com.example.FinBuddy.marketdata.CircuitBreakerRegistry;
+import com.example.FinBuddy.marketdata.QuotaScheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+
+/**
+ * Quotes from the Finnhub API
+ * Free API: https://finnhub.io (60 calls/minute)
+ */
+@Component
+@Slf4j
+public class FinnhubProvider implements MarketDataProvider {
+
+    private final WebClient finnhubClient;
+    private final String apiKey;
+    private final boolean apiEnabled;
+    private final int order;
+    private final QuotaScheduler quotaScheduler;
+
+    // Fail fast while Finnhub is down; call timeout follows observed p99 latency
+    private final CircuitBreaker breaker;
+
+    @Autowired
+    public FinnhubProvider(
+            WebClient.Builder webClientBuilder,
+            @Value("${finnhub.api.key:demo}") String apiKey,
+            @Value("${finnhub.api.enabled:false}") boolean apiEnabled,
+            @Value("${finnhub.provider.order:10}") int order,
+            QuotaScheduler quotaScheduler,
+            CircuitBreakerRegistry circuitBreakers) {
+        this.finnhubClient = webClientBuilder
+                .baseUrl("https://finnhub.io/api/v1")
+                .build();
+        this.apiKey = apiKey;
+        this.apiEnabled = apiEnabled;
+        this.order = order;
+        this.quotaScheduler = quotaScheduler;
+        this.breaker = circuitBreakers.get(QuotaScheduler.FINNHUB);
+    }
+
+    @Override
+    public String getName() {
+        return QuotaScheduler.FINNHUB;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return apiEnabled && !"demo".equals(apiKey);
+    }
+
+    @Override
+    public BigDecimal getQuote(String symbol, CallPriority priority) {
+        // Skip without spending quota while the breaker is open
+        if (!breaker.isCallPermitted() || !quotaScheduler.acquire(QuotaScheduler.FINNHUB, priority)) {
+            return null;
+        }
+
+        try {
+            log.debug("Fetching price from Finnhub for: {}", symbol);
+
+            Map<String, Object> response = finnhubClient.get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/quote")
+                            .queryParam("symbol", symbol.toUpperCase())
+                            .queryParam("token", apiKey)
+                            .build())
+                    .retrieve()
+                    .bodyToMono(Map.class)
+                    .transform(breaker::protect)
+                    .doOnError(WebClientResponseException.class, ex -> {
+                        log.error("Finnhub API HTTP error for {}: {} - {}", symbol, ex.getStatusCode(),
+                                ex.getResponseBodyAsString());
+                        if (ex.getStatusCode().value() == 429) {
+                            quotaScheduler.onThrottled(QuotaScheduler.FINNHUB);
+                        }
+                    })
+                    .onErrorResume(error -> {
+                        log.warn("Finnhub API error for {}: {}", symbol, error.getMessage());
+                        return Mono.empty();
+                    })
+                    .block();
+
+            if (response != null) {
+                log.debug("Finnhub response for {}: {}", symbol, response);
+
+                if (response.containsKey("c")) {
+                    // "c" is current price in Finnhub response
+                    Object priceObj = response.get("c");
+                    double price = priceObj instanceof Number ? ((Number) priceObj).doubleValue() : 0;
+
+                    if (price > 0) {
+                        log.info("✓ Fetched Finnhub price for {}: ${}", symbol, price);
+                        return BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP);
+                    } else {
+                        log.warn("Finnhub returned zero price for {}", symbol);
+                    }
+                } else {
+                    log.warn("Finnhub response missing 'c' field for {}: {}", symbol, response);
+                }
+            }
+            return null;
+
+        } catch (Exception e) {
+            log.error("Finnhub API call failed for {}: {}", symbol, e.getMessage());
+            return null;
+        }
+    }
+}
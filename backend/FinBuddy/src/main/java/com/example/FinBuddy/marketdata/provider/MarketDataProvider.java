@@ -0,0 +1,49 @@
+package com.example.FinBuddy.marketdata.provider;
+
+import com.example.FinBuddy.marketdata.CallPriority;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A source of stock and index quotes.
+ * Providers are tried in ascending {@link #getOrder()} by {@link MarketDataProviderChain};
+ * a provider answers null (or leaves a symbol out of a batch) when it has no quote, and the
+ * next provider is asked instead.
+ */
+public interface MarketDataProvider {
+
+    String getName();
+
+    /**
+     * Position in the provider chain; lower values are asked first
+     */
+    int getOrder();
+
+    /**
+     * Whether the provider is configured and may be called at all
+     */
+    boolean isAvailable();
+
+    /**
+     * Latest price for a symbol, or null if the provider has none
+     */
+    BigDecimal getQuote(String symbol, CallPriority priority);
+
+    /**
+     * Latest prices for several symbols; symbols without a quote are left out.
+     * Providers with a native batch endpoint should override this.
+     */
+    default Map<String, BigDecimal> getQuotes(Collection<String> symbols, CallPriority priority) {
+        Map<String, BigDecimal> quotes = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            BigDecimal price = getQuote(symbol, priority);
+            if (price != null) {
+                quotes.put(symbol, price);
+            }
+        }
+        return quotes;
+    }
+}
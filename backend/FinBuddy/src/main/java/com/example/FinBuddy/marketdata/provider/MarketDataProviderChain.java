@@ -0,0 +1,84 @@
+package com.example.FinBuddy.marketdata.provider;
+
+import com.example.FinBuddy.marketdata.CallPriority;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Asks the registered market data providers in order until one has a quote
+ */
+@Component
+@Slf4j
+public class MarketDataProviderChain {
+
+    private final List<MarketDataProvider> providers;
+
+    public MarketDataProviderChain(List<MarketDataProvider> providers) {
+        this.providers = providers.stream()
+                .sorted(Comparator.comparingInt(MarketDataProvider::getOrder))
+                .collect(Collectors.toList());
+        log.info("Market data providers (in order): {}", this.providers.stream()
+                .map(provider -> provider.getName() + (provider.isAvailable() ? "" : " (unavailable)"))
+                .collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * Whether at least one provider may be called
+     */
+    public boolean hasAvailableProvider() {
+        return providers.stream().anyMatch(MarketDataProvider::isAvailable);
+    }
+
+    /**
+     * Quote from the first provider that has one, or null if none does
+     */
+    public BigDecimal getQuote(String symbol, CallPriority priority) {
+        for (MarketDataProvider provider : providers) {
+            if (!provider.isAvailable()) {
+                continue;
+            }
+            BigDecimal price = provider.getQuote(symbol, priority);
+            if (price != null) {
+                return price;
+            }
+            log.debug("{} has no quote for {}, trying next provider", provider.getName(), symbol);
+        }
+        return null;
+    }
+
+    /**
+     * Quotes for several symbols; each provider is only asked for the symbols
+     * the providers before it could not answer
+     */
+    public Map<String, BigDecimal> getQuotes(Collection<String> symbols, CallPriority priority) {
+        Map<String, BigDecimal> quotes = new LinkedHashMap<>();
+        Set<String> remaining = new LinkedHashSet<>(symbols);
+        for (MarketDataProvider provider : providers) {
+            if (remaining.isEmpty()) {
+                break;
+            }
+            if (!provider.isAvailable()) {
+                continue;
+            }
+            Map<String, BigDecimal> answered = provider.getQuotes(new ArrayList<>(remaining), priority);
+            quotes.putAll(answered);
+            remaining.removeAll(answered.keySet());
+        }
+        return quotes;
+    }
+
+    public List<String> getProviderNames() {
+        return providers.stream().map(MarketDataProvider::getName).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.FinBuddy.marketdata.provider;
+
+import com.example.FinBuddy.marketdata.CallPriority;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offline provider that replays recorded quotes from a CSV file, for load tests and
+ * benchmarks without network access.
+ * Each line is {@code symbol,price}; the prices recorded for a symbol are returned one
+ * per call in file order. Injected latency (fixed plus a jitter derived from the symbol
+ * and call number) is the same on every run, so runs are reproducible.
+ */
+@Component
+@Slf4j
+public class ReplayMarketDataProvider implements MarketDataProvider {
+
+    public static final String NAME = "replay";
+
+    private final boolean enabled;
+    private final int order;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final boolean loop;
+    private final Map<String, List<BigDecimal>> recorded;
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReplayMarketDataProvider(
+            @Value("${market.replay.enabled:false}") boolean enabled,
+            @Value("${market.replay.file:classpath:marketdata/replay-quotes.csv}") String file,
+            @Value("${market.replay.order:0}") int order,
+            @Value("${market.replay.latency-ms:0}") long latencyMs,
+            @Value("${market.replay.jitter-ms:0}") long jitterMs,
+            @Value("${market.replay.loop:true}") boolean loop) {
+        this(enabled, enabled ? load(file) : Collections.emptyMap(), order, latencyMs, jitterMs, loop);
+        if (enabled) {
+            log.info("Replay provider enabled - {} symbols from {}, latency {}ms +/- {}ms",
+                    recorded.size(), file, latencyMs, jitterMs);
+        }
+    }
+
+    public ReplayMarketDataProvider(boolean enabled, Map<String, List<BigDecimal>> recorded, int order,
+            long latencyMs, long jitterMs, boolean loop) {
+        this.enabled = enabled;
+        this.recorded = recorded;
+        this.order = order;
+        this.latencyMs = Math.max(0, latencyMs);
+        this.jitterMs = Math.max(0, jitterMs);
+        this.loop = loop;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return enabled;
+    }
+
+    @Override
+    public BigDecimal getQuote(String symbol, CallPriority priority) {
+        String key = symbol.toUpperCase();
+        List<BigDecimal> prices = recorded.get(key);
+        if (prices == null || prices.isEmpty()) {
+            return null;
+        }
+        int call = cursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        simulateLatency(key, call);
+        return prices.get(loop ? call % prices.size() : Math.min(call, prices.size() - 1));
+    }
+
+    /**
+     * Answers the whole batch after a single injected delay, like a native batch endpoint
+     */
+    @Override
+    public Map<String, BigDecimal> getQuotes(Collection<String> symbols, CallPriority priority) {
+        Map<String, BigDecimal> quotes = new LinkedHashMap<>();
+        int call = -1;
+        for (String symbol : symbols) {
+            String key = symbol.toUpperCase();
+            List<BigDecimal> prices = recorded.get(key);
+            if (prices == null || prices.isEmpty()) {
+                continue;
+            }
+            int next = cursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+            call = Math.max(call, next);
+            quotes.put(symbol, prices.get(loop ? next % prices.size() : Math.min(next, prices.size() - 1)));
+        }
+        if (call >= 0) {
+            simulateLatency(String.join(",", quotes.keySet()), call);
+        }
+        return quotes;
+    }
+
+    /**
+     * Rewind every symbol to its first recorded quote
+     */
+    public void reset() {
+        cursors.clear();
+    }
+
+    public int getSymbolCount() {
+        return recorded.size();
+    }
+
+    private void simulateLatency(String key, int call) {
+        long delay = latencyMs;
+        if (jitterMs > 0) {
+            delay += Math.floorMod(31 * key.hashCode() + call, jitterMs + 1);
+        }
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, List<BigDecimal>> load(String location) {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+            return parse(reader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read replay quotes from " + location, e);
+        }
+    }
+
+    /**
+     * Parse {@code symbol,price} lines; blank lines, '#' comments and a header row are skipped
+     */
+    static Map<String, List<BigDecimal>> parse(Reader source) throws IOException {
+        Map<String, List<BigDecimal>> quotes = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(source);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || line.toLowerCase().startsWith("symbol,")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            if (fields.length < 2) {
+                throw new IllegalStateException("Malformed replay quote on line " + lineNumber + ": " + line);
+            }
+            quotes.computeIfAbsent(fields[0].trim().toUpperCase(), k -> new ArrayList<>())
+                    .add(new BigDecimal(fields[1].trim()));
+        }
+        return quotes;
+    }
+}
@@ -1,16 +1,22 @@
 package com.example.FinBuddy.repositories;
 
+import com.example.FinBuddy.dto.AssetSummaryDTO;
 import com.example.FinBuddy.entities.Asset;
 import com.example.FinBuddy.entities.Bond;
 import com.example.FinBuddy.entities.MutualFund;
 import com.example.FinBuddy.entities.SIP;
 import com.example.FinBuddy.entities.Stock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Asset entity
@@ -18,6 +24,15 @@ import java.util.List;
 @Repository
 public interface AssetRepository extends JpaRepository<Asset, Long> {
 
+    /**
+     * List-row projection: rows are mapped straight into AssetSummaryDTO, without loading entities
+     */
+    String ASSET_SUMMARY_SELECT = "SELECT new com.example.FinBuddy.dto.AssetSummaryDTO(a.id, a.portfolio.id, " +
+            "CASE TYPE(a) WHEN Stock THEN 'STOCK' WHEN Bond THEN 'BOND' " +
+            "WHEN MutualFund THEN 'MUTUAL_FUND' WHEN SIP THEN 'SIP' END, " +
+            "a.name, a.symbol, a.quantity, a.purchasePrice, a.currentPrice, a.investedAmount, a.currentValue, " +
+            "a.gainLoss, a.gainLossPercentage, a.currency, a.purchaseDate, a.isWishlist) FROM Asset a ";
+
     /**
      * Find all assets by portfolio ID
      */
@@ -84,4 +99,43 @@ public interface AssetRepository extends JpaRepository<Asset, Long> {
      * Find assets by symbol
      */
     List<Asset> findBySymbol(String symbol);
+
+    /**
+     * Asset list rows after the given id, in id order (keyset page; size from the Pageable)
+     */
+    @Query(ASSET_SUMMARY_SELECT + "WHERE a.id > :afterId ORDER BY a.id")
+    List<AssetSummaryDTO> findSummariesAfter(@Param("afterId") Long afterId, Pageable page);
+
+    /**
+     * Asset list rows of a portfolio
+     */
+    @Query(ASSET_SUMMARY_SELECT + "WHERE a.portfolio.id = :portfolioId ORDER BY a.id")
+    List<AssetSummaryDTO> findSummariesByPortfolioId(@Param("portfolioId") Long portfolioId);
+
+    /**
+     * Asset list rows of a portfolio, wishlist or invested only
+     */
+    @Query(ASSET_SUMMARY_SELECT + "WHERE a.portfolio.id = :portfolioId AND a.isWishlist = :wishlist ORDER BY a.id")
+    List<AssetSummaryDTO> findSummariesByPortfolioIdAndIsWishlist(
+            @Param("portfolioId") Long portfolioId, @Param("wishlist") Boolean wishlist);
+
+    /**
+     * Asset list rows of one type after the given id, in id order (keyset page)
+     */
+    @Query(ASSET_SUMMARY_SELECT + "WHERE TYPE(a) = :assetClass AND a.id > :afterId ORDER BY a.id")
+    List<AssetSummaryDTO> findSummariesByAssetTypeAfter(@Param("assetClass") Class<? extends Asset> assetClass,
+            @Param("afterId") Long afterId, Pageable page);
+
+    /**
+     * All assets as a stream for bulk export; the caller must consume it inside a transaction and close it
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Asset a ORDER BY a.id")
+    Stream<Asset> streamAll();
+
+    /**
+     * Distinct symbols across all assets
+     */
+    @Query("SELECT DISTINCT a.symbol FROM Asset a WHERE a.symbol IS NOT NULL")
+    List<String> findDistinctSymbols();
 }
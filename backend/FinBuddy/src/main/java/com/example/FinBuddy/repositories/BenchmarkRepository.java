@@ -2,6 +2,7 @@ package com.example.FinBuddy.repositories;
 
 import com.example.FinBuddy.entities.Benchmark;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -37,4 +38,10 @@ public interface BenchmarkRepository extends JpaRepository<Benchmark, Long> {
      * Count benchmarks for a portfolio
      */
     long countByPortfolioId(Long portfolioId);
+
+    /**
+     * Distinct benchmark symbols across all portfolios
+     */
+    @Query("SELECT DISTINCT b.symbol FROM Benchmark b")
+    List<String> findDistinctSymbols();
 }
@@ -2,10 +2,13 @@ package com.example.FinBuddy.repositories;
 
 import com.example.FinBuddy.entities.PortfolioHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Portfolio History entity
@@ -18,12 +21,48 @@ public interface PortfolioHistoryRepository extends JpaRepository<PortfolioHisto
      */
     List<PortfolioHistory> findByPortfolioIdOrderByRecordDateAsc(Long portfolioId);
 
+    /**
+     * Find history by portfolio ID in the order it was written: by date, then by id
+     */
+    List<PortfolioHistory> findByPortfolioIdOrderByRecordDateAscIdAsc(Long portfolioId);
+
+    /**
+     * Ids of the portfolios with any recorded history
+     */
+    @Query("SELECT DISTINCT h.portfolio.id FROM PortfolioHistory h")
+    List<Long> findPortfolioIds();
+
     /**
      * Find history within date range
      */
     List<PortfolioHistory> findByPortfolioIdAndRecordDateBetweenOrderByRecordDateAsc(
             Long portfolioId, LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Find the earliest snapshot of a portfolio
+     */
+    Optional<PortfolioHistory> findFirstByPortfolioIdOrderByRecordDateAsc(Long portfolioId);
+
+    /**
+     * Find the snapshot of a portfolio for one day
+     */
+    Optional<PortfolioHistory> findByPortfolioIdAndRecordDate(Long portfolioId, LocalDate recordDate);
+
+    /**
+     * Portfolio/day pairs with more than one snapshot, with the id of the latest one
+     */
+    @Query("SELECT h.portfolio.id, h.recordDate, MAX(h.id) FROM PortfolioHistory h " +
+            "GROUP BY h.portfolio.id, h.recordDate HAVING COUNT(h) > 1")
+    List<Object[]> findDuplicateSnapshots();
+
+    /**
+     * Delete the snapshots of a portfolio/day pair except the one to keep
+     */
+    @Modifying
+    @Query("DELETE FROM PortfolioHistory h WHERE h.portfolio.id = :portfolioId " +
+            "AND h.recordDate = :recordDate AND h.id <> :keepId")
+    int deleteDuplicateSnapshots(Long portfolioId, LocalDate recordDate, Long keepId);
+
     /**
      * Delete old history records before a certain date
      */
@@ -0,0 +1,42 @@
+package com.example.FinBuddy.repositories;
+
+import com.example.FinBuddy.entities.PortfolioHistoryRollup;
+import com.example.FinBuddy.entities.PortfolioHistoryRollup.Resolution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for Portfolio History Rollup entity
+ */
+@Repository
+public interface PortfolioHistoryRollupRepository extends JpaRepository<PortfolioHistoryRollup, Long> {
+
+    /**
+     * Find the rollups of the given resolutions for the periods starting on the given dates
+     */
+    List<PortfolioHistoryRollup> findByPortfolioIdAndResolutionInAndPeriodStartIn(
+            Long portfolioId, List<Resolution> resolutions, List<LocalDate> periodStarts);
+
+    /**
+     * Find one resolution's rollups within a date range
+     */
+    List<PortfolioHistoryRollup> findByPortfolioIdAndResolutionAndPeriodStartBetweenOrderByPeriodStartAsc(
+            Long portfolioId, Resolution resolution, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * First day with recorded history for a portfolio
+     */
+    @Query("SELECT MIN(r.periodStart) FROM PortfolioHistoryRollup r " +
+            "WHERE r.portfolioId = :portfolioId AND r.resolution = :resolution")
+    Optional<LocalDate> findFirstPeriodStart(Long portfolioId, Resolution resolution);
+
+    @Modifying
+    @Query("DELETE FROM PortfolioHistoryRollup r WHERE r.portfolioId = :portfolioId")
+    int deleteByPortfolioId(Long portfolioId);
+}
@@ -1,10 +1,16 @@
 package com.example.FinBuddy.repositories;
 
+import com.example.FinBuddy.dto.PortfolioSummaryDTO;
 import com.example.FinBuddy.entities.Portfolio;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +30,24 @@ public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
      */
     List<Portfolio> findAllByOrderByCreatedAtDesc();
 
+    String PORTFOLIO_SUMMARY_SELECT = "SELECT new com.example.FinBuddy.dto.PortfolioSummaryDTO(p.id, p.name, " +
+            "p.description, p.baseCurrency, p.totalValue, p.totalInvestment, p.totalGainLoss, p.gainLossPercentage, " +
+            "p.createdAt, p.updatedAt) FROM Portfolio p ";
+
+    /**
+     * First page of portfolio list rows, newest first, mapped straight into PortfolioSummaryDTO
+     */
+    @Query(PORTFOLIO_SUMMARY_SELECT + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PortfolioSummaryDTO> findSummaries(Pageable page);
+
+    /**
+     * Portfolio list rows following the given (createdAt, id) position, newest first (keyset page)
+     */
+    @Query(PORTFOLIO_SUMMARY_SELECT + "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PortfolioSummaryDTO> findSummariesBefore(@Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Pageable page);
+
     /**
      * Find portfolios by base currency
      */
@@ -34,4 +58,17 @@ public interface PortfolioRepository extends JpaRepository<Portfolio, Long> {
      */
     @Query("SELECT p FROM Portfolio p LEFT JOIN FETCH p.assets WHERE p.id = :id")
     Optional<Portfolio> findByIdWithAssets(Long id);
+
+    /**
+     * Get portfolio locked for update, so concurrent metric adjustments apply one after another
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Portfolio p WHERE p.id = :id")
+    Optional<Portfolio> findByIdForUpdate(Long id);
+
+    /**
+     * Ids of all portfolios
+     */
+    @Query("SELECT p.id FROM Portfolio p")
+    List<Long> findAllIds();
 }
@@ -93,4 +93,10 @@ public interface WishlistRepository extends JpaRepository<WishlistItem, Long> {
      * Delete by symbol
      */
     void deleteByPortfolioAndSymbol(Portfolio portfolio, String symbol);
+
+    /**
+     * Distinct symbols across all wishlists
+     */
+    @Query("SELECT DISTINCT w.symbol FROM WishlistItem w")
+    List<String> findDistinctSymbols();
 }
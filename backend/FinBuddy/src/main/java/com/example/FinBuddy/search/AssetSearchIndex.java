@@ -0,0 +1,200 @@
+package com.example.FinBuddy.search;
+
+import com.example.FinBuddy.dto.AssetSummaryDTO;
+import com.example.FinBuddy.entities.Asset;
+import com.example.FinBuddy.repositories.AssetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Name/symbol search index over the assets table, so asset search no longer needs a
+ * {@code LIKE '%term%'} scan. Built once the application is ready and kept in sync by
+ * AssetService; changes are applied after their transaction commits. Until the index is
+ * built, {@link #isReady()} is false and callers should fall back to the database query.
+ */
+@Component
+@Slf4j
+public class AssetSearchIndex {
+
+    private static final int BUILD_PAGE_SIZE = 1000;
+    private static final Comparator<Hit> BY_RANK = Comparator.comparingInt((Hit hit) -> -hit.score)
+            .thenComparingInt(hit -> hit.entry.name.length())
+            .thenComparingLong(hit -> hit.entry.id);
+
+    private final AssetRepository assetRepository;
+    private final boolean enabled;
+    private final NGramIndex index = new NGramIndex();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public AssetSearchIndex(AssetRepository assetRepository,
+            @Value("${asset.search.index.enabled:true}") boolean enabled) {
+        this.assetRepository = assetRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            log.info("Asset search index disabled, searches use the database");
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Asset search index build failed, searches use the database: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Load every asset's name and symbol, one keyset page at a time
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        ready = false;
+        index.clear();
+        entries.clear();
+        long afterId = 0;
+        List<AssetSummaryDTO> page;
+        do {
+            page = assetRepository.findSummariesAfter(afterId, PageRequest.ofSize(BUILD_PAGE_SIZE));
+            for (AssetSummaryDTO row : page) {
+                put(row.getId(), row.getAssetType(), row.getSymbol(), row.getName());
+                afterId = row.getId();
+            }
+        } while (page.size() == BUILD_PAGE_SIZE);
+        ready = true;
+        log.info("Asset search index built: {} assets, {} grams in {}ms",
+                index.size(), index.gramCount(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ids of assets whose name or symbol contains the term, best match first
+     *
+     * @param assetType discriminator value to restrict to (STOCK, BOND, ...), or null for all types
+     */
+    public List<Long> search(String term, String assetType) {
+        String query = NGramIndex.normalize(term);
+        String wordStart = " " + query;
+        List<Hit> hits = new ArrayList<>();
+        for (Long id : index.search(query)) {
+            Entry entry = entries.get(id);
+            if (entry != null && (assetType == null || assetType.equals(entry.type))) {
+                hits.add(new Hit(entry, entry.score(query, wordStart)));
+            }
+        }
+        hits.sort(BY_RANK);
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            ids.add(hit.entry.id);
+        }
+        return ids;
+    }
+
+    /**
+     * Index a created or updated asset once the current transaction commits
+     */
+    public void onAssetSaved(Asset asset) {
+        Long id = asset.getId();
+        String type = asset.getAssetType();
+        String symbol = asset.getSymbol();
+        String name = asset.getName();
+        afterCommit(() -> put(id, type, symbol, name));
+    }
+
+    /**
+     * Drop a deleted asset once the current transaction commits
+     */
+    public void onAssetDeleted(Long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Drop an id the database no longer has, e.g. removed along with its portfolio
+     */
+    public void remove(Long id) {
+        entries.remove(id);
+        index.remove(id);
+    }
+
+    private void put(Long id, String type, String symbol, String name) {
+        if (id == null) {
+            return;
+        }
+        Entry entry = new Entry(id, type, NGramIndex.normalize(symbol), NGramIndex.normalize(name));
+        entries.put(id, entry);
+        index.put(id, entry.symbol, entry.name);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static final class Hit {
+        private final Entry entry;
+        private final int score;
+
+        private Hit(Entry entry, int score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final String type;
+        private final String symbol;
+        private final String name;
+
+        private Entry(long id, String type, String symbol, String name) {
+            this.id = id;
+            this.type = type;
+            this.symbol = symbol;
+            this.name = name;
+        }
+
+        /**
+         * Exact symbol, then symbol prefix, name prefix, word prefix in the name, anywhere in the symbol, anywhere in the name
+         */
+        private int score(String query, String wordStart) {
+            if (symbol.equals(query)) {
+                return 100;
+            }
+            if (symbol.startsWith(query)) {
+                return 80;
+            }
+            if (name.startsWith(query)) {
+                return 60;
+            }
+            if (name.contains(wordStart)) {
+                return 40;
+            }
+            return symbol.contains(query) ? 30 : 20;
+        }
+    }
+}
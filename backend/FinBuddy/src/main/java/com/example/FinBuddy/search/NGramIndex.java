@@ -0,0 +1,174 @@
+package com.example.FinBuddy.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index answering case-insensitive substring queries.
+ * Every 1-, 2- and 3-character gram of a document's text points at the document, so a
+ * query of up to three characters is a single lookup and a longer one is the intersection
+ * of its trigrams, confirmed against the stored text. Reads run concurrently; writes are exclusive.
+ */
+public class NGramIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, String[]> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Index (or re-index) a document under the given text fields; null fields are skipped
+     */
+    public void put(long id, String... fields) {
+        String[] normalized = new String[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            normalized[i] = normalize(fields[i]);
+        }
+        lock.writeLock().lock();
+        try {
+            String[] previous = documents.put(id, normalized);
+            if (previous != null) {
+                unlink(id, previous);
+            }
+            for (String gram : grams(normalized)) {
+                postings.computeIfAbsent(gram, key -> new HashSet<>()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            String[] previous = documents.remove(id);
+            if (previous != null) {
+                unlink(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of documents with a field containing the term, in no particular order.
+     * A blank term matches every document, like {@code LIKE '%%'}.
+     */
+    public List<Long> search(String term) {
+        String query = normalize(term);
+        lock.readLock().lock();
+        try {
+            if (query.isEmpty()) {
+                return new ArrayList<>(documents.keySet());
+            }
+            if (query.length() <= GRAM_LENGTH) {
+                Set<Long> exact = postings.get(query);
+                return exact == null ? Collections.emptyList() : new ArrayList<>(exact);
+            }
+            return verified(query, intersectTrigrams(query));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of distinct grams held, for sizing and stats
+     */
+    public int gramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Candidates holding every trigram of the query, smallest posting list first
+     */
+    private Set<Long> intersectTrigrams(String query) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            Set<Long> posting = postings.get(query.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return Collections.emptySet();
+            }
+            lists.add(posting);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        Set<Long> candidates = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(lists.get(i));
+        }
+        return candidates;
+    }
+
+    /**
+     * Trigram hits can be false positives (the grams may appear apart), so confirm the substring
+     */
+    private List<Long> verified(String query, Set<Long> candidates) {
+        List<Long> matches = new ArrayList<>(candidates.size());
+        for (Long id : candidates) {
+            for (String field : documents.get(id)) {
+                if (field.contains(query)) {
+                    matches.add(id);
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void unlink(long id, String[] fields) {
+        for (String gram : grams(fields)) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null && posting.remove(id) && posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String[] fields) {
+        Set<String> grams = new HashSet<>();
+        for (String field : fields) {
+            for (int start = 0; start < field.length(); start++) {
+                for (int length = 1; length <= GRAM_LENGTH && start + length <= field.length(); length++) {
+                    grams.add(field.substring(start, start + length));
+                }
+            }
+        }
+        return grams;
+    }
+}
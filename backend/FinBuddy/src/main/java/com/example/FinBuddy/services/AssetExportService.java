@@ -0,0 +1,58 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.dto.AssetExportDTO;
+import com.example.FinBuddy.entities.Asset;
+import com.example.FinBuddy.repositories.AssetRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams the asset table out as newline-delimited JSON.
+ * Rows are read through a database cursor and detached once written,
+ * so memory use stays flat however many assets there are.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AssetExportService {
+
+    private final AssetRepository assetRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write every asset, in id order, as one JSON object per line, including its portfolioId
+     *
+     * @return number of assets written
+     */
+    @Transactional(readOnly = true)
+    public long exportAssets(OutputStream out) throws IOException {
+        long count = 0;
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        generator.setRootValueSeparator(null);
+        try (Stream<Asset> assets = assetRepository.streamAll()) {
+            Iterator<Asset> rows = assets.iterator();
+            while (rows.hasNext()) {
+                Asset asset = rows.next();
+                objectMapper.writeValue(generator, AssetExportDTO.of(asset));
+                generator.writeRaw('\n');
+                entityManager.detach(asset);
+                count++;
+            }
+        }
+        generator.flush();
+        log.info("Exported {} assets", count);
+        return count;
+    }
+}
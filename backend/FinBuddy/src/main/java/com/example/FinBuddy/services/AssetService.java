@@ -1,15 +1,25 @@
 package com.example.FinBuddy.services;
 
+import com.example.FinBuddy.dto.AssetSummaryDTO;
+import com.example.FinBuddy.dto.CursorPage;
+import com.example.FinBuddy.dto.PageCursor;
 import com.example.FinBuddy.entities.*;
 import com.example.FinBuddy.repositories.AssetRepository;
 import com.example.FinBuddy.repositories.PortfolioRepository;
+import com.example.FinBuddy.search.AssetSearchIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service layer for Asset management
@@ -22,6 +32,7 @@ public class AssetService {
     private final AssetRepository assetRepository;
     private final PortfolioRepository portfolioRepository;
     private final PortfolioService portfolioService;
+    private final AssetSearchIndex assetSearchIndex;
 
     /**
      * Create a new asset
@@ -36,9 +47,11 @@ public class AssetService {
         asset.calculateMetrics();
 
         Asset savedAsset = assetRepository.save(asset);
+        assetSearchIndex.onAssetSaved(savedAsset);
 
-        // Recalculate portfolio metrics
-        portfolioService.recalculatePortfolioMetrics(portfolioId);
+        // Add the new asset to the portfolio totals
+        portfolioService.applyAssetDelta(portfolioId, valueOf(asset.getCurrentValue()),
+                valueOf(asset.getInvestedAmount()));
 
         return savedAsset;
     }
@@ -84,12 +97,50 @@ public class AssetService {
     }
 
     /**
-     * Search assets by name or symbol
+     * Get one page of asset list rows in id order, starting after the cursor
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AssetSummaryDTO> getAssetSummaryPage(String cursor, Integer limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<AssetSummaryDTO> rows = assetRepository.findSummariesAfter(afterId(cursor), PageRequest.ofSize(pageSize + 1));
+        return CursorPage.of(rows, pageSize, row -> PageCursor.of(row.getId()));
+    }
+
+    /**
+     * Get list rows for a portfolio's assets; all of them, or only wishlist or invested ones
+     */
+    @Transactional(readOnly = true)
+    public List<AssetSummaryDTO> getAssetSummariesByPortfolio(Long portfolioId, Boolean wishlist) {
+        if (wishlist == null) {
+            return assetRepository.findSummariesByPortfolioId(portfolioId);
+        }
+        return assetRepository.findSummariesByPortfolioIdAndIsWishlist(portfolioId, wishlist);
+    }
+
+    /**
+     * Get one page of list rows for assets of one type, starting after the cursor
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AssetSummaryDTO> getAssetSummaryPageByType(Class<? extends Asset> assetClass,
+            String cursor, Integer limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        List<AssetSummaryDTO> rows = assetRepository.findSummariesByAssetTypeAfter(assetClass, afterId(cursor),
+                PageRequest.ofSize(pageSize + 1));
+        return CursorPage.of(rows, pageSize, row -> PageCursor.of(row.getId()));
+    }
+
+    private static Long afterId(String cursor) {
+        PageCursor position = PageCursor.decode(cursor);
+        return position == null ? 0L : position.getId();
+    }
+
+    /**
+     * Search assets by name or symbol, best match first
      * Searches across all asset types: Stocks, Bonds, Mutual Funds, and SIPs
      */
     @Transactional(readOnly = true)
     public List<Asset> searchAssets(String searchTerm) {
-        return assetRepository.searchByNameOrSymbol(searchTerm);
+        return search(searchTerm, null, assetRepository::searchByNameOrSymbol);
     }
 
     /**
@@ -97,7 +148,7 @@ public class AssetService {
      */
     @Transactional(readOnly = true)
     public List<Asset> searchStocks(String searchTerm) {
-        return assetRepository.searchStocks(searchTerm);
+        return search(searchTerm, "STOCK", assetRepository::searchStocks);
     }
 
     /**
@@ -105,7 +156,7 @@ public class AssetService {
      */
     @Transactional(readOnly = true)
     public List<Asset> searchBonds(String searchTerm) {
-        return assetRepository.searchBonds(searchTerm);
+        return search(searchTerm, "BOND", assetRepository::searchBonds);
     }
 
     /**
@@ -113,7 +164,7 @@ public class AssetService {
      */
     @Transactional(readOnly = true)
     public List<Asset> searchMutualFunds(String searchTerm) {
-        return assetRepository.searchMutualFunds(searchTerm);
+        return search(searchTerm, "MUTUAL_FUND", assetRepository::searchMutualFunds);
     }
 
     /**
@@ -121,7 +172,33 @@ public class AssetService {
      */
     @Transactional(readOnly = true)
     public List<Asset> searchSIPs(String searchTerm) {
-        return assetRepository.searchSIPs(searchTerm);
+        return search(searchTerm, "SIP", assetRepository::searchSIPs);
+    }
+
+    /**
+     * Match against the search index and load the hits by primary key in rank order;
+     * until the index is built, run the LIKE query instead
+     */
+    private List<Asset> search(String searchTerm, String assetType, Function<String, List<Asset>> likeQuery) {
+        if (!assetSearchIndex.isReady()) {
+            return likeQuery.apply(searchTerm);
+        }
+        List<Long> ids = assetSearchIndex.search(searchTerm, assetType);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Asset> byId = assetRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Asset::getId, Function.identity()));
+        List<Asset> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Asset asset = byId.get(id);
+            if (asset != null) {
+                results.add(asset);
+            } else {
+                assetSearchIndex.remove(id);
+            }
+        }
+        return results;
     }
 
     /**
@@ -130,6 +207,8 @@ public class AssetService {
     public Asset updateAsset(Long id, Asset assetDetails) {
         Asset asset = assetRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Asset not found"));
+        BigDecimal previousValue = valueOf(asset.getCurrentValue());
+        BigDecimal previousInvestment = valueOf(asset.getInvestedAmount());
 
         asset.setName(assetDetails.getName());
         asset.setSymbol(assetDetails.getSymbol());
@@ -147,9 +226,10 @@ public class AssetService {
         asset.calculateMetrics();
 
         Asset savedAsset = assetRepository.save(asset);
+        assetSearchIndex.onAssetSaved(savedAsset);
 
-        // Recalculate portfolio metrics
-        portfolioService.recalculatePortfolioMetrics(asset.getPortfolio().getId());
+        // Apply only this asset's change to the portfolio totals
+        applyDelta(asset, previousValue, previousInvestment);
 
         return savedAsset;
     }
@@ -203,9 +283,11 @@ public class AssetService {
     /**
      * Update asset current price (for real-time updates)
      */
-    public Asset updateAssetPrice(Long id, java.math.BigDecimal newPrice) {
+    public Asset updateAssetPrice(Long id, BigDecimal newPrice) {
         Asset asset = assetRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Asset not found"));
+        BigDecimal previousValue = valueOf(asset.getCurrentValue());
+        BigDecimal previousInvestment = valueOf(asset.getInvestedAmount());
 
         asset.setCurrentPrice(newPrice);
         asset.setUpdatedAt(LocalDateTime.now());
@@ -213,8 +295,8 @@ public class AssetService {
 
         Asset savedAsset = assetRepository.save(asset);
 
-        // Recalculate portfolio metrics
-        portfolioService.recalculatePortfolioMetrics(asset.getPortfolio().getId());
+        // Apply only this asset's change to the portfolio totals
+        applyDelta(asset, previousValue, previousInvestment);
 
         return savedAsset;
     }
@@ -228,9 +310,11 @@ public class AssetService {
 
         Long portfolioId = asset.getPortfolio().getId();
         assetRepository.deleteById(id);
+        assetSearchIndex.onAssetDeleted(id);
 
-        // Recalculate portfolio metrics
-        portfolioService.recalculatePortfolioMetrics(portfolioId);
+        // Remove the asset from the portfolio totals
+        portfolioService.applyAssetDelta(portfolioId, valueOf(asset.getCurrentValue()).negate(),
+                valueOf(asset.getInvestedAmount()).negate());
     }
 
     /**
@@ -248,6 +332,9 @@ public class AssetService {
             throw new RuntimeException("Cannot sell more than owned quantity");
         }
 
+        BigDecimal previousValue = valueOf(asset.getCurrentValue());
+        BigDecimal previousInvestment = valueOf(asset.getInvestedAmount());
+
         // Reduce quantity - convert to Integer
         Integer newQuantity = asset.getQuantity() - quantityToSell.intValue();
         asset.setQuantity(newQuantity);
@@ -256,12 +343,22 @@ public class AssetService {
 
         Asset savedAsset = assetRepository.save(asset);
 
-        // Recalculate portfolio metrics
-        portfolioService.recalculatePortfolioMetrics(asset.getPortfolio().getId());
+        // Apply only this asset's change to the portfolio totals
+        applyDelta(asset, previousValue, previousInvestment);
 
         return savedAsset;
     }
 
+    private void applyDelta(Asset asset, BigDecimal previousValue, BigDecimal previousInvestment) {
+        portfolioService.applyAssetDelta(asset.getPortfolio().getId(),
+                valueOf(asset.getCurrentValue()).subtract(previousValue),
+                valueOf(asset.getInvestedAmount()).subtract(previousInvestment));
+    }
+
+    private static BigDecimal valueOf(BigDecimal amount) {
+        return amount != null ? amount : BigDecimal.ZERO;
+    }
+
     /**
      * Get assets by type
      */
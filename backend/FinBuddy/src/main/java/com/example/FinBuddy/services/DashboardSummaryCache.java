@@ -0,0 +1,99 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.dto.DashboardSummaryDTO;
+import com.example.FinBuddy.events.PortfolioChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-model cache of dashboard summaries, one entry per portfolio.
+ * Every portfolio carries a version that is bumped when a committed change to its assets,
+ * prices or history is published as a {@link PortfolioChangedEvent}; the version (with the
+ * cache's start time) is the dashboard's ETag. Entries are only served at the current version
+ * and only installed if the version did not move while they were computed, so an entry never
+ * outlives the data it was built from.
+ */
+@Service
+@Slf4j
+public class DashboardSummaryCache {
+
+    private final PortfolioService portfolioService;
+    private final long epoch = System.currentTimeMillis();
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<Long, CachedDashboard> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public DashboardSummaryCache(PortfolioService portfolioService) {
+        this.portfolioService = portfolioService;
+    }
+
+    /**
+     * Cached dashboard of a portfolio, computed on first use after a change.
+     * Entries also expire at midnight since the summary covers the last 30 days.
+     */
+    public CachedDashboard get(Long portfolioId) {
+        LocalDate today = LocalDate.now();
+        long version = version(portfolioId).get();
+        CachedDashboard cached = entries.get(portfolioId);
+        if (cached != null && cached.getVersion() == version && cached.getComputedOn().equals(today)) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+
+        DashboardSummaryDTO summary = portfolioService.getDashboardSummary(portfolioId);
+        CachedDashboard computed = new CachedDashboard(summary, version, today,
+                "W/\"" + Long.toString(epoch, 36) + "-" + portfolioId + "-" + version + "\"");
+        // Only cache what was computed against the current version; checked under the entry's
+        // lock, so an invalidation either fails the check or removes the entry after it
+        entries.compute(portfolioId, (id, existing) -> version(id).get() == version ? computed : existing);
+        return computed;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        Long portfolioId = event.getPortfolioId();
+        version(portfolioId).incrementAndGet();
+        entries.remove(portfolioId);
+        if (event.isDeleted()) {
+            versions.remove(portfolioId);
+        }
+        invalidations.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    private AtomicLong version(Long portfolioId) {
+        return versions.computeIfAbsent(portfolioId, id -> new AtomicLong());
+    }
+
+    /**
+     * A dashboard summary with the version it was computed at
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CachedDashboard {
+        private final DashboardSummaryDTO summary;
+        private final long version;
+        private final LocalDate computedOn;
+        private final String etag;
+    }
+}
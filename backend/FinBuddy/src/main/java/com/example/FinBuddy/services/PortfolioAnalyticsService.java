@@ -0,0 +1,226 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.analytics.PerformanceMath;
+import com.example.FinBuddy.dto.PortfolioAnalyticsDTO;
+import com.example.FinBuddy.entities.Asset;
+import com.example.FinBuddy.entities.PortfolioHistory;
+import com.example.FinBuddy.events.PortfolioChangedEvent;
+import com.example.FinBuddy.exceptions.ResourceNotFoundException;
+import com.example.FinBuddy.repositories.AssetRepository;
+import com.example.FinBuddy.repositories.PortfolioHistoryRepository;
+import com.example.FinBuddy.repositories.PortfolioRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Return and risk analytics of a portfolio: time-weighted return, money-weighted return (XIRR),
+ * annualized volatility, Sharpe and Sortino ratios and max drawdown.
+ * The daily history snapshots are copied into double[] once and handed to {@link PerformanceMath};
+ * the change in invested amount between snapshots is the cash flow, so buying more is not
+ * counted as performance. XIRR uses each held asset's purchase as a flow and today's value as
+ * the final one. Results are cached per portfolio version, bumped by {@link PortfolioChangedEvent}
+ * like the dashboard cache, and recomputed at most once a day otherwise.
+ */
+@Service
+@Slf4j
+public class PortfolioAnalyticsService {
+
+    private static final double DAYS_PER_YEAR = 365.25;
+
+    private final PortfolioRepository portfolioRepository;
+    private final PortfolioHistoryRepository portfolioHistoryRepository;
+    private final AssetRepository assetRepository;
+    private final double riskFreeRate;
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<Long, CachedAnalytics> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PortfolioAnalyticsService(
+            PortfolioRepository portfolioRepository,
+            PortfolioHistoryRepository portfolioHistoryRepository,
+            AssetRepository assetRepository,
+            @Value("${analytics.risk-free-rate:0.0}") double riskFreeRate) {
+        this.portfolioRepository = portfolioRepository;
+        this.portfolioHistoryRepository = portfolioHistoryRepository;
+        this.assetRepository = assetRepository;
+        this.riskFreeRate = riskFreeRate;
+    }
+
+    /**
+     * Analytics of a portfolio over its whole history, from the cache when nothing changed
+     */
+    @Transactional(readOnly = true)
+    public PortfolioAnalyticsDTO getAnalytics(Long portfolioId) {
+        LocalDate today = LocalDate.now();
+        long version = version(portfolioId).get();
+        CachedAnalytics cached = entries.get(portfolioId);
+        if (cached != null && cached.getVersion() == version && cached.getComputedOn().equals(today)) {
+            hits.incrementAndGet();
+            return cached.getAnalytics();
+        }
+        misses.incrementAndGet();
+
+        if (!portfolioRepository.existsById(portfolioId)) {
+            throw new ResourceNotFoundException("Portfolio", "id", portfolioId);
+        }
+        PortfolioAnalyticsDTO analytics = compute(portfolioId,
+                portfolioHistoryRepository.findByPortfolioIdOrderByRecordDateAsc(portfolioId),
+                assetRepository.findByPortfolioIdAndIsWishlistFalse(portfolioId), today);
+        CachedAnalytics computed = new CachedAnalytics(analytics, version, today);
+        // Only cache what was computed against the current version; checked under the entry's
+        // lock, so an invalidation either fails the check or removes the entry after it
+        entries.compute(portfolioId, (id, existing) -> version(id).get() == version ? computed : existing);
+        return analytics;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        Long portfolioId = event.getPortfolioId();
+        version(portfolioId).incrementAndGet();
+        entries.remove(portfolioId);
+        if (event.isDeleted()) {
+            versions.remove(portfolioId);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        return stats;
+    }
+
+    /**
+     * Analytics over the recorded snapshots; backfilled ones are straight lines from the purchase
+     * price and would understate volatility and drawdown, so they are left out
+     */
+    PortfolioAnalyticsDTO compute(Long portfolioId, List<PortfolioHistory> snapshots, List<Asset> assets,
+            LocalDate today) {
+        List<PortfolioHistory> history = snapshots.stream()
+                .filter(snapshot -> !Boolean.TRUE.equals(snapshot.getSynthetic()))
+                .toList();
+        PortfolioAnalyticsDTO analytics = new PortfolioAnalyticsDTO();
+        analytics.setPortfolioId(portfolioId);
+        analytics.setRiskFreeRate(riskFreeRate);
+        analytics.setXirr(finite(xirr(assets, today)));
+
+        int n = history.size();
+        analytics.setObservations(n);
+        if (n == 0) {
+            return analytics;
+        }
+        LocalDate start = history.get(0).getRecordDate();
+        LocalDate end = history.get(n - 1).getRecordDate();
+        analytics.setStartDate(start);
+        analytics.setEndDate(end);
+        if (n < 2) {
+            return analytics;
+        }
+
+        double[] values = new double[n];
+        double[] flows = new double[n];
+        double previousInvestment = 0;
+        for (int i = 0; i < n; i++) {
+            PortfolioHistory snapshot = history.get(i);
+            values[i] = toDouble(snapshot.getTotalValue());
+            double investment = toDouble(snapshot.getTotalInvestment());
+            flows[i] = i == 0 ? 0 : investment - previousInvestment;
+            previousInvestment = investment;
+        }
+
+        double[] returns = PerformanceMath.periodReturns(values, flows);
+        double years = ChronoUnit.DAYS.between(start, end) / DAYS_PER_YEAR;
+        // Snapshots are daily but may have gaps; annualize by what was actually observed
+        double periodsPerYear = years > 0 ? returns.length / years : Double.NaN;
+        double twr = PerformanceMath.timeWeightedReturn(returns);
+        analytics.setTimeWeightedReturn(finite(twr));
+        analytics.setAnnualizedTimeWeightedReturn(finite(PerformanceMath.annualize(twr, years)));
+        analytics.setAnnualizedVolatility(finite(PerformanceMath.annualizedVolatility(returns, periodsPerYear)));
+        analytics.setSharpeRatio(finite(PerformanceMath.sharpeRatio(returns, riskFreeRate, periodsPerYear)));
+        analytics.setSortinoRatio(finite(PerformanceMath.sortinoRatio(returns, riskFreeRate, periodsPerYear)));
+
+        int[] range = new int[2];
+        double drawdown = PerformanceMath.maxDrawdown(PerformanceMath.wealthIndex(returns), range);
+        analytics.setMaxDrawdown(drawdown);
+        if (drawdown > 0) {
+            analytics.setMaxDrawdownPeakDate(history.get(range[0]).getRecordDate());
+            analytics.setMaxDrawdownTroughDate(history.get(range[1]).getRecordDate());
+        }
+        return analytics;
+    }
+
+    /**
+     * Purchases as outflows on their purchase dates and the current value as one inflow today
+     */
+    private static double xirr(List<Asset> assets, LocalDate today) {
+        List<Asset> held = new ArrayList<>();
+        LocalDate first = today;
+        for (Asset asset : assets) {
+            if (asset.getPurchaseDate() != null && asset.getInvestedAmount() != null) {
+                held.add(asset);
+                if (asset.getPurchaseDate().isBefore(first)) {
+                    first = asset.getPurchaseDate();
+                }
+            }
+        }
+        if (held.isEmpty() || !first.isBefore(today)) {
+            return Double.NaN;
+        }
+
+        double[] amounts = new double[held.size() + 1];
+        double[] years = new double[held.size() + 1];
+        double currentValue = 0;
+        for (int i = 0; i < held.size(); i++) {
+            Asset asset = held.get(i);
+            amounts[i] = -toDouble(asset.getInvestedAmount());
+            years[i] = ChronoUnit.DAYS.between(first, asset.getPurchaseDate()) / DAYS_PER_YEAR;
+            currentValue += toDouble(asset.getCurrentValue());
+        }
+        amounts[held.size()] = currentValue;
+        years[held.size()] = ChronoUnit.DAYS.between(first, today) / DAYS_PER_YEAR;
+        return PerformanceMath.xirr(amounts, years);
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0;
+    }
+
+    /**
+     * JSON has no NaN or infinity; undefined metrics are reported as null
+     */
+    private static Double finite(double value) {
+        return Double.isFinite(value) ? value : null;
+    }
+
+    private AtomicLong version(Long portfolioId) {
+        return versions.computeIfAbsent(portfolioId, id -> new AtomicLong());
+    }
+
+    /**
+     * Analytics with the version they were computed at
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class CachedAnalytics {
+        private final PortfolioAnalyticsDTO analytics;
+        private final long version;
+        private final LocalDate computedOn;
+    }
+}
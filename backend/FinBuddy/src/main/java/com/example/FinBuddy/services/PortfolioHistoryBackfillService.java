@@ -0,0 +1,161 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.entities.Asset;
+import com.example.FinBuddy.entities.Portfolio;
+import com.example.FinBuddy.entities.PortfolioHistory;
+import com.example.FinBuddy.marketdata.CachedPrice;
+import com.example.FinBuddy.marketdata.PriceCache;
+import com.example.FinBuddy.repositories.PortfolioHistoryRepository;
+import com.example.FinBuddy.repositories.PortfolioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills the days before a portfolio's first recorded snapshot with synthetic history.
+ * Each asset counts from its purchase date, valued along a straight line from its purchase
+ * price to its current (cached) price, so the series is deterministic and is written once
+ * as {@link PortfolioHistory} rows marked synthetic, which analytics leave out.
+ */
+@Service
+@Slf4j
+public class PortfolioHistoryBackfillService {
+
+    private final PortfolioRepository portfolioRepository;
+    private final PortfolioHistoryRepository portfolioHistoryRepository;
+    private final PortfolioHistoryRollupService historyRollupService;
+    private final PriceCache priceCache;
+    private final boolean enabled;
+    private final int maxDays;
+
+    public PortfolioHistoryBackfillService(
+            PortfolioRepository portfolioRepository,
+            PortfolioHistoryRepository portfolioHistoryRepository,
+            PortfolioHistoryRollupService historyRollupService,
+            PriceCache priceCache,
+            @Value("${portfolio.history.backfill.enabled:true}") boolean enabled,
+            @Value("${portfolio.history.backfill.max-days:30}") int maxDays) {
+        this.portfolioRepository = portfolioRepository;
+        this.portfolioHistoryRepository = portfolioHistoryRepository;
+        this.historyRollupService = historyRollupService;
+        this.priceCache = priceCache;
+        this.enabled = enabled;
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Backfill the missing days from the earliest purchase date (at most maxDays back) up to the
+     * first recorded snapshot, or up to today if there is none. Runs in its own transaction so it
+     * can be triggered from read-only requests.
+     *
+     * @return the snapshots written, oldest first
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<PortfolioHistory> backfill(Long portfolioId) {
+        if (!enabled) {
+            return List.of();
+        }
+        // Lock the portfolio so concurrent requests do not backfill the same days twice
+        if (portfolioRepository.findByIdForUpdate(portfolioId).isEmpty()) {
+            return List.of();
+        }
+        Portfolio portfolio = portfolioRepository.findByIdWithAssets(portfolioId).orElseThrow();
+        List<Asset> assets = portfolio.getAssets().stream()
+                .filter(asset -> !asset.getIsWishlist() && asset.getPurchaseDate() != null)
+                .toList();
+        if (assets.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate firstRecorded = portfolioHistoryRepository.findFirstByPortfolioIdOrderByRecordDateAsc(portfolioId)
+                .map(PortfolioHistory::getRecordDate)
+                .orElse(today.plusDays(1));
+        LocalDate earliestPurchase = assets.stream()
+                .map(Asset::getPurchaseDate)
+                .min(LocalDate::compareTo)
+                .get();
+        LocalDate from = backfillStart(earliestPurchase, today);
+        if (!from.isBefore(firstRecorded)) {
+            return List.of();
+        }
+
+        Map<Long, BigDecimal> currentPrices = new HashMap<>();
+        for (Asset asset : assets) {
+            CachedPrice cached = priceCache.peekServable(asset.getSymbol());
+            currentPrices.put(asset.getId(), cached != null ? cached.getPrice() : asset.getCurrentPrice());
+        }
+
+        List<PortfolioHistory> snapshots = new ArrayList<>();
+        for (LocalDate day = from; day.isBefore(firstRecorded) && !day.isAfter(today); day = day.plusDays(1)) {
+            BigDecimal totalValue = BigDecimal.ZERO;
+            BigDecimal totalInvestment = BigDecimal.ZERO;
+            for (Asset asset : assets) {
+                if (asset.getPurchaseDate().isAfter(day)) {
+                    continue;
+                }
+                BigDecimal quantity = new BigDecimal(asset.getQuantity());
+                totalValue = totalValue.add(priceOn(asset, currentPrices.get(asset.getId()), day, today).multiply(quantity));
+                totalInvestment = totalInvestment.add(asset.getPurchasePrice().multiply(quantity));
+            }
+            if (totalInvestment.signum() == 0) {
+                continue;
+            }
+            PortfolioHistory snapshot = new PortfolioHistory();
+            snapshot.setPortfolio(portfolio);
+            snapshot.setRecordDate(day);
+            snapshot.setSynthetic(true);
+            snapshot.setTotalValue(totalValue);
+            snapshot.setTotalInvestment(totalInvestment);
+            snapshot.setGainLoss(totalValue.subtract(totalInvestment));
+            snapshot.setGainLossPercentage(totalValue.subtract(totalInvestment)
+                    .divide(totalInvestment, 4, RoundingMode.HALF_UP)
+                    .multiply(new BigDecimal("100")));
+            snapshots.add(snapshot);
+        }
+        if (snapshots.isEmpty()) {
+            return snapshots;
+        }
+        portfolioHistoryRepository.saveAll(snapshots);
+        historyRollupService.recordBackfill(portfolioId, snapshots);
+        log.info("Backfilled {} days of history for portfolio {} from {}", snapshots.size(), portfolioId, from);
+        return snapshots;
+    }
+
+    /**
+     * First day a backfill writes for holdings bought on earliestPurchase: at most maxDays back.
+     * Null when backfill is disabled, so callers can skip it without opening a transaction.
+     */
+    public LocalDate backfillStart(LocalDate earliestPurchase, LocalDate today) {
+        if (!enabled) {
+            return null;
+        }
+        LocalDate limit = today.minusDays(maxDays);
+        return earliestPurchase.isAfter(limit) ? earliestPurchase : limit;
+    }
+
+    /**
+     * Straight line from the purchase price on the purchase date to the current price today
+     */
+    static BigDecimal priceOn(Asset asset, BigDecimal currentPrice, LocalDate day, LocalDate today) {
+        long heldDays = ChronoUnit.DAYS.between(asset.getPurchaseDate(), today);
+        if (heldDays <= 0 || currentPrice == null) {
+            return currentPrice != null ? currentPrice : asset.getPurchasePrice();
+        }
+        long elapsed = ChronoUnit.DAYS.between(asset.getPurchaseDate(), day);
+        return asset.getPurchasePrice().add(currentPrice.subtract(asset.getPurchasePrice())
+                .multiply(BigDecimal.valueOf(elapsed))
+                .divide(BigDecimal.valueOf(heldDays), 4, RoundingMode.HALF_UP));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.FinBuddy.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * One-off cleanup of the portfolio history written before snapshots became one row per day.
+ * Runs once at startup and keeps the latest snapshot of each portfolio/day; once the table
+ * is compacted it finds nothing to do. Until then the (portfolio_id, record_date) unique
+ * constraint cannot be created on a database that still holds duplicates.
+ */
+@Service
+@Slf4j
+public class PortfolioHistoryCompactionService {
+
+    private final PortfolioService portfolioService;
+    private final boolean enabled;
+
+    public PortfolioHistoryCompactionService(
+            PortfolioService portfolioService,
+            @Value("${portfolio.history.compact-on-startup:true}") boolean enabled) {
+        this.portfolioService = portfolioService;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void compactOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int deleted = portfolioService.compactPortfolioHistory();
+            if (deleted > 0) {
+                log.info("Compacted portfolio history: removed {} duplicate daily snapshots", deleted);
+            }
+        } catch (Exception e) {
+            log.warn("Portfolio history compaction failed: {}", e.getMessage());
+        }
+    }
+}
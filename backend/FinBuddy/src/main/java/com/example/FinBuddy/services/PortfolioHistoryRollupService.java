@@ -0,0 +1,200 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.dto.HistoryPointDTO;
+import com.example.FinBuddy.dto.HistorySeriesDTO;
+import com.example.FinBuddy.entities.PortfolioHistory;
+import com.example.FinBuddy.entities.PortfolioHistoryRollup;
+import com.example.FinBuddy.entities.PortfolioHistoryRollup.Resolution;
+import com.example.FinBuddy.repositories.PortfolioHistoryRepository;
+import com.example.FinBuddy.repositories.PortfolioHistoryRollupRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Daily, weekly and monthly rollups of portfolio value.
+ * Every snapshot is folded into the three periods it falls in, so a history query reads at most
+ * one row per period at the coarsest resolution that still fits the caller's point budget.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class PortfolioHistoryRollupService {
+
+    public static final int DEFAULT_MAX_POINTS = 500;
+
+    private final PortfolioHistoryRollupRepository rollupRepository;
+    private final PortfolioHistoryRepository portfolioHistoryRepository;
+
+    /**
+     * Fold a snapshot into the day, week and month containing its date
+     */
+    public void record(Long portfolioId, LocalDate date, BigDecimal totalValue, BigDecimal totalInvestment) {
+        List<Resolution> resolutions = Arrays.asList(Resolution.values());
+        List<LocalDate> periodStarts = resolutions.stream()
+                .map(resolution -> resolution.periodStart(date))
+                .distinct()
+                .collect(Collectors.toList());
+
+        Map<Resolution, PortfolioHistoryRollup> rollups = new EnumMap<>(Resolution.class);
+        for (PortfolioHistoryRollup rollup : rollupRepository.findByPortfolioIdAndResolutionInAndPeriodStartIn(
+                portfolioId, resolutions, periodStarts)) {
+            if (rollup.getPeriodStart().equals(rollup.getResolution().periodStart(date))) {
+                rollups.put(rollup.getResolution(), rollup);
+            }
+        }
+        for (Resolution resolution : resolutions) {
+            rollups.computeIfAbsent(resolution, key -> newRollup(portfolioId, key, key.periodStart(date)))
+                    .addSample(totalValue, totalInvestment);
+        }
+        rollupRepository.saveAll(rollups.values());
+    }
+
+    /**
+     * Value history between two dates (defaults: first recorded day, today) at the finest
+     * resolution whose point count fits maxPoints
+     */
+    @Transactional(readOnly = true)
+    public HistorySeriesDTO getHistory(Long portfolioId, LocalDate startDate, LocalDate endDate, Integer maxPoints) {
+        LocalDate end = endDate != null ? endDate : LocalDate.now();
+        LocalDate start = startDate != null ? startDate
+                : rollupRepository.findFirstPeriodStart(portfolioId, Resolution.DAILY).orElse(end);
+        int budget = maxPoints != null && maxPoints > 0 ? maxPoints : DEFAULT_MAX_POINTS;
+
+        Resolution resolution = selectResolution(start, end, budget);
+        List<HistoryPointDTO> points = rollupRepository
+                .findByPortfolioIdAndResolutionAndPeriodStartBetweenOrderByPeriodStartAsc(
+                        portfolioId, resolution, resolution.periodStart(start), end)
+                .stream()
+                .map(rollup -> new HistoryPointDTO(rollup.getPeriodStart(), rollup.getOpenValue(),
+                        rollup.getHighValue(), rollup.getLowValue(), rollup.getCloseValue(),
+                        rollup.getCloseInvestment()))
+                .collect(Collectors.toList());
+        return new HistorySeriesDTO(portfolioId, resolution.name(), start, end, points);
+    }
+
+    /**
+     * Finest resolution with at most maxPoints periods in the range; the coarsest if none fits
+     */
+    static Resolution selectResolution(LocalDate start, LocalDate end, int maxPoints) {
+        long days = Math.max(1, ChronoUnit.DAYS.between(start, end) + 1);
+        for (Resolution resolution : Resolution.values()) {
+            if (Math.ceil(days / (double) resolution.getApproximateDays()) <= maxPoints) {
+                return resolution;
+            }
+        }
+        return Resolution.MONTHLY;
+    }
+
+    /**
+     * Drop the rollups of a deleted portfolio
+     */
+    public void deleteRollups(Long portfolioId) {
+        rollupRepository.deleteByPortfolioId(portfolioId);
+    }
+
+    /**
+     * Seed the rollups from the stored snapshots when none exist yet, i.e. the first start after
+     * rollups were introduced. One portfolio is read, folded and written at a time, each in its
+     * own repository transaction, so only that portfolio's history is ever held in memory.
+     *
+     * @return number of snapshots folded in
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuildIfEmpty() {
+        if (rollupRepository.count() > 0) {
+            return 0;
+        }
+        int snapshots = 0;
+        int rollups = 0;
+        try {
+            for (Long portfolioId : portfolioHistoryRepository.findPortfolioIds()) {
+                List<PortfolioHistory> history = portfolioHistoryRepository
+                        .findByPortfolioIdOrderByRecordDateAscIdAsc(portfolioId);
+                rollups += fold(portfolioId, history);
+                snapshots += history.size();
+            }
+        } catch (Exception e) {
+            log.warn("Seeding history rollups failed: {}", e.getMessage());
+        }
+        if (snapshots > 0) {
+            log.info("Built {} history rollups from {} snapshots", rollups, snapshots);
+        }
+        return snapshots;
+    }
+
+    /**
+     * Fold backfilled snapshots, all older than the recorded ones, into the rollups. Periods they
+     * share with recorded days keep the high, low and close folded from every recorded snapshot
+     * and only gain an earlier open; no other rollup is touched, so intraday values survive.
+     */
+    public void recordBackfill(Long portfolioId, List<PortfolioHistory> snapshots) {
+        Map<String, PortfolioHistoryRollup> backfilled = foldInMemory(portfolioId, snapshots);
+        List<LocalDate> periodStarts = backfilled.values().stream()
+                .map(PortfolioHistoryRollup::getPeriodStart)
+                .distinct()
+                .collect(Collectors.toList());
+
+        List<PortfolioHistoryRollup> rollups = new ArrayList<>();
+        for (PortfolioHistoryRollup existing : rollupRepository.findByPortfolioIdAndResolutionInAndPeriodStartIn(
+                portfolioId, Arrays.asList(Resolution.values()), periodStarts)) {
+            PortfolioHistoryRollup earlier = backfilled.remove(existing.getResolution() + "/" + existing.getPeriodStart());
+            if (earlier != null) {
+                existing.prependSamples(earlier);
+                rollups.add(existing);
+            }
+        }
+        rollups.addAll(backfilled.values());
+        rollupRepository.saveAll(rollups);
+    }
+
+    /**
+     * Fold one portfolio's snapshots (in write order) in memory and write the rollups once
+     */
+    private int fold(Long portfolioId, List<PortfolioHistory> history) {
+        Map<String, PortfolioHistoryRollup> rollups = foldInMemory(portfolioId, history);
+        rollupRepository.saveAll(rollups.values());
+        return rollups.size();
+    }
+
+    /**
+     * Rollups of the snapshots alone, keyed by resolution and period start
+     */
+    private static Map<String, PortfolioHistoryRollup> foldInMemory(Long portfolioId, List<PortfolioHistory> history) {
+        Map<String, PortfolioHistoryRollup> rollups = new LinkedHashMap<>();
+        for (PortfolioHistory snapshot : history) {
+            for (Resolution resolution : Resolution.values()) {
+                LocalDate periodStart = resolution.periodStart(snapshot.getRecordDate());
+                rollups.computeIfAbsent(resolution + "/" + periodStart,
+                                key -> newRollup(portfolioId, resolution, periodStart))
+                        .addSample(snapshot.getTotalValue(), snapshot.getTotalInvestment());
+            }
+        }
+        return rollups;
+    }
+
+    private static PortfolioHistoryRollup newRollup(Long portfolioId, Resolution resolution, LocalDate periodStart) {
+        PortfolioHistoryRollup rollup = new PortfolioHistoryRollup();
+        rollup.setPortfolioId(portfolioId);
+        rollup.setResolution(resolution);
+        rollup.setPeriodStart(periodStart);
+        return rollup;
+    }
+}
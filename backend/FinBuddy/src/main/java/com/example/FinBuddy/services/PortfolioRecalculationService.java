@@ -7,7 +7,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -15,7 +14,7 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class PortfolioRecalculationService {
     private final PortfolioRepository portfolioRepository;
-    private final AssetService assetService;
+    private final PortfolioService portfolioService;
     private final StockPriceService stockPriceService;
 
     public Portfolio recalculate(Long portfolioId) {
@@ -29,16 +28,7 @@ public class PortfolioRecalculationService {
         Map<String, BigDecimal> prices =
                 stockPriceService.getBatchPrices(symbols);
 
-        List<Asset> assetsCopy = List.copyOf(portfolio.getAssets());
-
-        for (Asset asset : assetsCopy) {
-            BigDecimal price = prices.get(asset.getSymbol());
-            if (price != null) {
-                assetService.updateAssetPrice(asset.getId(), price);
-            }
-        }
-
-        portfolio.recalculateMetrics();
-        return portfolioRepository.save(portfolio);
+        // Reprice all assets and recompute the totals once, instead of once per asset
+        return portfolioService.revaluePortfolio(portfolioId, prices);
     }
 }
@@ -0,0 +1,57 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.repositories.PortfolioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Safety net for the incremental portfolio totals maintained by {@link AssetService}.
+ * Periodically recomputes every portfolio from its assets and corrects totals that drifted,
+ * e.g. after a failed write or a change made outside the service layer.
+ */
+@Service
+@Slf4j
+public class PortfolioReconciliationService {
+
+    private final PortfolioRepository portfolioRepository;
+    private final PortfolioService portfolioService;
+    private final boolean enabled;
+
+    public PortfolioReconciliationService(
+            PortfolioRepository portfolioRepository,
+            PortfolioService portfolioService,
+            @Value("${portfolio.reconcile.enabled:true}") boolean enabled) {
+        this.portfolioRepository = portfolioRepository;
+        this.portfolioService = portfolioService;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Reconcile all portfolios, each in its own transaction
+     */
+    @Scheduled(fixedDelayString = "${portfolio.reconcile.interval-ms:3600000}",
+            initialDelayString = "${portfolio.reconcile.initial-delay-ms:300000}")
+    public void reconcileAll() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<Long> portfolioIds = portfolioRepository.findAllIds();
+        int corrected = 0;
+        for (Long portfolioId : portfolioIds) {
+            try {
+                if (portfolioService.reconcilePortfolioMetrics(portfolioId)) {
+                    corrected++;
+                }
+            } catch (Exception e) {
+                log.warn("Reconciliation of portfolio {} failed: {}", portfolioId, e.getMessage());
+            }
+        }
+        log.info("Reconciled {} portfolios in {}ms, {} corrected",
+                portfolioIds.size(), System.currentTimeMillis() - start, corrected);
+    }
+}
@@ -2,15 +2,26 @@ package com.example.FinBuddy.services;
 
 import com.example.FinBuddy.dto.AssetAllocationDTO;
 import com.example.FinBuddy.dto.AssetPerformanceDTO;
+import com.example.FinBuddy.dto.CursorPage;
 import com.example.FinBuddy.dto.DashboardSummaryDTO;
+import com.example.FinBuddy.dto.PageCursor;
 import com.example.FinBuddy.dto.PerformanceDataDTO;
+import com.example.FinBuddy.dto.PortfolioSummaryDTO;
 import com.example.FinBuddy.entities.Asset;
 import com.example.FinBuddy.entities.Portfolio;
 import com.example.FinBuddy.entities.PortfolioHistory;
+import com.example.FinBuddy.events.PortfolioChangedEvent;
+import com.example.FinBuddy.exceptions.InvalidRequestException;
+import com.example.FinBuddy.exceptions.ResourceNotFoundException;
 import com.example.FinBuddy.repositories.AssetRepository;
 import com.example.FinBuddy.repositories.PortfolioHistoryRepository;
 import com.example.FinBuddy.repositories.PortfolioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +29,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -26,12 +38,19 @@ import java.util.stream.Collectors;
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional
 public class PortfolioService {
 
+    private static final DateTimeFormatter CHART_DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd");
+
     private final PortfolioRepository portfolioRepository;
     private final AssetRepository assetRepository;
     private final PortfolioHistoryRepository portfolioHistoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PortfolioHistoryRollupService historyRollupService;
+    private final PortfolioHistoryBackfillService historyBackfillService;
+    private final EntityManager entityManager;
 
     /**
      * Create a new portfolio
@@ -50,6 +69,25 @@ public class PortfolioService {
         return portfolioRepository.findAllByOrderByCreatedAtDesc();
     }
 
+    /**
+     * Get one page of portfolio list rows, newest first, without their assets
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PortfolioSummaryDTO> getPortfolioSummaryPage(String cursor, Integer limit) {
+        int pageSize = CursorPage.clampLimit(limit);
+        PageCursor position = PageCursor.decode(cursor);
+        PageRequest page = PageRequest.ofSize(pageSize + 1);
+        List<PortfolioSummaryDTO> rows;
+        if (position == null) {
+            rows = portfolioRepository.findSummaries(page);
+        } else if (position.getCreatedAt() == null) {
+            throw new InvalidRequestException("Invalid page cursor: " + cursor);
+        } else {
+            rows = portfolioRepository.findSummariesBefore(position.getCreatedAt(), position.getId(), page);
+        }
+        return CursorPage.of(rows, pageSize, row -> new PageCursor(row.getId(), row.getCreatedAt()));
+    }
+
     /**
      * Get portfolio by ID
      */
@@ -78,7 +116,9 @@ public class PortfolioService {
         portfolio.setBaseCurrency(portfolioDetails.getBaseCurrency());
         portfolio.setUpdatedAt(LocalDateTime.now());
 
-        return portfolioRepository.save(portfolio);
+        Portfolio savedPortfolio = portfolioRepository.save(portfolio);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(id, false));
+        return savedPortfolio;
     }
 
     /**
@@ -89,6 +129,8 @@ public class PortfolioService {
                 .orElseThrow(() -> new RuntimeException("Portfolio not found"));
 
         portfolioRepository.delete(portfolio);
+        historyRollupService.deleteRollups(id);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(id, true));
     }
 
     /**
@@ -109,22 +151,145 @@ public class PortfolioService {
         // Save portfolio history snapshot
         savePortfolioSnapshot(savedPortfolio);
 
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId, false));
+
         return savedPortfolio;
     }
 
     /**
-     * Save portfolio snapshot for history tracking
+     * Revalue a portfolio from a symbol to price map in one transaction: every asset holding one of
+     * the symbols is repriced, the changed assets are written in one batch, and the portfolio
+     * totals are recomputed and snapshotted once. Symbols the portfolio does not hold are ignored.
+     */
+    public Portfolio revaluePortfolio(Long portfolioId, Map<String, BigDecimal> prices) {
+        Map<String, BigDecimal> pricesBySymbol = new HashMap<>();
+        prices.forEach((symbol, price) -> {
+            if (symbol == null || price == null || price.compareTo(BigDecimal.ZERO) <= 0) {
+                throw new InvalidRequestException("Invalid price for symbol " + symbol + ": " + price);
+            }
+            pricesBySymbol.put(symbol.trim().toUpperCase(), price);
+        });
+
+        Portfolio portfolio = portfolioRepository.findByIdWithAssets(portfolioId)
+                .orElseThrow(() -> new ResourceNotFoundException("Portfolio", "id", portfolioId));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Asset> repriced = new ArrayList<>();
+        for (Asset asset : portfolio.getAssets()) {
+            BigDecimal price = pricesBySymbol.get(asset.getSymbol().toUpperCase());
+            if (price != null && (asset.getCurrentPrice() == null || price.compareTo(asset.getCurrentPrice()) != 0)) {
+                asset.setCurrentPrice(price);
+                asset.setUpdatedAt(now);
+                asset.calculateMetrics();
+                repriced.add(asset);
+            }
+        }
+        if (repriced.isEmpty()) {
+            return portfolio;
+        }
+        assetRepository.saveAll(repriced);
+
+        portfolio.recalculateMetrics();
+        Portfolio savedPortfolio = portfolioRepository.save(portfolio);
+
+        savePortfolioSnapshot(savedPortfolio);
+
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId, false));
+
+        return savedPortfolio;
+    }
+
+    /**
+     * Apply one asset's change in current value and invested amount to the portfolio totals.
+     * Unlike {@link #recalculatePortfolioMetrics(Long)} this does not load the other assets,
+     * so the cost of an asset change does not grow with the size of the portfolio.
+     */
+    public Portfolio applyAssetDelta(Long portfolioId, BigDecimal valueDelta, BigDecimal investmentDelta) {
+        Portfolio portfolio = portfolioRepository.findById(portfolioId)
+                .orElseThrow(() -> new RuntimeException("Portfolio not found"));
+        // The caller may have loaded the portfolio before another writer committed, and a locking
+        // query would hand back that managed copy unchanged: re-read the totals under the row lock.
+        // Pending asset changes are flushed first so the refresh cannot overwrite them.
+        entityManager.flush();
+        entityManager.refresh(portfolio, LockModeType.PESSIMISTIC_WRITE);
+
+        portfolio.applyDelta(valueDelta, investmentDelta);
+        Portfolio savedPortfolio = portfolioRepository.save(portfolio);
+
+        savePortfolioSnapshot(savedPortfolio);
+
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId, false));
+
+        return savedPortfolio;
+    }
+
+    /**
+     * Recompute portfolio metrics from its assets and correct the stored totals if they drifted
+     *
+     * @return true if the stored totals had to be corrected
+     */
+    public boolean reconcilePortfolioMetrics(Long portfolioId) {
+        Portfolio portfolio = portfolioRepository.findByIdWithAssets(portfolioId).orElse(null);
+        if (portfolio == null) {
+            return false;
+        }
+        BigDecimal storedValue = portfolio.getTotalValue();
+        BigDecimal storedInvestment = portfolio.getTotalInvestment();
+
+        portfolio.getAssets().forEach(Asset::calculateMetrics);
+        portfolio.recalculateMetrics();
+
+        if (storedValue.compareTo(portfolio.getTotalValue()) == 0
+                && storedInvestment.compareTo(portfolio.getTotalInvestment()) == 0) {
+            return false;
+        }
+        log.warn("Portfolio {} totals drifted (value {} -> {}, investment {} -> {}), corrected",
+                portfolioId, storedValue, portfolio.getTotalValue(), storedInvestment, portfolio.getTotalInvestment());
+        portfolioRepository.save(portfolio);
+        eventPublisher.publishEvent(new PortfolioChangedEvent(portfolioId, false));
+        return true;
+    }
+
+    /**
+     * Collapse days with several snapshots of the same portfolio into their latest snapshot
+     *
+     * @return number of snapshots deleted
+     */
+    public int compactPortfolioHistory() {
+        int deleted = 0;
+        for (Object[] duplicate : portfolioHistoryRepository.findDuplicateSnapshots()) {
+            deleted += portfolioHistoryRepository.deleteDuplicateSnapshots(
+                    (Long) duplicate[0], (LocalDate) duplicate[1], (Long) duplicate[2]);
+        }
+        return deleted;
+    }
+
+    /**
+     * Save portfolio snapshot for history tracking, updating today's row in place if it exists
      */
     private void savePortfolioSnapshot(Portfolio portfolio) {
-        PortfolioHistory history = new PortfolioHistory();
-        history.setPortfolio(portfolio);
-        history.setRecordDate(LocalDate.now());
+        // Lock the portfolio row so concurrent writers cannot both insert today's snapshot
+        portfolioRepository.findByIdForUpdate(portfolio.getId());
+
+        LocalDate today = LocalDate.now();
+        PortfolioHistory history = portfolioHistoryRepository
+                .findByPortfolioIdAndRecordDate(portfolio.getId(), today)
+                .orElseGet(() -> {
+                    PortfolioHistory snapshot = new PortfolioHistory();
+                    snapshot.setPortfolio(portfolio);
+                    snapshot.setRecordDate(today);
+                    return snapshot;
+                });
+        // A recorded snapshot replaces a backfilled one for the same day
+        history.setSynthetic(false);
         history.setTotalValue(portfolio.getTotalValue());
         history.setTotalInvestment(portfolio.getTotalInvestment());
         history.setGainLoss(portfolio.getTotalGainLoss());
         history.setGainLossPercentage(portfolio.getGainLossPercentage());
 
         portfolioHistoryRepository.save(history);
+
+        historyRollupService.record(portfolio.getId(), today, portfolio.getTotalValue(), portfolio.getTotalInvestment());
     }
 
     /**
@@ -209,33 +374,40 @@ public class PortfolioService {
         LocalDate endDate = LocalDate.now();
         LocalDate startDate = endDate.minusDays(30);
 
-        List<PortfolioHistory> history = portfolioHistoryRepository
+        List<PortfolioHistory> history = new ArrayList<>(portfolioHistoryRepository
                 .findByPortfolioIdAndRecordDateBetweenOrderByRecordDateAsc(
-                        portfolio.getId(), startDate, endDate);
+                        portfolio.getId(), startDate, endDate));
+
+        // Holdings older than the first snapshot: fill in those days once, as real history rows
+        Optional<LocalDate> earliestPurchase = portfolio.getAssets().stream()
+                .filter(a -> !a.getIsWishlist() && a.getPurchaseDate() != null)
+                .map(Asset::getPurchaseDate)
+                .min(LocalDate::compareTo);
+        // Only days the backfill would actually write count as a gap, so a portfolio whose holdings
+        // predate max-days does not trigger a backfill on every request
+        LocalDate backfillFrom = earliestPurchase
+                .map(purchase -> historyBackfillService.backfillStart(purchase, endDate))
+                .orElse(null);
+        // Same first snapshot the backfill stops at, which may be older than the chart window
+        if (backfillFrom != null && portfolioHistoryRepository.findFirstByPortfolioIdOrderByRecordDateAsc(portfolio.getId())
+                .map(firstRecorded -> backfillFrom.isBefore(firstRecorded.getRecordDate()))
+                .orElse(true)) {
+            historyBackfillService.backfill(portfolio.getId()).stream()
+                    .filter(h -> !h.getRecordDate().isBefore(startDate))
+                    .forEach(history::add);
+            history.sort(Comparator.comparing(PortfolioHistory::getRecordDate));
+        }
 
         PerformanceDataDTO performanceData = new PerformanceDataDTO();
 
         if (history.isEmpty()) {
-            // Generate sample data for the last 7 days if no history exists
-            List<String> dates = new ArrayList<>();
-            List<BigDecimal> values = new ArrayList<>();
-
-            BigDecimal baseValue = portfolio.getTotalValue();
-            for (int i = 6; i >= 0; i--) {
-                LocalDate date = LocalDate.now().minusDays(i);
-                dates.add(date.format(java.time.format.DateTimeFormatter.ofPattern("MMM dd")));
-
-                // Simulate slight variations (±2% from current value)
-                double variance = 0.98 + (Math.random() * 0.04);
-                values.add(baseValue.multiply(BigDecimal.valueOf(variance)));
-            }
-
-            performanceData.setDates(dates);
-            performanceData.setValues(values);
+            // Nothing held yet: a single point with the current value
+            performanceData.setDates(List.of(endDate.format(CHART_DATE_FORMAT)));
+            performanceData.setValues(List.of(portfolio.getTotalValue()));
         } else {
             performanceData.setDates(
                     history.stream()
-                            .map(h -> h.getRecordDate().format(java.time.format.DateTimeFormatter.ofPattern("MMM dd")))
+                            .map(h -> h.getRecordDate().format(CHART_DATE_FORMAT))
                             .collect(Collectors.toList()));
             performanceData.setValues(
                     history.stream()
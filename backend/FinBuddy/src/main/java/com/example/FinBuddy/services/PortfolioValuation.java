@@ -0,0 +1,188 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.entities.Asset;
+import com.example.FinBuddy.entities.Portfolio;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * In-memory valuation of one portfolio, built from the inputs of {@link Portfolio#recalculateMetrics()}
+ * (quantity, invested amount and current price of every asset).
+ * A price move only revalues the assets holding that symbol, and {@link #drainChanges()} reports
+ * just the fields that differ from what was last reported to clients.
+ */
+class PortfolioValuation {
+
+    private final Long portfolioId;
+    private final Map<Long, Position> positions = new LinkedHashMap<>();
+    private BigDecimal totalValue = BigDecimal.ZERO;
+    private BigDecimal totalInvestment = BigDecimal.ZERO;
+
+    // Values clients have already been sent
+    private BigDecimal reportedTotalValue;
+    private BigDecimal reportedTotalGainLoss;
+
+    PortfolioValuation(Portfolio portfolio) {
+        this.portfolioId = portfolio.getId();
+        this.reportedTotalValue = portfolio.getTotalValue();
+        this.reportedTotalGainLoss = portfolio.getTotalGainLoss();
+        load(portfolio.getAssets());
+    }
+
+    /**
+     * Replace the holdings after the portfolio changed, keeping what clients were last sent
+     */
+    synchronized void reload(Portfolio portfolio) {
+        load(portfolio.getAssets());
+    }
+
+    private void load(Collection<Asset> assets) {
+        positions.clear();
+        totalValue = BigDecimal.ZERO;
+        totalInvestment = BigDecimal.ZERO;
+        for (Asset asset : assets) {
+            Position position = new Position(asset);
+            positions.put(asset.getId(), position);
+            totalValue = totalValue.add(position.currentValue);
+            totalInvestment = totalInvestment.add(position.investedAmount);
+        }
+    }
+
+    /**
+     * Revalue the positions in a symbol; the total is adjusted by the difference only
+     *
+     * @return true if any position held the symbol
+     */
+    synchronized boolean applyPrice(String symbol, BigDecimal price) {
+        boolean held = false;
+        for (Position position : positions.values()) {
+            if (position.symbol.equalsIgnoreCase(symbol)) {
+                BigDecimal previousValue = position.currentValue;
+                position.reprice(price);
+                totalValue = totalValue.add(position.currentValue.subtract(previousValue));
+                held = true;
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Fields changed since the last call, or null if nothing the client shows has changed
+     */
+    synchronized Map<String, Object> drainChanges() {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        BigDecimal totalGainLoss = totalValue.subtract(totalInvestment);
+        if (differs(reportedTotalValue, totalValue)) {
+            changes.put("totalValue", totalValue);
+            reportedTotalValue = totalValue;
+        }
+        if (differs(reportedTotalGainLoss, totalGainLoss)) {
+            changes.put("totalGainLoss", totalGainLoss);
+            reportedTotalGainLoss = totalGainLoss;
+        }
+
+        List<Map<String, Object>> assetChanges = new ArrayList<>();
+        for (Position position : positions.values()) {
+            Map<String, Object> assetChange = new LinkedHashMap<>();
+            if (differs(position.reportedCurrentValue, position.currentValue)) {
+                assetChange.put("currentValue", position.currentValue);
+                position.reportedCurrentValue = position.currentValue;
+            }
+            if (differs(position.reportedGainLossPercentage, position.gainLossPercentage)) {
+                assetChange.put("gainLossPercentage", position.gainLossPercentage);
+                position.reportedGainLossPercentage = position.gainLossPercentage;
+            }
+            if (!assetChange.isEmpty()) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("id", position.assetId);
+                entry.putAll(assetChange);
+                assetChanges.add(entry);
+            }
+        }
+        if (!assetChanges.isEmpty()) {
+            changes.put("assets", assetChanges);
+        }
+        if (changes.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("portfolioId", portfolioId);
+        delta.putAll(changes);
+        delta.put("timestamp", System.currentTimeMillis());
+        return delta;
+    }
+
+    /**
+     * Every field clients show, for a new subscriber that has not been sent anything yet.
+     * Does not change what {@link #drainChanges()} reports to the existing ones.
+     */
+    synchronized Map<String, Object> snapshot() {
+        List<Map<String, Object>> assets = new ArrayList<>();
+        for (Position position : positions.values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", position.assetId);
+            entry.put("currentValue", position.currentValue);
+            entry.put("gainLossPercentage", position.gainLossPercentage);
+            assets.add(entry);
+        }
+        Map<String, Object> valuation = new LinkedHashMap<>();
+        valuation.put("portfolioId", portfolioId);
+        valuation.put("totalValue", totalValue);
+        valuation.put("totalGainLoss", totalValue.subtract(totalInvestment));
+        valuation.put("assets", assets);
+        valuation.put("timestamp", System.currentTimeMillis());
+        return valuation;
+    }
+
+    synchronized Set<String> getSymbols() {
+        Set<String> symbols = new TreeSet<>();
+        positions.values().forEach(position -> symbols.add(position.symbol.toUpperCase()));
+        return symbols;
+    }
+
+    private static boolean differs(BigDecimal reported, BigDecimal current) {
+        return reported == null || current == null ? reported != current : reported.compareTo(current) != 0;
+    }
+
+    /**
+     * One asset's valuation inputs, revalued with the same arithmetic as {@link Asset#calculateMetrics()}
+     */
+    private static class Position {
+
+        private final Long assetId;
+        private final String symbol;
+        private final BigDecimal quantity;
+        private final BigDecimal investedAmount;
+        private BigDecimal currentValue;
+        private BigDecimal gainLossPercentage;
+        private BigDecimal reportedCurrentValue;
+        private BigDecimal reportedGainLossPercentage;
+
+        Position(Asset asset) {
+            this.assetId = asset.getId();
+            this.symbol = asset.getSymbol();
+            this.quantity = new BigDecimal(asset.getQuantity());
+            this.investedAmount = asset.getPurchasePrice().multiply(quantity);
+            this.reportedCurrentValue = asset.getCurrentValue();
+            this.reportedGainLossPercentage = asset.getGainLossPercentage();
+            reprice(asset.getCurrentPrice());
+        }
+
+        void reprice(BigDecimal price) {
+            currentValue = price.multiply(quantity);
+            BigDecimal gainLoss = currentValue.subtract(investedAmount);
+            gainLossPercentage = investedAmount.compareTo(BigDecimal.ZERO) > 0
+                    ? gainLoss.divide(investedAmount, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"))
+                    : BigDecimal.ZERO;
+        }
+    }
+}
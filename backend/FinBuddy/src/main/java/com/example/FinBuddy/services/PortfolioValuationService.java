@@ -0,0 +1,268 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.entities.Portfolio;
+import com.example.FinBuddy.events.PortfolioChangedEvent;
+import com.example.FinBuddy.marketdata.CachedPrice;
+import com.example.FinBuddy.marketdata.PriceCache;
+import com.example.FinBuddy.marketdata.PriceUpdateListener;
+import com.example.FinBuddy.repositories.PortfolioRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pushes portfolio valuation deltas over STOMP to /topic/portfolios/{id}/valuation.
+ * While a portfolio has subscribers its holdings are kept in memory; every cached price move
+ * of a held symbol revalues it without touching the database, and only the fields that changed
+ * (totalValue, totalGainLoss, per-asset currentValue and gainLossPercentage) are sent.
+ * Each new subscription is first sent the full current valuation on its own, so it never
+ * starts from the stored totals of the REST dashboard.
+ */
+@Service
+@Slf4j
+public class PortfolioValuationService {
+
+    private static final Pattern VALUATION_TOPIC = Pattern.compile("^/topic/portfolios/(\\d+)/valuation$");
+
+    private final PortfolioRepository portfolioRepository;
+    private final PriceCache priceCache;
+    private final SimpMessagingTemplate messagingTemplate;
+    // Writes straight to one client session, bypassing the broker
+    private final SimpMessagingTemplate sessionTemplate;
+    private final PriceUpdateListener priceListener = this::onPriceUpdate;
+
+    private final Map<Long, PortfolioValuation> valuations = new ConcurrentHashMap<>();
+    // symbol (upper case) -> portfolios holding it
+    private final Map<String, Set<Long>> portfoliosBySymbol = new ConcurrentHashMap<>();
+    // portfolio -> "sessionId/subscriptionId" of its subscribers
+    private final Map<Long, Set<String>> subscribers = new ConcurrentHashMap<>();
+
+    public PortfolioValuationService(
+            PortfolioRepository portfolioRepository,
+            PriceCache priceCache,
+            SimpMessagingTemplate messagingTemplate,
+            @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+        this.portfolioRepository = portfolioRepository;
+        this.priceCache = priceCache;
+        this.messagingTemplate = messagingTemplate;
+        this.sessionTemplate = new SimpMessagingTemplate(clientOutboundChannel);
+        this.sessionTemplate.setMessageConverter(messagingTemplate.getMessageConverter());
+    }
+
+    @PostConstruct
+    void registerPriceListener() {
+        priceCache.addListener(priceListener);
+    }
+
+    @PreDestroy
+    void unregisterPriceListener() {
+        priceCache.removeListener(priceListener);
+    }
+
+    /**
+     * Revalue every tracked portfolio holding the symbol and push what changed
+     */
+    public void onPriceUpdate(String symbol, BigDecimal price) {
+        Set<Long> portfolioIds = portfoliosBySymbol.get(symbol.toUpperCase());
+        if (portfolioIds == null) {
+            return;
+        }
+        for (Long portfolioId : portfolioIds) {
+            PortfolioValuation valuation = valuations.get(portfolioId);
+            if (valuation != null && valuation.applyPrice(symbol, price)) {
+                push(portfolioId, valuation);
+            }
+        }
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        Long portfolioId = parsePortfolioId(headers.getDestination());
+        if (portfolioId == null) {
+            return;
+        }
+        String key = subscriberKey(headers.getSessionId(), headers.getSubscriptionId());
+        // Added inside compute so removing the last subscriber cannot drop the set we are adding to
+        subscribers.compute(portfolioId, (id, keys) -> {
+            Set<String> target = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            target.add(key);
+            return target;
+        });
+        if (!valuations.containsKey(portfolioId)) {
+            track(portfolioId);
+        }
+        PortfolioValuation valuation = valuations.get(portfolioId);
+        if (valuation != null) {
+            sendSnapshot(headers, valuation);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(event.getMessage());
+        removeSubscriber(subscriberKey(headers.getSessionId(), headers.getSubscriptionId()));
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        removeSubscriber(event.getSessionId() + "/");
+    }
+
+    /**
+     * Holdings changed: reload the tracked valuation and push the resulting differences
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPortfolioChanged(PortfolioChangedEvent event) {
+        Long portfolioId = event.getPortfolioId();
+        PortfolioValuation valuation = valuations.get(portfolioId);
+        if (valuation == null) {
+            return;
+        }
+        if (event.isDeleted()) {
+            untrack(portfolioId);
+            return;
+        }
+        Optional<Portfolio> portfolio = portfolioRepository.findByIdWithAssets(portfolioId);
+        if (portfolio.isEmpty()) {
+            untrack(portfolioId);
+            return;
+        }
+        unindex(portfolioId, valuation);
+        valuation.reload(portfolio.get());
+        applyCachedPrices(valuation);
+        index(portfolioId, valuation);
+        push(portfolioId, valuation);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("trackedPortfolios", valuations.size());
+        stats.put("trackedSymbols", portfoliosBySymbol.size());
+        stats.put("subscriptions", subscribers.values().stream().mapToInt(Set::size).sum());
+        return stats;
+    }
+
+    private void track(Long portfolioId) {
+        Optional<Portfolio> portfolio = portfolioRepository.findByIdWithAssets(portfolioId);
+        if (portfolio.isEmpty()) {
+            log.debug("Valuation subscription for unknown portfolio {}", portfolioId);
+            return;
+        }
+        PortfolioValuation valuation = new PortfolioValuation(portfolio.get());
+        if (valuations.putIfAbsent(portfolioId, valuation) != null) {
+            return;
+        }
+        // Stored metrics may predate the latest cached prices
+        applyCachedPrices(valuation);
+        index(portfolioId, valuation);
+        push(portfolioId, valuation);
+        log.debug("Tracking valuation of portfolio {} ({} symbols)", portfolioId, valuation.getSymbols().size());
+    }
+
+    private void untrack(Long portfolioId) {
+        subscribers.remove(portfolioId);
+        removeValuation(portfolioId);
+    }
+
+    private void removeValuation(Long portfolioId) {
+        PortfolioValuation valuation = valuations.remove(portfolioId);
+        if (valuation != null) {
+            unindex(portfolioId, valuation);
+        }
+    }
+
+    private void removeSubscriber(String keyOrSessionPrefix) {
+        for (Long portfolioId : subscribers.keySet()) {
+            // The last subscriber and the valuation go together, before a new subscriber can be added
+            subscribers.computeIfPresent(portfolioId, (id, keys) -> {
+                keys.removeIf(key -> key.equals(keyOrSessionPrefix)
+                        || (keyOrSessionPrefix.endsWith("/") && key.startsWith(keyOrSessionPrefix)));
+                if (keys.isEmpty()) {
+                    removeValuation(id);
+                    return null;
+                }
+                return keys;
+            });
+        }
+    }
+
+    private void applyCachedPrices(PortfolioValuation valuation) {
+        for (String symbol : valuation.getSymbols()) {
+            CachedPrice cached = priceCache.peekServable(symbol);
+            if (cached != null) {
+                valuation.applyPrice(symbol, cached.getPrice());
+            }
+        }
+    }
+
+    private void index(Long portfolioId, PortfolioValuation valuation) {
+        for (String symbol : valuation.getSymbols()) {
+            portfoliosBySymbol.compute(symbol, (key, ids) -> {
+                Set<Long> target = ids != null ? ids : ConcurrentHashMap.newKeySet();
+                target.add(portfolioId);
+                return target;
+            });
+        }
+    }
+
+    private void unindex(Long portfolioId, PortfolioValuation valuation) {
+        for (String symbol : valuation.getSymbols()) {
+            portfoliosBySymbol.computeIfPresent(symbol, (key, ids) -> {
+                ids.remove(portfolioId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private void push(Long portfolioId, PortfolioValuation valuation) {
+        Map<String, Object> delta = valuation.drainChanges();
+        if (delta != null) {
+            messagingTemplate.convertAndSend("/topic/portfolios/" + portfolioId + "/valuation", delta);
+        }
+    }
+
+    /**
+     * Full valuation to the one subscription that was just opened, as a reply to its SUBSCRIBE
+     */
+    private void sendSnapshot(StompHeaderAccessor subscribe, PortfolioValuation valuation) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(subscribe.getSessionId());
+        headers.setSubscriptionId(subscribe.getSubscriptionId());
+        headers.setLeaveMutable(true);
+        sessionTemplate.convertAndSend(subscribe.getDestination(), valuation.snapshot(), headers.getMessageHeaders());
+    }
+
+    private static Long parsePortfolioId(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        Matcher matcher = VALUATION_TOPIC.matcher(destination);
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+
+    private static String subscriberKey(String sessionId, String subscriptionId) {
+        return sessionId + "/" + subscriptionId;
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.marketdata.CachedPrice;
+import com.example.FinBuddy.marketdata.CallPriority;
+import com.example.FinBuddy.repositories.AssetRepository;
+import com.example.FinBuddy.repositories.BenchmarkRepository;
+import com.example.FinBuddy.repositories.WishlistRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the price cache warm for every symbol the application shows: held assets,
+ * wishlist items, benchmarks and symbols open in a price stream. Quotes that would expire before the next run are
+ * refreshed in provider batches at background priority, so user requests find a fresh
+ * quote and never compete with the refresher for API quota. Symbols no provider could quote
+ * are left alone for the failure backoff, so they do not take the head of every run.
+ */
+@Service
+@Slf4j
+public class PriceRefreshService {
+
+    private final AssetRepository assetRepository;
+    private final WishlistRepository wishlistRepository;
+    private final BenchmarkRepository benchmarkRepository;
+    private final StockPriceService stockPriceService;
+    private final PriceStreamService priceStreamService;
+    private final boolean enabled;
+    private final long leadTimeMs;
+    private final int batchSize;
+    private final int maxPerRun;
+    private final long failureBackoffMs;
+
+    // Symbols whose last refresh got no quote, with the time they may be retried
+    private final Map<String, Long> unquotableUntil = new ConcurrentHashMap<>();
+
+    public PriceRefreshService(
+            AssetRepository assetRepository,
+            WishlistRepository wishlistRepository,
+            BenchmarkRepository benchmarkRepository,
+            StockPriceService stockPriceService,
+            PriceStreamService priceStreamService,
+            @Value("${market.refresh.enabled:true}") boolean enabled,
+            @Value("${market.refresh.lead-time-ms:90000}") long leadTimeMs,
+            @Value("${market.refresh.batch-size:10}") int batchSize,
+            @Value("${market.refresh.max-per-run:40}") int maxPerRun,
+            @Value("${market.refresh.failure-backoff-ms:900000}") long failureBackoffMs) {
+        this.assetRepository = assetRepository;
+        this.wishlistRepository = wishlistRepository;
+        this.benchmarkRepository = benchmarkRepository;
+        this.stockPriceService = stockPriceService;
+        this.priceStreamService = priceStreamService;
+        this.enabled = enabled;
+        this.leadTimeMs = leadTimeMs;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxPerRun = maxPerRun;
+        this.failureBackoffMs = failureBackoffMs;
+    }
+
+    /**
+     * Refresh the quotes that are missing or expire within the lead time.
+     * Runs with a fixed delay so a slow run (waiting on quota) never overlaps the next one.
+     */
+    @Scheduled(fixedDelayString = "${market.refresh.interval-ms:60000}",
+            initialDelayString = "${market.refresh.initial-delay-ms:30000}")
+    public void refreshTrackedSymbols() {
+        if (!enabled || !stockPriceService.isLiveDataAvailable()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        Set<String> symbols = collectTrackedSymbols();
+        unquotableUntil.keySet().retainAll(symbols);
+        List<String> due = symbols.stream()
+                .filter(symbol -> !isBackingOff(symbol, start))
+                .filter(symbol -> remainingTtlMs(symbol) < leadTimeMs)
+                // Missing and soonest-expiring quotes first, in case the run is capped
+                .sorted(Comparator.comparingLong(this::remainingTtlMs))
+                .limit(maxPerRun)
+                .collect(Collectors.toList());
+        if (due.isEmpty()) {
+            log.debug("Price refresh: all {} tracked symbols are fresh", symbols.size());
+            return;
+        }
+
+        int refreshed = 0;
+        for (int i = 0; i < due.size(); i += batchSize) {
+            List<String> batch = due.subList(i, Math.min(i + batchSize, due.size()));
+            long batchStart = System.currentTimeMillis();
+            refreshed += stockPriceService.refreshPrices(batch, CallPriority.BACKGROUND);
+            recordUnquotable(batch, batchStart);
+        }
+        log.info("Price refresh: {}/{} due quotes refreshed ({} tracked symbols) in {}ms",
+                refreshed, due.size(), symbols.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Distinct symbols across assets, wishlist items, benchmarks (as ticker symbols) and open
+     * price streams
+     */
+    Set<String> collectTrackedSymbols() {
+        Set<String> symbols = new LinkedHashSet<>();
+        addAll(symbols, assetRepository.findDistinctSymbols());
+        addAll(symbols, wishlistRepository.findDistinctSymbols());
+        List<String> benchmarks = new ArrayList<>();
+        for (String benchmark : benchmarkRepository.findDistinctSymbols()) {
+            if (benchmark != null) {
+                benchmarks.add(stockPriceService.resolveBenchmarkSymbol(benchmark));
+            }
+        }
+        addAll(symbols, benchmarks);
+        addAll(symbols, new ArrayList<>(priceStreamService.getSubscribedSymbols()));
+        return symbols;
+    }
+
+    private static void addAll(Set<String> symbols, List<String> source) {
+        for (String symbol : source) {
+            if (symbol != null && !symbol.isBlank()) {
+                symbols.add(symbol.trim());
+            }
+        }
+    }
+
+    /**
+     * Back off the symbols of a batch that still have no quote fetched since it started
+     */
+    private void recordUnquotable(List<String> batch, long batchStart) {
+        for (String symbol : batch) {
+            CachedPrice cached = stockPriceService.getCachedQuote(symbol);
+            if (cached == null || cached.isMock() || cached.getTimestamp() < batchStart) {
+                unquotableUntil.put(symbol, batchStart + failureBackoffMs);
+            } else {
+                unquotableUntil.remove(symbol);
+            }
+        }
+    }
+
+    private boolean isBackingOff(String symbol, long now) {
+        Long retryAt = unquotableUntil.get(symbol);
+        return retryAt != null && retryAt > now;
+    }
+
+    private long remainingTtlMs(String symbol) {
+        CachedPrice cached = stockPriceService.getCachedQuote(symbol);
+        return cached == null ? Long.MIN_VALUE : cached.getTtlMs() - cached.getAgeMs();
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.exceptions.InvalidRequestException;
+import com.example.FinBuddy.marketdata.PriceCache;
+import com.example.FinBuddy.marketdata.PriceUpdateListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live price stream over Server-Sent Events.
+ * Every price move the {@link PriceCache} sees (fetched by user requests or by the background
+ * {@link PriceRefreshService}, which also keeps subscribed symbols warm) fans out to all
+ * subscribers of that symbol, so open streams never call a provider themselves. Each subscriber keeps only the latest pending price per symbol, so a
+ * client that reads slowly gets fewer, newer updates; one that stays behind longer than
+ * slow-consumer-ms is disconnected and can reconnect.
+ */
+@Service
+@Slf4j
+public class PriceStreamService {
+
+    private final StockPriceService stockPriceService;
+    private final PriceCache priceCache;
+    private final PriceUpdateListener priceListener = this::onPriceUpdate;
+    private final int maxSymbolsPerStream;
+    private final long emitterTimeoutMs;
+    private final long slowConsumerMs;
+
+    // symbol -> subscriptions receiving its ticks
+    private final Map<String, Set<PriceSubscription>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, BigDecimal> lastPublished = new ConcurrentHashMap<>();
+    private final Set<PriceSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    // Writes to the emitters, off the polling thread
+    private final ExecutorService sender;
+    private final AtomicLong ticksPublished = new AtomicLong();
+    private final AtomicLong eventsSent = new AtomicLong();
+    private final AtomicLong eventsConflated = new AtomicLong();
+    private final AtomicLong slowConsumersDropped = new AtomicLong();
+
+    public PriceStreamService(
+            StockPriceService stockPriceService,
+            PriceCache priceCache,
+            @Value("${market.stream.max-symbols:50}") int maxSymbolsPerStream,
+            @Value("${market.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${market.stream.slow-consumer-ms:30000}") long slowConsumerMs,
+            @Value("${market.stream.sender-threads:4}") int senderThreads) {
+        this.stockPriceService = stockPriceService;
+        this.priceCache = priceCache;
+        this.maxSymbolsPerStream = maxSymbolsPerStream;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.slowConsumerMs = slowConsumerMs;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "price-stream-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void registerPriceListener() {
+        priceCache.addListener(priceListener);
+    }
+
+    /**
+     * Open a stream for the given symbols; the current prices are sent right away
+     */
+    public SseEmitter subscribe(Collection<String> requestedSymbols) {
+        Set<String> symbols = new LinkedHashSet<>();
+        for (String symbol : requestedSymbols) {
+            if (symbol != null && !symbol.isBlank()) {
+                symbols.add(symbol.trim().toUpperCase());
+            }
+        }
+        if (symbols.isEmpty()) {
+            throw new InvalidRequestException("At least one symbol is required");
+        }
+        if (symbols.size() > maxSymbolsPerStream) {
+            throw new InvalidRequestException("At most " + maxSymbolsPerStream + " symbols can be streamed at once");
+        }
+
+        SseEmitter emitter = newEmitter();
+        PriceSubscription subscription = new PriceSubscription(emitter, symbols);
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(error -> unsubscribe(subscription));
+
+        subscriptions.add(subscription);
+        for (String symbol : symbols) {
+            // Added inside compute so a concurrent unsubscribe cannot drop the set we are adding to
+            subscribers.compute(symbol, (key, set) -> {
+                Set<PriceSubscription> targets = set != null ? set : ConcurrentHashMap.newKeySet();
+                targets.add(subscription);
+                return targets;
+            });
+        }
+        log.debug("Price stream opened for {} ({} streams open)", symbols, subscriptions.size());
+
+        // Initial snapshot so the client does not wait for the next change
+        sender.execute(() -> {
+            Map<String, BigDecimal> prices = stockPriceService.getBatchPrices(new ArrayList<>(symbols));
+            prices.forEach((symbol, price) -> {
+                lastPublished.putIfAbsent(symbol, price);
+                subscription.offer(symbol, toEvent(symbol, price));
+            });
+        });
+        return emitter;
+    }
+
+    /**
+     * A cached price moved: publish it to the symbol's streams
+     */
+    public void onPriceUpdate(String symbol, BigDecimal price) {
+        publish(symbol.toUpperCase(), price);
+    }
+
+    /**
+     * Symbols at least one open stream is subscribed to
+     */
+    public Set<String> getSubscribedSymbols() {
+        return Collections.unmodifiableSet(subscribers.keySet());
+    }
+
+    /**
+     * Fan a price out to the symbol's subscribers if it differs from the last one published
+     */
+    public void publish(String symbol, BigDecimal price) {
+        Set<PriceSubscription> targets = subscribers.get(symbol);
+        if (targets == null || targets.isEmpty() || price == null) {
+            return;
+        }
+        BigDecimal previous = lastPublished.put(symbol, price);
+        if (previous != null && previous.compareTo(price) == 0) {
+            return;
+        }
+        ticksPublished.incrementAndGet();
+        Map<String, Object> event = toEvent(symbol, price);
+        for (PriceSubscription subscription : targets) {
+            subscription.offer(symbol, event);
+        }
+    }
+
+    /**
+     * Comment line that keeps idle connections open and detects clients that went away
+     */
+    @Scheduled(fixedRateString = "${market.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        for (PriceSubscription subscription : subscriptions) {
+            sender.execute(subscription::heartbeat);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("openStreams", subscriptions.size());
+        stats.put("subscribedSymbols", subscribers.size());
+        stats.put("ticksPublished", ticksPublished.get());
+        stats.put("eventsSent", eventsSent.get());
+        stats.put("eventsConflated", eventsConflated.get());
+        stats.put("slowConsumersDropped", slowConsumersDropped.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        priceCache.removeListener(priceListener);
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+        sender.shutdownNow();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(emitterTimeoutMs);
+    }
+
+    private Map<String, Object> toEvent(String symbol, BigDecimal price) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("symbol", symbol);
+        event.put("price", price);
+        event.put("timestamp", System.currentTimeMillis());
+        return event;
+    }
+
+    private void unsubscribe(PriceSubscription subscription) {
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+        for (String symbol : subscription.symbols) {
+            subscribers.computeIfPresent(symbol, (key, set) -> {
+                set.remove(subscription);
+                if (set.isEmpty()) {
+                    lastPublished.remove(key);
+                    return null;
+                }
+                return set;
+            });
+        }
+        log.debug("Price stream closed for {} ({} streams open)", subscription.symbols, subscriptions.size());
+    }
+
+    /**
+     * One client's stream: pending prices (latest per symbol) and the emitter they are written to
+     */
+    private class PriceSubscription {
+
+        private final SseEmitter emitter;
+        private final Set<String> symbols;
+        private final Map<String, Map<String, Object>> pending = new LinkedHashMap<>();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+        private long pendingSince;
+        private volatile boolean closed;
+
+        PriceSubscription(SseEmitter emitter, Set<String> symbols) {
+            this.emitter = emitter;
+            this.symbols = symbols;
+        }
+
+        void offer(String symbol, Map<String, Object> event) {
+            if (closed) {
+                return;
+            }
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                if (pending.isEmpty()) {
+                    pendingSince = now;
+                } else if (now - pendingSince > slowConsumerMs) {
+                    dropAsSlow();
+                    return;
+                }
+                if (pending.put(symbol, event) != null) {
+                    eventsConflated.incrementAndGet();
+                }
+            }
+            if (flushScheduled.compareAndSet(false, true)) {
+                sender.execute(this::flush);
+            }
+        }
+
+        private void flush() {
+            try {
+                while (!closed) {
+                    List<Map<String, Object>> batch;
+                    synchronized (this) {
+                        if (pending.isEmpty()) {
+                            return;
+                        }
+                        batch = new ArrayList<>(pending.values());
+                        pending.clear();
+                        pendingSince = System.currentTimeMillis();
+                    }
+                    for (Map<String, Object> event : batch) {
+                        emitter.send(SseEmitter.event().name("price").data(event));
+                        eventsSent.incrementAndGet();
+                    }
+                }
+            } catch (Exception e) {
+                close(e);
+            } finally {
+                flushScheduled.set(false);
+                // An offer may have arrived after the last drain but before the flag was reset
+                boolean more;
+                synchronized (this) {
+                    more = !pending.isEmpty();
+                }
+                if (more && !closed && flushScheduled.compareAndSet(false, true)) {
+                    sender.execute(this::flush);
+                }
+            }
+        }
+
+        void heartbeat() {
+            if (closed) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (Exception e) {
+                close(e);
+            }
+        }
+
+        private void dropAsSlow() {
+            slowConsumersDropped.incrementAndGet();
+            log.warn("Dropping slow price stream consumer for {} (behind for over {}ms)", symbols, slowConsumerMs);
+            close(null);
+        }
+
+        private void close(Exception error) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            synchronized (this) {
+                pending.clear();
+            }
+            if (error != null) {
+                log.debug("Price stream for {} failed: {}", symbols, error.getMessage());
+                emitter.completeWithError(error);
+            } else {
+                emitter.complete();
+            }
+            unsubscribe(this);
+        }
+    }
+}
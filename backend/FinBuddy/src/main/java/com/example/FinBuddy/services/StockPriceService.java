@@ -1,207 +1,260 @@
 package com.example.FinBuddy.services;
 
+import com.example.FinBuddy.marketdata.BatchQuoteEngine;
+import com.example.FinBuddy.marketdata.BatchResult;
+import com.example.FinBuddy.marketdata.CachedPrice;
+import com.example.FinBuddy.marketdata.CallPriority;
+import com.example.FinBuddy.marketdata.CircuitBreakerRegistry;
+import com.example.FinBuddy.marketdata.Instrument;
+import com.example.FinBuddy.marketdata.InstrumentCatalog;
+import com.example.FinBuddy.marketdata.PriceBar;
+import com.example.FinBuddy.marketdata.PriceCache;
+import com.example.FinBuddy.marketdata.PriceHistoryStore;
+import com.example.FinBuddy.marketdata.PriceSeries;
+import com.example.FinBuddy.marketdata.PriceSlice;
+import com.example.FinBuddy.marketdata.QuotaScheduler;
+import com.example.FinBuddy.marketdata.RevalidationExecutor;
+import com.example.FinBuddy.marketdata.SearchHit;
+import com.example.FinBuddy.marketdata.SingleFlight;
+import com.example.FinBuddy.marketdata.provider.AlphaVantageProvider;
+import com.example.FinBuddy.marketdata.provider.FinnhubProvider;
+import com.example.FinBuddy.marketdata.provider.MarketDataProviderChain;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
-import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Service for fetching real-time stock prices from Finnhub API
- * Free API: https://finnhub.io (60 calls/minute)
- * Alternative APIs: Alpha Vantage, Twelve Data, Yahoo Finance
+ * Service for fetching real-time stock prices through the market data provider chain
+ * (Finnhub, then Alpha Vantage), with mock prices as the last resort
+ * Alternative APIs: Twelve Data, Yahoo Finance
  */
 @Service
 @Slf4j
 public class StockPriceService {
 
-    private final WebClient finnhubClient;
-    private final WebClient alphaVantageClient;
-    private final String apiKey;
-    private final String alphaVantageKey;
-    private final boolean apiEnabled;
+    // Finnhub, then Alpha Vantage (or recorded quotes when replay is enabled)
+    private final MarketDataProviderChain providerChain;
 
-    // Cache to reduce API calls (5-minute cache)
-    private final Map<String, CachedPrice> priceCache = new ConcurrentHashMap<>();
-    private static final long CACHE_DURATION_MS = 5 * 60 * 1000; // 5 minutes
+    // Bounded cache to reduce API calls (5-minute TTL for live quotes, served stale for up to 15 more)
+    private final PriceCache priceCache;
+
+    // Refreshes stale quotes in the background while the stale value is served
+    private final RevalidationExecutor revalidationExecutor;
+
+    // Concurrent cache misses for the same symbol share one upstream fetch
+    private final SingleFlight<String, BigDecimal> priceLoads = new SingleFlight<>();
+    private final SingleFlight<String, BigDecimal> indexLoads = new SingleFlight<>();
+
+    // Concurrent fan-out for batch lookups
+    private final BatchQuoteEngine batchQuoteEngine;
+
+    // Per-provider call quotas (Finnhub 60/min, Alpha Vantage 5/min)
+    private final QuotaScheduler quotaScheduler;
+
+    // Fail fast while a provider is down; call timeouts follow observed p99 latency
+    private final CircuitBreakerRegistry circuitBreakers;
+
+    // Instruments offered by market search, indexed once at startup
+    private final InstrumentCatalog instrumentCatalog;
+
+    // Every live quote fetched, kept as a per-symbol tick series for analytics
+    private final PriceHistoryStore priceHistory;
 
     public StockPriceService(
             WebClient.Builder webClientBuilder,
-            @Value("${finnhub.api.key:demo}") String apiKey,
-            @Value("${alphavantage.api.key:demo}") String alphaVantageKey,
-            @Value("${finnhub.api.enabled:false}") boolean apiEnabled) {
-        this.finnhubClient = webClientBuilder
-                .baseUrl("https://finnhub.io/api/v1")
-                .build();
-        this.alphaVantageClient = webClientBuilder
-                .baseUrl("https://www.alphavantage.co")
-                .build();
-        this.apiKey = apiKey;
-        this.alphaVantageKey = alphaVantageKey;
-        this.apiEnabled = apiEnabled;
-        log.info("StockPriceService initialized - API enabled: {}, Finnhub key: {}, AlphaVantage key: {}",
-                apiEnabled,
-                apiKey.equals("demo") ? "demo" : "configured",
-                alphaVantageKey.equals("demo") ? "demo" : "configured");
-    }
-
-    /**
-     * Get real-time stock price from Finnhub or return cached/mock data
-     */
-    public BigDecimal getRealTimePrice(String symbol) {
-        try {
-            // Check cache first
-            CachedPrice cached = priceCache.get(symbol);
-            if (cached != null && !cached.isExpired()) {
-                log.debug("Returning cached price for {}: {}", symbol, cached.price);
-                return cached.price;
-            }
+            String apiKey,
+            String alphaVantageKey,
+            boolean apiEnabled) {
+        this(webClientBuilder, apiKey, alphaVantageKey, apiEnabled, new QuotaScheduler(),
+                new CircuitBreakerRegistry());
+    }
 
-            if (apiEnabled && !"demo".equals(apiKey)) {
-                // Fetch from Finnhub API
-                BigDecimal realPrice = fetchFromFinnhub(symbol);
-                if (realPrice != null) {
-                    priceCache.put(symbol, new CachedPrice(realPrice));
-                    return realPrice;
-                }
-            }
+    private StockPriceService(
+            WebClient.Builder webClientBuilder,
+            String apiKey,
+            String alphaVantageKey,
+            boolean apiEnabled,
+            QuotaScheduler quotaScheduler,
+            CircuitBreakerRegistry circuitBreakers) {
+        this(new MarketDataProviderChain(java.util.List.of(
+                        new FinnhubProvider(webClientBuilder, apiKey, apiEnabled, 10, quotaScheduler, circuitBreakers),
+                        new AlphaVantageProvider(webClientBuilder, alphaVantageKey, apiEnabled, 20, quotaScheduler,
+                                circuitBreakers))),
+                new PriceCache(), new BatchQuoteEngine(), quotaScheduler, circuitBreakers, new RevalidationExecutor(),
+                new InstrumentCatalog(), new PriceHistoryStore());
+    }
 
-            // Fallback to mock price
-            BigDecimal mockPrice = getMockPrice(symbol);
-            priceCache.put(symbol, new CachedPrice(mockPrice));
-            return mockPrice;
+    @Autowired
+    public StockPriceService(
+            MarketDataProviderChain providerChain,
+            PriceCache priceCache,
+            BatchQuoteEngine batchQuoteEngine,
+            QuotaScheduler quotaScheduler,
+            CircuitBreakerRegistry circuitBreakers,
+            RevalidationExecutor revalidationExecutor,
+            InstrumentCatalog instrumentCatalog,
+            PriceHistoryStore priceHistory) {
+        this.providerChain = providerChain;
+        this.priceCache = priceCache;
+        this.batchQuoteEngine = batchQuoteEngine;
+        this.quotaScheduler = quotaScheduler;
+        this.circuitBreakers = circuitBreakers;
+        this.revalidationExecutor = revalidationExecutor;
+        this.instrumentCatalog = instrumentCatalog;
+        this.priceHistory = priceHistory;
+        log.info("StockPriceService initialized - providers: {}, live data: {}",
+                providerChain.getProviderNames(), providerChain.hasAvailableProvider());
+        restoreLastQuotes();
+    }
 
-        } catch (Exception e) {
-            log.error("Error fetching stock price for {}: {}", symbol, e.getMessage());
-            return getMockPrice(symbol);
+    /**
+     * Warm the cache with the last quote of every series restored from disk, so a restart does
+     * not re-fetch quotes that are still servable
+     */
+    private void restoreLastQuotes() {
+        int restored = 0;
+        for (String symbol : priceHistory.getSymbols()) {
+            PriceSeries series = priceHistory.getSeries(symbol);
+            if (series.size() > 0
+                    && priceCache.restore(symbol, BigDecimal.valueOf(series.lastPrice()), series.lastTime())) {
+                restored++;
+            }
+        }
+        if (restored > 0) {
+            log.info("Restored {} servable quotes from price history", restored);
         }
     }
 
     /**
-     * Fetch price from Finnhub API
+     * Get real-time stock price from the provider chain or return cached/mock data.
+     * An expired quote within the max staleness is returned immediately and refreshed in the background.
      */
-    private BigDecimal fetchFromFinnhub(String symbol) {
-        try {
-            log.debug("Fetching price from Finnhub for: {}", symbol);
-
-            Map<String, Object> response = finnhubClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/quote")
-                            .queryParam("symbol", symbol.toUpperCase())
-                            .queryParam("token", apiKey)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(5))
-                    .doOnError(WebClientResponseException.class, ex -> {
-                        log.error("Finnhub API HTTP error for {}: {} - {}", symbol, ex.getStatusCode(),
-                                ex.getResponseBodyAsString());
-                    })
-                    .onErrorResume(error -> {
-                        log.warn("Finnhub API error for {}: {}", symbol, error.getMessage());
-                        return Mono.empty();
-                    })
-                    .block();
-
-            if (response != null) {
-                log.debug("Finnhub response for {}: {}", symbol, response);
-
-                if (response.containsKey("c")) {
-                    // "c" is current price in Finnhub response
-                    Object priceObj = response.get("c");
-                    double price = priceObj instanceof Number ? ((Number) priceObj).doubleValue() : 0;
-
-                    if (price > 0) {
-                        log.info("✓ Fetched Finnhub price for {}: ${}", symbol, price);
-                        return BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP);
-                    } else {
-                        log.warn("Finnhub returned zero price for {}, trying Alpha Vantage", symbol);
-                    }
-                } else {
-                    log.warn("Finnhub response missing 'c' field for {}: {}", symbol, response);
-                }
+    public BigDecimal getRealTimePrice(String symbol) {
+        // Check cache first
+        CachedPrice cached = priceCache.getServable(symbol);
+        if (cached != null) {
+            if (cached.isExpired()) {
+                log.debug("Returning stale price for {} ({}ms old), refreshing", symbol, cached.getAgeMs());
+                revalidatePrice(symbol);
+            } else {
+                log.debug("Returning cached price for {}: {}", symbol, cached.getPrice());
             }
+            return cached.getPrice();
+        }
+
+        return fetchPrice(symbol, CallPriority.INTERACTIVE);
+    }
 
-            // Try Alpha Vantage as fallback
-            return fetchFromAlphaVantage(symbol);
+    /**
+     * Get the cached quote for a symbol, including when it was fetched, without loading it
+     */
+    public CachedPrice getCachedQuote(String symbol) {
+        return priceCache.peekServable(symbol);
+    }
 
+    private void revalidatePrice(String symbol) {
+        revalidationExecutor.submit(symbol, () -> fetchPrice(symbol, CallPriority.BACKGROUND));
+    }
+
+    /**
+     * Load a price that missed the cache, sharing the fetch with concurrent callers
+     */
+    private BigDecimal fetchPrice(String symbol, CallPriority priority) {
+        try {
+            return priceLoads.execute(symbol, () -> loadPrice(symbol, priority));
         } catch (Exception e) {
-            log.error("Finnhub API call failed for {}: {}", symbol, e.getMessage());
-            // Try Alpha Vantage as fallback
-            return fetchFromAlphaVantage(symbol);
+            log.error("Error fetching stock price for {}: {}", symbol, e.getMessage());
+            return getMockPrice(symbol);
         }
     }
 
     /**
-     * Fetch price from Alpha Vantage API as fallback
+     * Fetch a price after a cache miss and cache it; runs once per symbol at a time
      */
-    private BigDecimal fetchFromAlphaVantage(String symbol) {
-        if ("demo".equals(alphaVantageKey)) {
-            log.debug("Alpha Vantage key not configured, skipping");
-            return null;
+    private BigDecimal loadPrice(String symbol, CallPriority priority) {
+        // Another caller may have filled the cache while we waited to become the loader
+        BigDecimal cached = priceCache.peekFresh(symbol);
+        if (cached != null) {
+            return cached;
         }
 
-        try {
-            log.debug("Fetching price from Alpha Vantage for: {}", symbol);
-
-            Map<String, Object> response = alphaVantageClient.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/query")
-                            .queryParam("function", "GLOBAL_QUOTE")
-                            .queryParam("symbol", symbol.toUpperCase())
-                            .queryParam("apikey", alphaVantageKey)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .timeout(Duration.ofSeconds(5))
-                    .onErrorResume(error -> {
-                        log.warn("Alpha Vantage API error for {}: {}", symbol, error.getMessage());
-                        return Mono.empty();
-                    })
-                    .block();
-
-            if (response != null && response.containsKey("Global Quote")) {
-                Map<String, Object> quote = (Map<String, Object>) response.get("Global Quote");
-                if (quote.containsKey("05. price")) {
-                    String priceStr = quote.get("05. price").toString();
-                    double price = Double.parseDouble(priceStr);
-
-                    if (price > 0) {
-                        log.info("✓ Fetched Alpha Vantage price for {}: ${}", symbol, price);
-                        return BigDecimal.valueOf(price).setScale(2, RoundingMode.HALF_UP);
-                    }
-                }
+        if (providerChain.hasAvailableProvider()) {
+            BigDecimal realPrice = providerChain.getQuote(symbol, priority);
+            if (realPrice != null) {
+                cacheLiveQuote(symbol, realPrice);
+                return realPrice;
             }
 
-            log.warn("Invalid Alpha Vantage response for {}", symbol);
-            return null;
-
-        } catch (Exception e) {
-            log.error("Alpha Vantage API call failed for {}: {}", symbol, e.getMessage());
-            return null;
+            // Keep serving the last known price rather than replacing it with a mock one
+            CachedPrice stale = priceCache.peekServable(symbol);
+            if (stale != null) {
+                return stale.getPrice();
+            }
         }
+
+        // Fallback to mock price
+        BigDecimal mockPrice = getMockPrice(symbol);
+        priceCache.putFallback(symbol, mockPrice);
+        return mockPrice;
     }
 
     /**
      * Get multiple stock prices in batch
+     * Symbols that time out are left out of the result
      */
     public Map<String, BigDecimal> getBatchPrices(java.util.List<String> symbols) {
-        Map<String, BigDecimal> prices = new HashMap<>();
+        return getBatchPriceResult(symbols).getResults();
+    }
+
+    /**
+     * Get batch prices along with the symbols that timed out or failed.
+     * Cache hits are answered inline; misses are fetched concurrently by the batch engine.
+     */
+    public BatchResult<BigDecimal> getBatchPriceResult(java.util.List<String> symbols) {
+        return getBatchPriceResult(symbols, CallPriority.INTERACTIVE);
+    }
+
+    /**
+     * Get batch prices with an explicit quota priority (background refreshes yield to user requests)
+     */
+    public BatchResult<BigDecimal> getBatchPriceResult(java.util.List<String> symbols, CallPriority priority) {
+        Map<String, BigDecimal> cachedPrices = new HashMap<>();
+        java.util.Set<String> misses = new java.util.LinkedHashSet<>();
         for (String symbol : symbols) {
-            BigDecimal price = getRealTimePrice(symbol);
+            CachedPrice cached = priceCache.getServable(symbol);
+            if (cached != null) {
+                cachedPrices.put(symbol, cached.getPrice());
+                if (cached.isExpired()) {
+                    revalidatePrice(symbol);
+                }
+            } else {
+                misses.add(symbol);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return new BatchResult<>(new java.util.LinkedHashMap<>(cachedPrices), java.util.List.of(), java.util.List.of());
+        }
+
+        BatchResult<BigDecimal> fetched = batchQuoteEngine.fetchAll(misses, symbol -> fetchPrice(symbol, priority));
+
+        // Merge back in request order
+        Map<String, BigDecimal> prices = new java.util.LinkedHashMap<>();
+        for (String symbol : symbols) {
+            BigDecimal price = cachedPrices.containsKey(symbol)
+                    ? cachedPrices.get(symbol)
+                    : fetched.getResults().get(symbol);
             if (price != null) {
                 prices.put(symbol, price);
             }
         }
-        return prices;
+        return new BatchResult<>(prices, fetched.getTimedOut(), fetched.getFailed());
     }
 
     /**
@@ -209,8 +262,10 @@ public class StockPriceService {
      */
     public java.util.List<Map<String, Object>> getBatchDetailedQuotes(java.util.List<String> symbols) {
         java.util.List<Map<String, Object>> quotes = new java.util.ArrayList<>();
-        for (String symbol : symbols) {
-            Map<String, Object> quote = getDetailedQuote(symbol);
+        Map<String, BigDecimal> prices = getBatchPrices(symbols);
+        for (Map.Entry<String, BigDecimal> entry : prices.entrySet()) {
+            String symbol = entry.getKey();
+            Map<String, Object> quote = buildDetailedQuote(symbol, entry.getValue());
             // Rename fields to match frontend expectations
             Map<String, Object> formattedQuote = new HashMap<>();
             formattedQuote.put("symbol", symbol);
@@ -292,49 +347,37 @@ public class StockPriceService {
     }
 
     /**
-     * Get benchmark index value (S&P 500, NIFTY 50, etc.)
+     * Map a friendly benchmark name (SP500, NIFTY50, ...) to its ticker symbol
      */
-    public BigDecimal getBenchmarkValue(String indexSymbol) {
-        // Map friendly names to actual ticker symbols
+    public String resolveBenchmarkSymbol(String indexSymbol) {
         Map<String, String> symbolMapping = new HashMap<>();
         symbolMapping.put("SP500", "^GSPC");
         symbolMapping.put("NIFTY50", "^NSEI");
         symbolMapping.put("DJI", "^DJI");
         symbolMapping.put("NASDAQ", "^IXIC");
+        return symbolMapping.getOrDefault(indexSymbol, indexSymbol);
+    }
 
+    /**
+     * Get benchmark index value (S&P 500, NIFTY 50, etc.)
+     */
+    public BigDecimal getBenchmarkValue(String indexSymbol) {
         // Convert friendly name to ticker symbol if needed
-        String actualSymbol = symbolMapping.getOrDefault(indexSymbol, indexSymbol);
+        String actualSymbol = resolveBenchmarkSymbol(indexSymbol);
 
         try {
             // Check cache first
-            CachedPrice cached = priceCache.get(actualSymbol);
-            if (cached != null && !cached.isExpired()) {
-                log.debug("Returning cached index value for {}: {}", actualSymbol, cached.price);
-                return cached.price;
-            }
-
-            if (apiEnabled && !"demo".equals(apiKey)) {
-                // Fetch from Finnhub API
-                BigDecimal realValue = fetchFromFinnhub(actualSymbol);
-                if (realValue != null && realValue.compareTo(BigDecimal.ZERO) > 0) {
-                    priceCache.put(actualSymbol, new CachedPrice(realValue));
-                    return realValue;
+            CachedPrice cached = priceCache.getServable(actualSymbol);
+            if (cached != null) {
+                if (cached.isExpired()) {
+                    revalidationExecutor.submit(actualSymbol, () -> indexLoads.execute(actualSymbol,
+                            () -> loadBenchmarkValue(actualSymbol, CallPriority.BACKGROUND)));
                 }
+                log.debug("Returning cached index value for {}: {}", actualSymbol, cached.getPrice());
+                return cached.getPrice();
             }
 
-            // Fallback to mock values if API is disabled or fails
-            log.debug("Using fallback mock data for index: {}", actualSymbol);
-            Map<String, BigDecimal> mockIndexValues = new HashMap<>();
-            mockIndexValues.put("^GSPC", new BigDecimal("4783.45")); // S&P 500
-            mockIndexValues.put("^NSEI", new BigDecimal("21731.40")); // NIFTY 50
-            mockIndexValues.put("^DJI", new BigDecimal("37305.16")); // Dow Jones
-            mockIndexValues.put("^IXIC", new BigDecimal("14813.92")); // NASDAQ
-
-            BigDecimal fallbackValue = mockIndexValues.getOrDefault(actualSymbol, BigDecimal.ZERO);
-            if (fallbackValue.compareTo(BigDecimal.ZERO) > 0) {
-                priceCache.put(actualSymbol, new CachedPrice(fallbackValue));
-            }
-            return fallbackValue;
+            return indexLoads.execute(actualSymbol, () -> loadBenchmarkValue(actualSymbol, CallPriority.INTERACTIVE));
 
         } catch (Exception e) {
             log.error("Error fetching index value for {}: {}", actualSymbol, e.getMessage());
@@ -348,20 +391,50 @@ public class StockPriceService {
         }
     }
 
+    /**
+     * Fetch an index value after a cache miss and cache it; runs once per index at a time
+     */
+    private BigDecimal loadBenchmarkValue(String actualSymbol, CallPriority priority) {
+        BigDecimal cached = priceCache.peekFresh(actualSymbol);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (providerChain.hasAvailableProvider()) {
+            BigDecimal realValue = providerChain.getQuote(actualSymbol, priority);
+            if (realValue != null && realValue.compareTo(BigDecimal.ZERO) > 0) {
+                cacheLiveQuote(actualSymbol, realValue);
+                return realValue;
+            }
+
+            CachedPrice stale = priceCache.peekServable(actualSymbol);
+            if (stale != null) {
+                return stale.getPrice();
+            }
+        }
+
+        // Fallback to mock values if API is disabled or fails
+        log.debug("Using fallback mock data for index: {}", actualSymbol);
+        Map<String, BigDecimal> mockIndexValues = new HashMap<>();
+        mockIndexValues.put("^GSPC", new BigDecimal("4783.45")); // S&P 500
+        mockIndexValues.put("^NSEI", new BigDecimal("21731.40")); // NIFTY 50
+        mockIndexValues.put("^DJI", new BigDecimal("37305.16")); // Dow Jones
+        mockIndexValues.put("^IXIC", new BigDecimal("14813.92")); // NASDAQ
+
+        BigDecimal fallbackValue = mockIndexValues.getOrDefault(actualSymbol, BigDecimal.ZERO);
+        if (fallbackValue.compareTo(BigDecimal.ZERO) > 0) {
+            priceCache.putFallback(actualSymbol, fallbackValue);
+        }
+        return fallbackValue;
+    }
+
     /**
      * Get benchmark index with change information
      */
     public Map<String, Object> getBenchmarkWithChange(String indexSymbol) {
         Map<String, Object> benchmark = new HashMap<>();
 
-        // Map friendly names to actual ticker symbols
-        Map<String, String> symbolMapping = new HashMap<>();
-        symbolMapping.put("SP500", "^GSPC");
-        symbolMapping.put("NIFTY50", "^NSEI");
-        symbolMapping.put("DJI", "^DJI");
-        symbolMapping.put("NASDAQ", "^IXIC");
-
-        String actualSymbol = symbolMapping.getOrDefault(indexSymbol, indexSymbol);
+        String actualSymbol = resolveBenchmarkSymbol(indexSymbol);
 
         try {
             // Fetch detailed quote from Finnhub for real change data
@@ -396,11 +469,18 @@ public class StockPriceService {
 
     /**
      * Get detailed quote information including price change
+     * The price lookup goes through getRealTimePrice, so concurrent quotes for one symbol share a fetch
      */
     public Map<String, Object> getDetailedQuote(String symbol) {
+        return buildDetailedQuote(symbol, getRealTimePrice(symbol));
+    }
+
+    /**
+     * Build a detailed quote around an already known current price
+     */
+    private Map<String, Object> buildDetailedQuote(String symbol, BigDecimal currentPrice) {
         Map<String, Object> quote = new HashMap<>();
 
-        BigDecimal currentPrice = getRealTimePrice(symbol);
         BigDecimal previousClose = currentPrice.multiply(BigDecimal.valueOf(0.98)); // Mock 2% change
         BigDecimal change = currentPrice.subtract(previousClose);
         BigDecimal changePercent = change.divide(previousClose, 4, RoundingMode.HALF_UP)
@@ -416,6 +496,36 @@ public class StockPriceService {
         return quote;
     }
 
+    /**
+     * Fetch fresh quotes for the symbols in one provider batch and cache them, ignoring what is cached.
+     * Symbols no provider could answer keep their current (possibly stale) cache entry.
+     *
+     * @return number of symbols refreshed
+     */
+    public int refreshPrices(java.util.Collection<String> symbols, CallPriority priority) {
+        if (symbols.isEmpty() || !providerChain.hasAvailableProvider()) {
+            return 0;
+        }
+        Map<String, BigDecimal> quotes = providerChain.getQuotes(symbols, priority);
+        quotes.forEach(this::cacheLiveQuote);
+        return quotes.size();
+    }
+
+    /**
+     * Cache a quote a provider just returned and record it in the price history
+     */
+    private void cacheLiveQuote(String symbol, BigDecimal price) {
+        priceCache.put(symbol, price);
+        priceHistory.record(symbol, price);
+    }
+
+    /**
+     * Whether any live (or replay) provider is configured; otherwise prices come from mock data
+     */
+    public boolean isLiveDataAvailable() {
+        return providerChain.hasAvailableProvider();
+    }
+
     /**
      * Clear price cache (useful for manual refresh)
      */
@@ -424,416 +534,130 @@ public class StockPriceService {
         log.info("Price cache cleared");
     }
 
+    /**
+     * Cache hit, miss and eviction counters
+     */
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new java.util.LinkedHashMap<>(priceCache.getStats());
+        stats.put("coalescedLoads", priceLoads.getCoalescedCount() + indexLoads.getCoalescedCount());
+        stats.put("inFlightLoads", priceLoads.getInFlightCount() + indexLoads.getInFlightCount());
+        stats.put("pendingRevalidations", revalidationExecutor.getPendingCount());
+        stats.put("completedRevalidations", revalidationExecutor.getCompletedCount());
+        stats.put("droppedRevalidations", revalidationExecutor.getDroppedCount());
+        stats.put("history", priceHistory.getStats());
+        return stats;
+    }
+
+    /**
+     * Remaining upstream quota per provider
+     */
+    public Map<String, Object> getQuotaStats() {
+        return quotaScheduler.getQuotaStats();
+    }
+
+    /**
+     * Circuit breaker state and adaptive timeout per provider
+     */
+    public Map<String, Object> getProviderHealth() {
+        Map<String, Object> health = new java.util.LinkedHashMap<>();
+        health.put("providers", providerChain.getProviderNames());
+        health.put("circuitBreakers", circuitBreakers.getStats());
+        return health;
+    }
+
+    /**
+     * Ticks recorded for a symbol with fromMs <= time < toMs
+     */
+    public PriceSlice getPriceHistory(String symbol, long fromMs, long toMs) {
+        return priceHistory.range(symbol, fromMs, toMs);
+    }
+
+    /**
+     * OHLC bars of the ticks recorded for a symbol, one per bucketMs
+     */
+    public java.util.List<PriceBar> getPriceBars(String symbol, long fromMs, long toMs, long bucketMs) {
+        return priceHistory.rollup(symbol, fromMs, toMs, bucketMs);
+    }
+
     /**
      * Search for stocks by symbol or name
      */
     public java.util.List<Map<String, Object>> searchStocks(String query) {
-        java.util.List<Map<String, Object>> results = new java.util.ArrayList<>();
-
-        // Mock stock database - in production, this would query a real database or API
-        String[][] stockDatabase = {
-                { "AAPL", "Apple Inc.", "Technology", "NASDAQ" },
-                { "GOOGL", "Alphabet Inc.", "Technology", "NASDAQ" },
-                { "MSFT", "Microsoft Corporation", "Technology", "NASDAQ" },
-                { "AMZN", "Amazon.com Inc.", "E-Commerce", "NASDAQ" },
-                { "TSLA", "Tesla Inc.", "Automotive", "NASDAQ" },
-                { "META", "Meta Platforms Inc.", "Technology", "NASDAQ" },
-                { "NVDA", "NVIDIA Corporation", "Technology", "NASDAQ" },
-                { "JPM", "JPMorgan Chase & Co.", "Banking", "NYSE" },
-                { "V", "Visa Inc.", "Finance", "NYSE" },
-                { "WMT", "Walmart Inc.", "Retail", "NYSE" },
-                { "TCS", "Tata Consultancy Services", "IT Services", "NSE" },
-                { "INFY", "Infosys Ltd.", "IT Services", "NSE" },
-                { "RELIANCE", "Reliance Industries", "Conglomerate", "NSE" },
-                { "HDFCBANK", "HDFC Bank", "Banking", "NSE" },
-                { "ICICIBANK", "ICICI Bank", "Banking", "NSE" },
-                { "ITC", "ITC Limited", "FMCG", "NSE" },
-                { "SBIN", "State Bank of India", "Banking", "NSE" },
-                { "BHARTIARTL", "Bharti Airtel", "Telecom", "NSE" },
-                { "KOTAKBANK", "Kotak Mahindra Bank", "Banking", "NSE" },
-                { "HINDUNILVR", "Hindustan Unilever", "FMCG", "NSE" }
-        };
-
-        String searchQuery = query.toLowerCase().trim();
-
-        for (String[] stock : stockDatabase) {
-            String symbol = stock[0];
-            String name = stock[1];
-            String sector = stock[2];
-            String exchange = stock[3];
-
-            // Search by symbol or name
-            if (symbol.toLowerCase().contains(searchQuery) ||
-                    name.toLowerCase().contains(searchQuery) ||
-                    sector.toLowerCase().contains(searchQuery)) {
-
-                BigDecimal price = getRealTimePrice(symbol);
-
-                Map<String, Object> result = new HashMap<>();
-                result.put("symbol", symbol);
-                result.put("name", name);
-                result.put("sector", sector);
-                result.put("exchange", exchange);
-                result.put("price", price);
-                result.put("currency", exchange.equals("NSE") ? "INR" : "USD");
-                result.put("type", "Stock");
-
-                results.add(result);
-
-                // Limit to 10 results
-                if (results.size() >= 10) {
-                    break;
-                }
-            }
-        }
-
-        return results;
+        return searchCatalog(query, Instrument.Type.STOCK, 10, null);
     }
 
     /**
      * Search for bonds by symbol or name
      */
     public java.util.List<Map<String, Object>> searchBonds(String query) {
-        java.util.List<Map<String, Object>> results = new java.util.ArrayList<>();
-
-        // Mock bond database - in production, this would query a real database or API
-        // Format: Symbol, Name, Issuer, Type, CouponRate, CreditRating, Currency
-        String[][] bondDatabase = {
-                { "US10Y", "US 10-Year Treasury Bond", "US Government", "Government", "4.25", "AAA", "USD" },
-                { "US30Y", "US 30-Year Treasury Bond", "US Government", "Government", "4.50", "AAA", "USD" },
-                { "US5Y", "US 5-Year Treasury Bond", "US Government", "Government", "4.00", "AAA", "USD" },
-                { "US2Y", "US 2-Year Treasury Bond", "US Government", "Government", "4.75", "AAA", "USD" },
-                { "AAPL-2030", "Apple Inc. 2030 Bond", "Apple Inc.", "Corporate", "3.50", "AA+", "USD" },
-                { "MSFT-2028", "Microsoft Corp 2028 Bond", "Microsoft", "Corporate", "3.25", "AAA", "USD" },
-                { "GOOGL-2035", "Alphabet Inc. 2035 Bond", "Alphabet", "Corporate", "3.75", "AA+", "USD" },
-                { "JPM-2029", "JPMorgan Chase 2029 Bond", "JPMorgan Chase", "Corporate", "4.00", "A+", "USD" },
-                { "IN10Y", "India 10-Year Government Bond", "Government of India", "Government", "7.25", "BBB-", "INR" },
-                { "IN5Y", "India 5-Year Government Bond", "Government of India", "Government", "7.00", "BBB-", "INR" },
-                { "HDFC-2027", "HDFC Bank 2027 Bond", "HDFC Bank", "Corporate", "7.50", "AAA", "INR" },
-                { "ICICI-2026", "ICICI Bank 2026 Bond", "ICICI Bank", "Corporate", "7.25", "AAA", "INR" },
-                { "RIL-2030", "Reliance Industries 2030 Bond", "Reliance Industries", "Corporate", "7.75", "AA+", "INR" },
-                { "SBI-2028", "SBI 2028 Bond", "State Bank of India", "Corporate", "7.35", "AAA", "INR" },
-                { "TATA-2029", "Tata Steel 2029 Bond", "Tata Steel", "Corporate", "8.00", "AA", "INR" },
-                { "MUNI-NYC", "New York City Municipal Bond", "NYC", "Municipal", "3.00", "AA", "USD" },
-                { "MUNI-CA", "California State Municipal Bond", "California", "Municipal", "3.25", "AA-", "USD" },
-                { "TIPS-10Y", "Treasury Inflation-Protected Securities", "US Government", "Government", "1.50", "AAA", "USD" },
-                { "GER10Y", "German 10-Year Bund", "German Government", "Government", "2.25", "AAA", "EUR" },
-                { "UK10Y", "UK 10-Year Gilt", "UK Government", "Government", "4.00", "AA", "GBP" }
-        };
-
-        String searchQuery = query.toLowerCase().trim();
-
-        for (String[] bond : bondDatabase) {
-            String symbol = bond[0];
-            String name = bond[1];
-            String issuer = bond[2];
-            String bondType = bond[3];
-            String couponRate = bond[4];
-            String creditRating = bond[5];
-            String currency = bond[6];
-
-            // Fuzzy search by symbol, name, issuer, or type
-            if (fuzzyMatch(symbol, searchQuery) ||
-                    fuzzyMatch(name, searchQuery) ||
-                    fuzzyMatch(issuer, searchQuery) ||
-                    fuzzyMatch(bondType, searchQuery)) {
-
-                Map<String, Object> result = new HashMap<>();
-                result.put("symbol", symbol);
-                result.put("name", name);
-                result.put("issuer", issuer);
-                result.put("bondType", bondType);
-                result.put("couponRate", new BigDecimal(couponRate));
-                result.put("creditRating", creditRating);
-                result.put("currency", currency);
-                result.put("type", "Bond");
-                result.put("price", new BigDecimal("100.00")); // Par value for bonds
-
-                results.add(result);
-
-                if (results.size() >= 10) {
-                    break;
-                }
-            }
-        }
-
-        return results;
+        return searchCatalog(query, Instrument.Type.BOND, 10, null);
     }
 
     /**
      * Search for mutual funds by symbol or name
      */
     public java.util.List<Map<String, Object>> searchMutualFunds(String query) {
-        java.util.List<Map<String, Object>> results = new java.util.ArrayList<>();
-
-        // Mock mutual fund database
-        // Format: Symbol, Name, FundHouse, Category, NAV, ExpenseRatio, RiskLevel, Currency
-        String[][] mutualFundDatabase = {
-                { "VOO", "Vanguard S&P 500 ETF", "Vanguard", "Index Fund", "450.25", "0.03", "Medium", "USD" },
-                { "VTI", "Vanguard Total Stock Market ETF", "Vanguard", "Index Fund", "245.50", "0.03", "Medium", "USD" },
-                { "VXUS", "Vanguard Total International Stock ETF", "Vanguard", "International", "58.75", "0.07", "Medium", "USD" },
-                { "BND", "Vanguard Total Bond Market ETF", "Vanguard", "Bond Fund", "72.50", "0.03", "Low", "USD" },
-                { "SPY", "SPDR S&P 500 ETF Trust", "State Street", "Index Fund", "510.25", "0.09", "Medium", "USD" },
-                { "QQQ", "Invesco QQQ Trust", "Invesco", "Technology", "450.75", "0.20", "High", "USD" },
-                { "IWM", "iShares Russell 2000 ETF", "BlackRock", "Small Cap", "210.50", "0.19", "High", "USD" },
-                { "VWO", "Vanguard FTSE Emerging Markets ETF", "Vanguard", "Emerging Markets", "42.25", "0.08", "High", "USD" },
-                { "FXAIX", "Fidelity 500 Index Fund", "Fidelity", "Index Fund", "175.50", "0.015", "Medium", "USD" },
-                { "VFIAX", "Vanguard 500 Index Admiral", "Vanguard", "Index Fund", "425.75", "0.04", "Medium", "USD" },
-                { "HDFC-EQUITY", "HDFC Equity Fund", "HDFC Mutual Fund", "Large Cap", "850.25", "1.75", "Medium", "INR" },
-                { "HDFC-MIDCAP", "HDFC Mid-Cap Opportunities Fund", "HDFC Mutual Fund", "Mid Cap", "125.50", "1.85", "High", "INR" },
-                { "ICICI-BLUECHIP", "ICICI Prudential Bluechip Fund", "ICICI Prudential", "Large Cap", "75.25", "1.65", "Medium", "INR" },
-                { "SBI-SMALLCAP", "SBI Small Cap Fund", "SBI Mutual Fund", "Small Cap", "145.75", "1.95", "High", "INR" },
-                { "AXIS-BLUECHIP", "Axis Bluechip Fund", "Axis Mutual Fund", "Large Cap", "48.50", "1.55", "Low", "INR" },
-                { "MIRAE-LARGE", "Mirae Asset Large Cap Fund", "Mirae Asset", "Large Cap", "85.25", "1.45", "Medium", "INR" },
-                { "PARAG-FLEXI", "Parag Parikh Flexi Cap Fund", "PPFAS", "Flexi Cap", "62.75", "1.35", "Medium", "INR" },
-                { "UTI-NIFTY", "UTI Nifty 50 Index Fund", "UTI Mutual Fund", "Index Fund", "155.50", "0.20", "Medium", "INR" },
-                { "NIPPON-INDIA", "Nippon India Growth Fund", "Nippon India", "Multi Cap", "2500.25", "1.75", "High", "INR" },
-                { "KOTAK-STD", "Kotak Standard Multicap Fund", "Kotak Mahindra", "Multi Cap", "48.75", "1.55", "Medium", "INR" }
-        };
-
-        String searchQuery = query.toLowerCase().trim();
-
-        for (String[] fund : mutualFundDatabase) {
-            String symbol = fund[0];
-            String name = fund[1];
-            String fundHouse = fund[2];
-            String category = fund[3];
-            String nav = fund[4];
-            String expenseRatio = fund[5];
-            String riskLevel = fund[6];
-            String currency = fund[7];
-
-            // Fuzzy search
-            if (fuzzyMatch(symbol, searchQuery) ||
-                    fuzzyMatch(name, searchQuery) ||
-                    fuzzyMatch(fundHouse, searchQuery) ||
-                    fuzzyMatch(category, searchQuery)) {
-
-                Map<String, Object> result = new HashMap<>();
-                result.put("symbol", symbol);
-                result.put("name", name);
-                result.put("fundHouse", fundHouse);
-                result.put("category", category);
-                result.put("nav", new BigDecimal(nav));
-                result.put("expenseRatio", new BigDecimal(expenseRatio));
-                result.put("riskLevel", riskLevel);
-                result.put("currency", currency);
-                result.put("type", "Mutual Fund");
-                result.put("price", new BigDecimal(nav));
-
-                results.add(result);
-
-                if (results.size() >= 10) {
-                    break;
-                }
-            }
-        }
-
-        return results;
+        return searchCatalog(query, Instrument.Type.MUTUAL_FUND, 10, null);
     }
 
     /**
      * Search for SIPs by symbol or name
      */
     public java.util.List<Map<String, Object>> searchSIPs(String query) {
-        java.util.List<Map<String, Object>> results = new java.util.ArrayList<>();
-
-        // Mock SIP database - these are typically mutual funds offered with SIP option
-        // Format: Symbol, Name, FundHouse, Category, MinSIP, NAV, RiskLevel, Currency
-        String[][] sipDatabase = {
-                { "HDFC-SIP-EQUITY", "HDFC Equity Fund - SIP", "HDFC Mutual Fund", "Large Cap", "500", "850.25", "Medium", "INR" },
-                { "HDFC-SIP-MIDCAP", "HDFC Mid-Cap Opportunities - SIP", "HDFC Mutual Fund", "Mid Cap", "500", "125.50", "High", "INR" },
-                { "ICICI-SIP-BLUE", "ICICI Prudential Bluechip - SIP", "ICICI Prudential", "Large Cap", "500", "75.25", "Medium", "INR" },
-                { "SBI-SIP-SMALL", "SBI Small Cap Fund - SIP", "SBI Mutual Fund", "Small Cap", "500", "145.75", "High", "INR" },
-                { "AXIS-SIP-BLUE", "Axis Bluechip Fund - SIP", "Axis Mutual Fund", "Large Cap", "500", "48.50", "Low", "INR" },
-                { "MIRAE-SIP-LARGE", "Mirae Asset Large Cap - SIP", "Mirae Asset", "Large Cap", "1000", "85.25", "Medium", "INR" },
-                { "PARAG-SIP-FLEXI", "Parag Parikh Flexi Cap - SIP", "PPFAS", "Flexi Cap", "1000", "62.75", "Medium", "INR" },
-                { "UTI-SIP-NIFTY", "UTI Nifty 50 Index - SIP", "UTI Mutual Fund", "Index Fund", "500", "155.50", "Medium", "INR" },
-                { "NIPPON-SIP-GROWTH", "Nippon India Growth - SIP", "Nippon India", "Multi Cap", "100", "2500.25", "High", "INR" },
-                { "KOTAK-SIP-STD", "Kotak Standard Multicap - SIP", "Kotak Mahindra", "Multi Cap", "500", "48.75", "Medium", "INR" },
-                { "TATA-SIP-DIGITAL", "Tata Digital India Fund - SIP", "Tata Mutual Fund", "Technology", "500", "38.50", "High", "INR" },
-                { "ADITYA-SIP-TAX", "Aditya Birla Sun Life Tax Relief - SIP", "Aditya Birla", "ELSS", "500", "45.25", "Medium", "INR" },
-                { "DSP-SIP-TAX", "DSP Tax Saver Fund - SIP", "DSP Mutual Fund", "ELSS", "500", "85.75", "Medium", "INR" },
-                { "FRANKLIN-SIP-PRIMA", "Franklin India Prima Fund - SIP", "Franklin Templeton", "Mid Cap", "500", "1350.50", "High", "INR" },
-                { "SUNDARAM-SIP-MID", "Sundaram Mid Cap Fund - SIP", "Sundaram Mutual Fund", "Mid Cap", "500", "825.25", "High", "INR" },
-                { "CANARA-SIP-EQUITY", "Canara Robeco Equity Hybrid - SIP", "Canara Robeco", "Hybrid", "1000", "245.50", "Medium", "INR" },
-                { "INVESCO-SIP-GROWTH", "Invesco India Growth Opp - SIP", "Invesco", "Multi Cap", "500", "58.75", "Medium", "INR" },
-                { "L&T-SIP-EMERGING", "L&T Emerging Businesses - SIP", "L&T Mutual Fund", "Small Cap", "500", "48.25", "High", "INR" },
-                { "MOTILAL-SIP-S&P500", "Motilal Oswal S&P 500 Index - SIP", "Motilal Oswal", "International", "500", "25.50", "Medium", "INR" },
-                { "EDELWEISS-SIP-BALANCE", "Edelweiss Balanced Advantage - SIP", "Edelweiss", "Hybrid", "500", "38.25", "Low", "INR" }
-        };
-
-        String searchQuery = query.toLowerCase().trim();
-
-        for (String[] sip : sipDatabase) {
-            String symbol = sip[0];
-            String name = sip[1];
-            String fundHouse = sip[2];
-            String category = sip[3];
-            String minSIP = sip[4];
-            String nav = sip[5];
-            String riskLevel = sip[6];
-            String currency = sip[7];
-
-            // Fuzzy search
-            if (fuzzyMatch(symbol, searchQuery) ||
-                    fuzzyMatch(name, searchQuery) ||
-                    fuzzyMatch(fundHouse, searchQuery) ||
-                    fuzzyMatch(category, searchQuery)) {
-
-                Map<String, Object> result = new HashMap<>();
-                result.put("symbol", symbol);
-                result.put("name", name);
-                result.put("fundHouse", fundHouse);
-                result.put("category", category);
-                result.put("minSIP", new BigDecimal(minSIP));
-                result.put("nav", new BigDecimal(nav));
-                result.put("riskLevel", riskLevel);
-                result.put("currency", currency);
-                result.put("type", "SIP");
-                result.put("price", new BigDecimal(nav));
-
-                results.add(result);
-
-                if (results.size() >= 10) {
-                    break;
-                }
-            }
-        }
-
-        return results;
+        return searchCatalog(query, Instrument.Type.SIP, 10, null);
     }
 
     /**
      * Search all asset types
      */
     public java.util.List<Map<String, Object>> searchAllAssets(String query, String assetType) {
+        return searchAllAssets(query, assetType, null);
+    }
+
+    /**
+     * Search all asset types, allowing up to maxDistance typos per query word (null picks by word length)
+     */
+    public java.util.List<Map<String, Object>> searchAllAssets(String query, String assetType, Integer maxDistance) {
         if (assetType == null || assetType.isEmpty() || assetType.equalsIgnoreCase("ALL")) {
-            // Search all types and combine results
-            java.util.List<Map<String, Object>> allResults = new java.util.ArrayList<>();
-            allResults.addAll(searchStocks(query));
-            allResults.addAll(searchBonds(query));
-            allResults.addAll(searchMutualFunds(query));
-            allResults.addAll(searchSIPs(query));
-
-            // Sort by relevance and limit
-            return allResults.stream()
-                    .sorted((a, b) -> {
-                        int scoreA = calculateRelevanceScore(a, query);
-                        int scoreB = calculateRelevanceScore(b, query);
-                        return scoreB - scoreA;
-                    })
-                    .limit(15)
-                    .collect(java.util.stream.Collectors.toList());
+            // One ranked lookup across every type
+            return searchCatalog(query, null, 15, maxDistance);
         }
 
         switch (assetType.toUpperCase()) {
-            case "STOCK":
-                return searchStocks(query);
             case "BOND":
-                return searchBonds(query);
+                return searchCatalog(query, Instrument.Type.BOND, 10, maxDistance);
             case "MUTUAL_FUND":
-                return searchMutualFunds(query);
+                return searchCatalog(query, Instrument.Type.MUTUAL_FUND, 10, maxDistance);
             case "SIP":
-                return searchSIPs(query);
+                return searchCatalog(query, Instrument.Type.SIP, 10, maxDistance);
             default:
-                return searchStocks(query);
+                return searchCatalog(query, Instrument.Type.STOCK, 10, maxDistance);
         }
     }
 
     /**
-     * Calculate relevance score for sorting search results
-     */
-    private int calculateRelevanceScore(Map<String, Object> result, String query) {
-        String symbol = ((String) result.get("symbol")).toLowerCase();
-        String name = ((String) result.get("name")).toLowerCase();
-        String queryLower = query.toLowerCase();
-
-        // Exact match on symbol
-        if (symbol.equals(queryLower)) return 100;
-        // Symbol starts with query
-        if (symbol.startsWith(queryLower)) return 90;
-        // Name starts with query
-        if (name.startsWith(queryLower)) return 80;
-        // Symbol contains query
-        if (symbol.contains(queryLower)) return 70;
-        // Name contains query
-        if (name.contains(queryLower)) return 60;
-        // Fuzzy match
-        return 50;
-    }
-
-    /**
-     * Fuzzy match helper using Levenshtein distance
+     * Look the query up in the instrument catalog, typos included. Each result carries the
+     * breakdown of its relevance score. Stocks carry their cached price, or null when none is
+     * cached: search never calls a provider, so typeahead costs no quota or latency.
      */
-    private boolean fuzzyMatch(String text, String query) {
-        if (text == null || query == null) return false;
-
-        String textLower = text.toLowerCase();
-        String queryLower = query.toLowerCase();
-
-        // Exact match or contains
-        if (textLower.contains(queryLower)) return true;
-
-        // Split query into words for partial matching
-        String[] queryWords = queryLower.split("\\s+");
-        for (String word : queryWords) {
-            if (word.length() >= 2 && textLower.contains(word)) {
-                return true;
-            }
-        }
-
-        // Levenshtein distance for typo tolerance
-        if (query.length() >= 3) {
-            int distance = levenshteinDistance(textLower, queryLower);
-            int maxLength = Math.max(textLower.length(), queryLower.length());
-            double similarity = 1.0 - ((double) distance / maxLength);
-            return similarity > 0.6; // 60% similarity threshold
-        }
-
-        return false;
-    }
-
-    /**
-     * Calculate Levenshtein distance between two strings
-     */
-    private int levenshteinDistance(String s1, String s2) {
-        int[][] dp = new int[s1.length() + 1][s2.length() + 1];
-
-        for (int i = 0; i <= s1.length(); i++) {
-            for (int j = 0; j <= s2.length(); j++) {
-                if (i == 0) {
-                    dp[i][j] = j;
-                } else if (j == 0) {
-                    dp[i][j] = i;
-                } else {
-                    int cost = s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1;
-                    dp[i][j] = Math.min(
-                            Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1),
-                            dp[i - 1][j - 1] + cost
-                    );
-                }
+    private java.util.List<Map<String, Object>> searchCatalog(String query, Instrument.Type type, int limit,
+            Integer maxDistance) {
+        java.util.List<SearchHit> hits = instrumentCatalog.rank(query, type, limit, maxDistance);
+
+        java.util.List<Map<String, Object>> results = new java.util.ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            Instrument instrument = hit.getInstrument();
+            Map<String, Object> result = instrument.toSearchResult();
+            result.put("relevance", hit.getScoreBreakdown());
+            if (instrument.getType() == Instrument.Type.STOCK) {
+                CachedPrice cached = priceCache.peekServable(instrument.getSymbol());
+                result.put("price", cached != null ? cached.getPrice() : null);
             }
+            results.add(result);
         }
-        return dp[s1.length()][s2.length()];
+        return results;
     }
 
-    /**
-     * Inner class for price caching
-     */
-    private static class CachedPrice {
-        private final BigDecimal price;
-        private final long timestamp;
-
-        public CachedPrice(BigDecimal price) {
-            this.price = price;
-            this.timestamp = System.currentTimeMillis();
-        }
-
-        public boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_DURATION_MS;
-        }
-    }
     public Map<String, Object> fetchStockData(String symbol) {
 
         Map<String, Object> data = new HashMap<>();
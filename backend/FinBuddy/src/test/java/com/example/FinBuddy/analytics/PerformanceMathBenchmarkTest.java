@@ -0,0 +1,66 @@
+package com.example.FinBuddy.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Microbenchmark: the analytics kernels over a 10-year daily series.
+ * Opt-in, run with {@code mvn test -Dtest=PerformanceMathBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("PerformanceMath benchmark")
+class PerformanceMathBenchmarkTest {
+
+    private static final int DAYS = 10 * 365;
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    @Test
+    void measureKernelsOverTenYears() {
+        Random random = new Random(42);
+        double[] values = new double[DAYS];
+        double[] flows = new double[DAYS];
+        values[0] = 10_000;
+        for (int i = 1; i < DAYS; i++) {
+            flows[i] = i % 30 == 0 ? 500 : 0;
+            values[i] = values[i - 1] * (1 + random.nextGaussian() * 0.01 + 0.0003) + flows[i];
+        }
+        double[] amounts = new double[121];
+        double[] years = new double[121];
+        for (int i = 0; i < 120; i++) {
+            amounts[i] = -500;
+            years[i] = i / 12.0;
+        }
+        amounts[120] = values[DAYS - 1];
+        years[120] = 10;
+
+        double sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += run(values, flows, amounts, years);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += run(values, flows, amounts, years);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("TWR + volatility + Sharpe + Sortino + drawdown + XIRR over %d days: %.1f us/op%n",
+                DAYS, elapsed / 1000.0 / ITERATIONS);
+        assertThat(sink).isFinite();
+    }
+
+    private static double run(double[] values, double[] flows, double[] amounts, double[] years) {
+        double[] returns = PerformanceMath.periodReturns(values, flows);
+        return PerformanceMath.timeWeightedReturn(returns)
+                + PerformanceMath.annualizedVolatility(returns, 365)
+                + PerformanceMath.sharpeRatio(returns, 0.02, 365)
+                + PerformanceMath.sortinoRatio(returns, 0.02, 365)
+                + PerformanceMath.maxDrawdown(PerformanceMath.wealthIndex(returns), null)
+                + PerformanceMath.xirr(amounts, years);
+    }
+}
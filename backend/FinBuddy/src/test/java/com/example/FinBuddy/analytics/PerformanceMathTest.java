@@ -0,0 +1,70 @@
+package com.example.FinBuddy.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Unit tests for PerformanceMath
+ */
+@DisplayName("PerformanceMath Tests")
+class PerformanceMathTest {
+
+    @Test
+    @DisplayName("Should not count cash flows as return when chaining periods")
+    void shouldChainReturnsNetOfFlows() {
+        // Arrange: +10%, then 1000 added, then -5%
+        double[] values = {1000, 1100, 2100, 1995};
+        double[] flows = {0, 0, 1000, 0};
+
+        // Act
+        double[] returns = PerformanceMath.periodReturns(values, flows);
+        double twr = PerformanceMath.timeWeightedReturn(returns);
+
+        // Assert
+        assertThat(returns).containsExactly(new double[] {0.10, 0.0, -0.05}, within(1e-12));
+        assertThat(twr).isCloseTo(1.10 * 0.95 - 1, within(1e-12));
+        assertThat(PerformanceMath.annualize(0.21, 2)).isCloseTo(0.10, within(1e-12));
+    }
+
+    @Test
+    @DisplayName("Should find the deepest fall from a running peak")
+    void shouldFindMaxDrawdown() {
+        int[] range = new int[2];
+
+        double drawdown = PerformanceMath.maxDrawdown(new double[] {1, 1.2, 0.9, 1.3, 1.04, 1.5}, range);
+
+        assertThat(drawdown).isCloseTo(0.25, within(1e-12));
+        assertThat(range).containsExactly(1, 2);
+        assertThat(PerformanceMath.maxDrawdown(new double[] {1, 2, 3}, null)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should compute volatility, Sharpe and Sortino from period returns")
+    void shouldComputeRiskRatios() {
+        double[] returns = {0.01, -0.02, 0.03, 0.0};
+
+        // Mean 0.005, sample standard deviation sqrt(0.0013 / 3)
+        double deviation = Math.sqrt(0.0013 / 3);
+        assertThat(PerformanceMath.annualizedVolatility(returns, 252)).isCloseTo(deviation * Math.sqrt(252), within(1e-12));
+        assertThat(PerformanceMath.sharpeRatio(returns, 0, 252)).isCloseTo(0.005 / deviation * Math.sqrt(252), within(1e-9));
+        // Downside deviation sqrt(0.0004 / 4) = 0.01
+        assertThat(PerformanceMath.sortinoRatio(returns, 0, 252)).isCloseTo(0.5 * Math.sqrt(252), within(1e-9));
+        assertThat(PerformanceMath.sharpeRatio(new double[] {0.01}, 0, 252)).isNaN();
+    }
+
+    @Test
+    @DisplayName("Should solve XIRR for irregular flows and reject flows without a sign change")
+    void shouldSolveXirr() {
+        // 1000 invested, 500 more after half a year, 1700 back after a year
+        double rate = PerformanceMath.xirr(new double[] {-1000, -500, 1700}, new double[] {0, 0.5, 1});
+        double npv = -1000 - 500 / Math.sqrt(1 + rate) + 1700 / (1 + rate);
+
+        assertThat(npv).isCloseTo(0, within(1e-6));
+        assertThat(PerformanceMath.xirr(new double[] {-1000, 1100}, new double[] {0, 1})).isCloseTo(0.10, within(1e-9));
+        assertThat(PerformanceMath.xirr(new double[] {-1000, 10}, new double[] {0, 1})).isCloseTo(-0.99, within(1e-6));
+        assertThat(PerformanceMath.xirr(new double[] {1000, 1100}, new double[] {0, 1})).isNaN();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.FinBuddy.controllers;
 
+import com.example.FinBuddy.marketdata.CachedPrice;
 import com.example.FinBuddy.services.StockPriceService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -38,6 +39,7 @@ class MarketDataControllerTest {
     void shouldGetStockPrice() throws Exception {
         // Arrange
         when(stockPriceService.getRealTimePrice("AAPL")).thenReturn(new BigDecimal("180.50"));
+        when(stockPriceService.getCachedQuote("AAPL")).thenReturn(new CachedPrice(new BigDecimal("180.50"), 60_000));
 
         // Act & Assert
         mockMvc.perform(get("/api/market/price/AAPL"))
@@ -46,11 +48,34 @@ class MarketDataControllerTest {
                 .andExpect(jsonPath("$.symbol", is("AAPL")))
                 .andExpect(jsonPath("$.price", is(180.50)))
                 .andExpect(jsonPath("$.timestamp").exists())
-                .andExpect(jsonPath("$.source", is("live")));
+                .andExpect(jsonPath("$.source", is("live")))
+                .andExpect(jsonPath("$.stale", is(false)));
 
         verify(stockPriceService, times(1)).getRealTimePrice("AAPL");
     }
 
+    @Test
+    @DisplayName("GET /api/market/price/{symbol} - Should report stale and mock quotes by their source")
+    void shouldReportQuoteSource() throws Exception {
+        // Arrange
+        long fiveMinutesAgo = System.currentTimeMillis() - 300_000;
+        when(stockPriceService.getRealTimePrice("AAPL")).thenReturn(new BigDecimal("180.50"));
+        when(stockPriceService.getCachedQuote("AAPL"))
+                .thenReturn(new CachedPrice(new BigDecimal("180.50"), fiveMinutesAgo, 60_000));
+        when(stockPriceService.getRealTimePrice("XYZ")).thenReturn(new BigDecimal("42.00"));
+        when(stockPriceService.getCachedQuote("XYZ"))
+                .thenReturn(new CachedPrice(new BigDecimal("42.00"), System.currentTimeMillis(), 30_000, true));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/market/price/AAPL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.source", is("cache")))
+                .andExpect(jsonPath("$.stale", is(true)));
+        mockMvc.perform(get("/api/market/price/XYZ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.source", is("mock")));
+    }
+
     @Test
     @DisplayName("GET /api/market/price/{symbol} - Should handle unavailable price")
     void shouldHandleUnavailablePrice() throws Exception {
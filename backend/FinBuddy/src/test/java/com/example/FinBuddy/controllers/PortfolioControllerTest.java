@@ -1,5 +1,7 @@
 package com.example.FinBuddy.controllers;
 
+import com.example.FinBuddy.dto.CursorPage;
+import com.example.FinBuddy.dto.PortfolioSummaryDTO;
 import com.example.FinBuddy.entities.Portfolio;
 import com.example.FinBuddy.services.PortfolioService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -63,8 +65,11 @@ class PortfolioControllerTest {
     @DisplayName("GET /api/portfolios - Should return all portfolios")
     void shouldGetAllPortfolios() throws Exception {
         // Arrange
-        List<Portfolio> portfolios = Arrays.asList(testPortfolio);
-        when(portfolioService.getAllPortfolios()).thenReturn(portfolios);
+        List<PortfolioSummaryDTO> portfolios = Arrays.asList(new PortfolioSummaryDTO(
+                1L, "Test Portfolio", "Test Description", "USD", new BigDecimal("10000.00"),
+                new BigDecimal("8000.00"), new BigDecimal("2000.00"), new BigDecimal("25.00"),
+                LocalDateTime.now(), LocalDateTime.now()));
+        when(portfolioService.getPortfolioSummaryPage(null, 100)).thenReturn(new CursorPage<>(portfolios, null));
 
         // Act & Assert
         mockMvc.perform(get("/api/portfolios"))
@@ -74,7 +79,7 @@ class PortfolioControllerTest {
                 .andExpect(jsonPath("$[0].name", is("Test Portfolio")))
                 .andExpect(jsonPath("$[0].baseCurrency", is("USD")));
 
-        verify(portfolioService, times(1)).getAllPortfolios();
+        verify(portfolioService, times(1)).getPortfolioSummaryPage(null, 100);
     }
 
     @Test
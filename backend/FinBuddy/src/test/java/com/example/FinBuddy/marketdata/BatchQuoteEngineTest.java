@@ -0,0 +1,85 @@
+package com.example.FinBuddy.marketdata;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for BatchQuoteEngine
+ */
+@DisplayName("BatchQuoteEngine Tests")
+class BatchQuoteEngineTest {
+
+    private final BatchQuoteEngine engine = new BatchQuoteEngine(4, 200);
+    private final CountDownLatch slowProvider = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        slowProvider.countDown();
+        engine.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should return the quotes that arrived by the deadline and report the slow ones")
+    void shouldReturnPartialResultsAtDeadline() {
+        // Arrange: fast provider for AAPL and MSFT, a provider that hangs for TSLA, one that fails for BAD
+        Map<String, Function<String, BigDecimal>> providers = Map.of(
+                "AAPL", symbol -> new BigDecimal("180.50"),
+                "MSFT", symbol -> new BigDecimal("410.00"),
+                "TSLA", symbol -> {
+                    awaitQuietly(slowProvider);
+                    return new BigDecimal("250.00");
+                },
+                "BAD", symbol -> {
+                    throw new IllegalStateException("no quote");
+                });
+
+        // Act
+        long start = System.nanoTime();
+        BatchResult<BigDecimal> result = engine.fetchAll(List.of("AAPL", "TSLA", "MSFT", "BAD", "AAPL"),
+                symbol -> providers.get(symbol).apply(symbol));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertThat(result.getResults().keySet()).containsExactly("AAPL", "MSFT");
+        assertThat(result.getTimedOut()).containsExactly("TSLA");
+        assertThat(result.getFailed()).containsExactly("BAD");
+        assertThat(result.isPartial()).isTrue();
+        assertThat(elapsedMs).isBetween(150L, 2000L);
+    }
+
+    @Test
+    @DisplayName("Should return as soon as every load finished, well before the deadline")
+    void shouldNotWaitForDeadlineWhenAllComplete() {
+        // Arrange
+        BatchQuoteEngine patient = new BatchQuoteEngine(4, 5000);
+
+        // Act
+        long start = System.nanoTime();
+        BatchResult<String> result = patient.fetchAll(List.of("AAPL", "MSFT"), symbol -> symbol.toLowerCase());
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        patient.shutdown();
+
+        // Assert
+        assertThat(result.getResults()).containsEntry("AAPL", "aapl").containsEntry("MSFT", "msft");
+        assertThat(result.isPartial()).isFalse();
+        assertThat(elapsedMs).isLessThan(2000L);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.FinBuddy.marketdata;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for BkTree and EditDistance
+ */
+@DisplayName("BkTree Tests")
+class BkTreeTest {
+
+    @Test
+    @DisplayName("Should compute edit distance up to the bound and cap it beyond")
+    void shouldBoundEditDistance() {
+        assertThat(EditDistance.bounded("kitten", "sitting", 3)).isEqualTo(3);
+        assertThat(EditDistance.bounded("kitten", "sitting", 2)).isEqualTo(3);
+        assertThat(EditDistance.bounded("vanguard", "vangaurd", 2)).isEqualTo(2);
+        assertThat(EditDistance.bounded("bond", "bond", 1)).isZero();
+        assertThat(EditDistance.bounded("", "ab", 2)).isEqualTo(2);
+        assertThat(EditDistance.bounded("a", "abcdef", 2)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should find every term within range and nothing further")
+    void shouldFindTermsWithinRange() {
+        // Arrange
+        BkTree tree = new BkTree();
+        String[] terms = {"bond", "band", "bank", "banking", "blond", "fund", "found", "bond"};
+        for (int i = 0; i < terms.length; i++) {
+            tree.add(terms[i], i);
+        }
+
+        // Act
+        Map<String, Integer> found = new TreeMap<>();
+        tree.search("bond", 1, (term, value, distance) -> found.put(term, distance));
+
+        // Assert
+        assertThat(tree.size()).isEqualTo(7);
+        assertThat(found).containsExactly(Map.entry("band", 1), Map.entry("blond", 1), Map.entry("bond", 0));
+    }
+}
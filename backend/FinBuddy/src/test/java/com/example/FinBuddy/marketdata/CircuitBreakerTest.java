@@ -0,0 +1,124 @@
+package com.example.FinBuddy.marketdata;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for CircuitBreaker
+ */
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private CircuitBreaker newBreaker() {
+        return new CircuitBreaker("test", 10, 4, 0.5, 1000, 1, 100, 5000, 2.0, clock::get);
+    }
+
+    @Test
+    @DisplayName("Should open after the failure rate threshold and reject calls without invoking them")
+    void shouldOpenAndFailFast() {
+        // Arrange
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 4; i++) {
+            breaker.protect(Mono.error(new TimeoutException())).onErrorResume(e -> Mono.empty()).block();
+        }
+        AtomicLong invocations = new AtomicLong();
+
+        // Act & Assert
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> breaker.protect(Mono.fromCallable(invocations::incrementAndGet)).block())
+                .isInstanceOf(CircuitBreaker.CallNotPermittedException.class);
+        assertThat(invocations.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should close after a successful half-open probe and reopen after a failed one")
+    void shouldProbeWhenHalfOpen() {
+        // Arrange
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+
+        // Act - failed probe after the cool-down
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        breaker.onFailure();
+
+        // Assert
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // Act - successful probe after the next cool-down
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertThat(breaker.protect(Mono.just("ok")).block()).isEqualTo("ok");
+
+        // Assert
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should derive the call timeout from p99 latency")
+    void shouldAdaptTimeoutToLatency() {
+        // Arrange
+        CircuitBreaker breaker = newBreaker();
+        assertThat(breaker.getTimeout()).isEqualTo(Duration.ofMillis(5000));
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            breaker.onSuccess(i == 49 ? 300 : 100);
+        }
+
+        // Assert - p99 of 50 samples is the slowest one, doubled
+        assertThat(breaker.getTimeout()).isEqualTo(Duration.ofMillis(600));
+    }
+
+    @Test
+    @DisplayName("Should grow the timeout when calls time out")
+    void shouldGrowTimeoutOnTimeouts() {
+        // Arrange
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 50; i++) {
+            breaker.onSuccess(100);
+        }
+        assertThat(breaker.getTimeout()).isEqualTo(Duration.ofMillis(200));
+
+        // Act
+        breaker.onTimeout(200);
+
+        // Assert - the timed-out call counts as a 200ms sample, doubled
+        assertThat(breaker.getTimeout()).isEqualTo(Duration.ofMillis(400));
+    }
+
+    @Test
+    @DisplayName("Should close again when the provider recovers slower than the learned timeout")
+    void shouldRecoverWithSlowerProvider() {
+        // Arrange - timeout learned at 200ms, then the breaker opens
+        CircuitBreaker breaker = newBreaker();
+        for (int i = 0; i < 50; i++) {
+            breaker.onSuccess(100);
+        }
+        for (int i = 0; i < 5; i++) {
+            breaker.onFailure();
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        // Act - the probe answers after 300ms, beyond the learned timeout
+        String result = breaker.protect(Mono.delay(Duration.ofMillis(300)).map(tick -> "ok")).block();
+
+        // Assert
+        assertThat(result).isEqualTo("ok");
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.FinBuddy.marketdata;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for InstrumentCatalog
+ */
+@DisplayName("InstrumentCatalog Tests")
+class InstrumentCatalogTest {
+
+    private final InstrumentCatalog catalog = new InstrumentCatalog();
+
+    @Test
+    @DisplayName("Should load the bundled instruments file")
+    void shouldLoadBundledCatalog() {
+        assertThat(catalog.size()).isEqualTo(80);
+        assertThat(catalog.getInstruments(Instrument.Type.SIP)).hasSize(20);
+    }
+
+    @Test
+    @DisplayName("Should rank exact and prefix symbol matches ahead of name matches")
+    void shouldRankSymbolMatchesFirst() {
+        List<String> symbols = symbols(catalog.search("apple", null, 15));
+
+        assertThat(symbols).containsExactly("AAPL", "AAPL-2030");
+        assertThat(symbols(catalog.search("hdfc", null, 15)))
+                .startsWith("HDFCBANK", "HDFC-2027", "HDFC-EQUITY", "HDFC-MIDCAP", "HDFC-SIP-EQUITY", "HDFC-SIP-MIDCAP");
+        assertThat(symbols(catalog.search("v", Instrument.Type.STOCK, 10))).containsExactly("V");
+    }
+
+    @Test
+    @DisplayName("Should require every query word to start a word of the instrument")
+    void shouldMatchAllWords() {
+        assertThat(symbols(catalog.search("vanguard total bo", null, 10))).containsExactly("BND");
+        assertThat(symbols(catalog.search("banking", Instrument.Type.STOCK, 10)))
+                .containsExactly("JPM", "HDFCBANK", "ICICIBANK", "SBIN", "KOTAKBANK");
+        assertThat(catalog.search("vanguard xyz", null, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should match misspelt words within the allowed edits, after exact matches")
+    void shouldMatchTypos() {
+        assertThat(symbols(catalog.search("microsfot", Instrument.Type.STOCK, 10))).containsExactly("MSFT");
+        assertThat(symbols(catalog.search("vangaurd total bond", null, 10))).containsExactly("BND");
+        assertThat(catalog.search("microsfot", Instrument.Type.STOCK, 10, 0)).isEmpty();
+        assertThat(symbols(catalog.search("microsoft", null, 10))).containsExactly("MSFT", "MSFT-2028");
+    }
+
+    @Test
+    @DisplayName("Should explain each hit's score")
+    void shouldReturnScoreBreakdown() {
+        List<SearchHit> hits = catalog.rank("microsfot", null, 5, null);
+
+        assertThat(hits).extracting(SearchHit::getMatch).containsOnly(SearchHit.Match.TYPO);
+        assertThat(hits.get(0).getScoreBreakdown())
+                .containsEntry("score", 38)
+                .containsEntry("match", "TYPO")
+                .containsEntry("typoPenalty", 2);
+        assertThat(catalog.rank("AAPL", null, 1, null).get(0).getMatch()).isEqualTo(SearchHit.Match.SYMBOL_EXACT);
+    }
+
+    @Test
+    @DisplayName("Should build search results with type-specific details and reference price")
+    void shouldBuildSearchResult() {
+        Map<String, Object> fund = catalog.search("VFIAX", Instrument.Type.MUTUAL_FUND, 1).get(0).toSearchResult();
+
+        assertThat(fund.get("type")).isEqualTo("Mutual Fund");
+        assertThat(fund.get("fundHouse")).isEqualTo("Vanguard");
+        assertThat((BigDecimal) fund.get("price")).isEqualByComparingTo("425.75");
+    }
+
+    @Test
+    @DisplayName("Should parse a catalog with a header row and comments")
+    void shouldParseCsv() throws IOException {
+        List<Instrument> parsed = InstrumentCatalog.parse(new StringReader(
+                "# comment\ntype,symbol,name,issuer,couponRate,currency\nBOND,X1,Test Bond,Acme,2.5,USD\n"));
+
+        assertThat(parsed).hasSize(1);
+        assertThat(parsed.get(0).getDetail("couponRate")).isEqualTo(new BigDecimal("2.5"));
+        assertThat(parsed.get(0).getReferencePrice()).isEqualByComparingTo("100.00");
+    }
+
+    private static List<String> symbols(List<Instrument> instruments) {
+        return instruments.stream().map(Instrument::getSymbol).collect(Collectors.toList());
+    }
+}
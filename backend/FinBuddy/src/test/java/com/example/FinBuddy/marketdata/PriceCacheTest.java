@@ -0,0 +1,103 @@
+package com.example.FinBuddy.marketdata;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PriceCache
+ */
+@DisplayName("PriceCache Tests")
+class PriceCacheTest {
+
+    @Test
+    @DisplayName("Should return cached price and count hits and misses")
+    void shouldCountHitsAndMisses() {
+        // Arrange
+        PriceCache cache = new PriceCache(100, 60_000, 10_000, 0);
+        cache.put("AAPL", new BigDecimal("180.50"));
+
+        // Act
+        BigDecimal hit = cache.getFresh("AAPL");
+        BigDecimal miss = cache.getFresh("MSFT");
+        Map<String, Object> stats = cache.getStats();
+
+        // Assert
+        assertThat(hit).isEqualByComparingTo("180.50");
+        assertThat(miss).isNull();
+        assertThat(stats.get("hitCount")).isEqualTo(1L);
+        assertThat(stats.get("missCount")).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should not return price once its TTL has passed")
+    void shouldExpireEntries() throws InterruptedException {
+        // Arrange
+        PriceCache cache = new PriceCache(100, 20, 20, 0);
+        cache.put("AAPL", new BigDecimal("180.50"));
+
+        // Act
+        Thread.sleep(50);
+
+        // Assert
+        assertThat(cache.getFresh("AAPL")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep serving an expired price within the max staleness")
+    void shouldServeStaleWithinBound() throws InterruptedException {
+        // Arrange
+        PriceCache cache = new PriceCache(100, 20, 20, 60_000);
+        cache.put("AAPL", new BigDecimal("180.50"));
+
+        // Act
+        Thread.sleep(50);
+        CachedPrice stale = cache.getServable("AAPL");
+
+        // Assert
+        assertThat(cache.getFresh("AAPL")).isNull();
+        assertThat(stale).isNotNull();
+        assertThat(stale.isExpired()).isTrue();
+        assertThat(stale.getPrice()).isEqualByComparingTo("180.50");
+        assertThat(cache.getStats().get("staleHitCount")).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should evict entries beyond the maximum size")
+    void shouldEvictBeyondMaximumSize() {
+        // Arrange
+        PriceCache cache = new PriceCache(10, 60_000, 60_000, 0);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            cache.put("SYM" + i, BigDecimal.valueOf(i));
+        }
+        cache.cleanUp();
+
+        // Assert
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat((Long) cache.getStats().get("evictionCount")).isGreaterThanOrEqualTo(90L);
+    }
+
+    @Test
+    @DisplayName("Should restore quotes fetched before a restart only while they are servable")
+    void shouldRestoreServableQuotes() {
+        // Arrange
+        PriceCache cache = new PriceCache(10, 60_000, 60_000, 60_000);
+        long now = System.currentTimeMillis();
+
+        // Act
+        boolean recent = cache.restore("AAPL", new BigDecimal("180.50"), now - 90_000);
+        boolean old = cache.restore("MSFT", new BigDecimal("410.00"), now - 180_000);
+
+        // Assert
+        assertThat(recent).isTrue();
+        assertThat(old).isFalse();
+        assertThat(cache.peekServable("AAPL").isExpired()).isTrue();
+        assertThat(cache.peekServable("MSFT")).isNull();
+    }
+}
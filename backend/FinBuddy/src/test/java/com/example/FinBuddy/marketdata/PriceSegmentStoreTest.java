@@ -0,0 +1,125 @@
+package com.example.FinBuddy.marketdata;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PriceSegmentStore
+ */
+@DisplayName("PriceSegmentStore Tests")
+class PriceSegmentStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should map persisted series back in after a restart and keep appending")
+    void shouldRestoreAfterRestart() {
+        // Arrange
+        PriceHistoryStore before = new PriceHistoryStore(new PriceSegmentStore(directory));
+        int ticks = PriceSeries.CHUNK_TICKS + 5;
+        for (int i = 1; i <= ticks; i++) {
+            before.record("^GSPC", i * 1000L, 4000 + i);
+        }
+        before.record("AAPL", 5000, 150.25);
+
+        // Act
+        PriceHistoryStore after = new PriceHistoryStore(new PriceSegmentStore(directory));
+        after.record("^GSPC", (ticks + 1) * 1000L, 1.0);
+
+        // Assert
+        assertThat(after.getSymbols()).containsExactlyInAnyOrder("^GSPC", "AAPL");
+        assertThat(after.getSeries("^GSPC").size()).isEqualTo(ticks + 1);
+        assertThat(after.asOf("^GSPC", 4097_000L)).isEqualTo(4000.0 + 4097);
+        assertThat(after.getSeries("AAPL").lastPrice()).isEqualTo(150.25);
+        assertThat(new PriceSegmentStore(directory).restore())
+                .filteredOn(series -> series.getSymbol().equals("^GSPC"))
+                .singleElement()
+                .satisfies(series -> assertThat(series.lastPrice()).isEqualTo(1.0));
+    }
+
+    @Test
+    @DisplayName("Should recover the tick count from the times written before a crash")
+    void shouldRecoverAfterCrash() throws IOException {
+        // Arrange
+        PriceHistoryStore store = new PriceHistoryStore(new PriceSegmentStore(directory));
+        for (int i = 1; i <= 10; i++) {
+            store.record("MSFT", i * 1000L, 300 + i);
+        }
+        Path segment = directory.resolve("MSFT").resolve("00000000.seg");
+
+        // Act: count never updated for the last 4 ticks
+        writeCount(segment, 6);
+        List<PriceSeries> missedCount = new PriceSegmentStore(directory).restore();
+        // Act: count updated but the time of the last tick never written
+        writeLong(segment, PriceSegmentStore.HEADER_BYTES + 9 * Long.BYTES, 0);
+        writeCount(segment, 10);
+        List<PriceSeries> tornTick = new PriceSegmentStore(directory).restore();
+
+        // Assert
+        assertThat(missedCount.get(0).size()).isEqualTo(10);
+        assertThat(tornTick.get(0).size()).isEqualTo(9);
+        assertThat(tornTick.get(0).lastPrice()).isEqualTo(309.0);
+    }
+
+    @Test
+    @DisplayName("Should discard segments that do not continue the series")
+    void shouldDiscardUnrecoverableSegments() throws IOException {
+        PriceHistoryStore store = new PriceHistoryStore(new PriceSegmentStore(directory));
+        store.record("TSLA", 1000, 200.0);
+        Path symbolDirectory = directory.resolve("TSLA");
+        Files.copy(symbolDirectory.resolve("00000000.seg"), symbolDirectory.resolve("00000001.seg"));
+
+        List<PriceSeries> restored = new PriceSegmentStore(directory).restore();
+
+        assertThat(restored.get(0).size()).isEqualTo(1);
+        assertThat(symbolDirectory.resolve("00000001.seg")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Should keep every symbol in its own case-normalized directory under the store")
+    void shouldEncodeSymbolDirectories() throws IOException {
+        // Arrange
+        PriceHistoryStore store = new PriceHistoryStore(new PriceSegmentStore(directory));
+
+        // Act
+        store.record("..", 1000, 1.0);
+        store.record(".", 1000, 2.0);
+        store.record("brk.b", 1000, 400.0);
+        store.record("BRK.B", 2000, 401.0);
+        store.record("EUR/USD", 1000, 1.08);
+
+        // Assert
+        try (var names = Files.list(directory)) {
+            assertThat(names.map(path -> path.getFileName().toString()))
+                    .containsExactlyInAnyOrder("%2E%2E", "%2E", "BRK%2EB", "EUR%2FUSD");
+        }
+        assertThat(store.getSeries("brk.b").size()).isEqualTo(2);
+        assertThat(new PriceSegmentStore(directory).restore())
+                .extracting(PriceSeries::getSymbol)
+                .containsExactlyInAnyOrder("..", ".", "BRK.B", "EUR/USD");
+    }
+
+    private static void writeCount(Path segment, int count) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, count), 12);
+        }
+    }
+
+    private static void writeLong(Path segment, long position, long value) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, value), position);
+        }
+    }
+}
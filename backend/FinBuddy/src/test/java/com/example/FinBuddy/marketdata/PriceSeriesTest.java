@@ -0,0 +1,74 @@
+package com.example.FinBuddy.marketdata;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PriceSeries and PriceHistoryStore
+ */
+@DisplayName("PriceSeries Tests")
+class PriceSeriesTest {
+
+    @Test
+    @DisplayName("Should scan ranges and answer as-of lookups across chunk boundaries")
+    void shouldScanAcrossChunks() {
+        // Arrange
+        PriceSeries series = new PriceSeries("AAPL");
+        int ticks = PriceSeries.CHUNK_TICKS * 2 + 10;
+        for (int i = 0; i < ticks; i++) {
+            series.append(i * 1000L, 100 + i);
+        }
+
+        // Act
+        PriceSlice slice = series.range(4095_000L, 4098_000L);
+
+        // Assert
+        assertThat(series.size()).isEqualTo(ticks);
+        assertThat(slice.getTimes()).containsExactly(4095_000L, 4096_000L, 4097_000L);
+        assertThat(slice.getPrices()).containsExactly(4195.0, 4196.0, 4197.0);
+        assertThat(series.asOf(8191_500L)).isEqualTo(8291.0);
+        assertThat(series.asOf(-1)).isNaN();
+        assertThat(series.range(ticks * 1000L, Long.MAX_VALUE).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should roll ticks up into OHLC bars and keep time monotonic")
+    void shouldRollUpBars() {
+        // Arrange
+        PriceSeries series = new PriceSeries("MSFT");
+        series.append(0, 10);
+        series.append(20, 14);
+        series.append(40, 9);
+        series.append(130, 11);
+        series.append(100, 12); // out of order: recorded at 130
+
+        // Act
+        List<PriceBar> bars = series.rollup(0, 1000, 100);
+
+        // Assert
+        assertThat(series.lastTime()).isEqualTo(130);
+        assertThat(bars).hasSize(2);
+        assertThat(bars.get(0)).extracting(PriceBar::getStart, PriceBar::getOpen, PriceBar::getHigh,
+                PriceBar::getLow, PriceBar::getClose, PriceBar::getTicks).containsExactly(0L, 10.0, 14.0, 9.0, 9.0, 3);
+        assertThat(bars.get(1)).extracting(PriceBar::getStart, PriceBar::getClose, PriceBar::getTicks)
+                .containsExactly(100L, 12.0, 2);
+    }
+
+    @Test
+    @DisplayName("Should keep one series per symbol in the store")
+    void shouldKeepSeriesPerSymbol() {
+        PriceHistoryStore store = new PriceHistoryStore();
+        store.record("AAPL", 1000, 150.0);
+        store.record("AAPL", 2000, 151.0);
+        store.record("MSFT", 1500, 300.0);
+
+        assertThat(store.getSymbols()).containsExactlyInAnyOrder("AAPL", "MSFT");
+        assertThat(store.asOf("AAPL", 1999)).isEqualTo(150.0);
+        assertThat(store.range("GOOGL", 0, 5000).isEmpty()).isTrue();
+        assertThat(store.getStats()).containsEntry("ticks", 3L);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.FinBuddy.marketdata;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TokenBucket
+ */
+@DisplayName("TokenBucket Tests")
+class TokenBucketTest {
+
+    @Test
+    @DisplayName("Should allow a burst and then deny once the bucket is empty")
+    void shouldDenyWhenBurstExhausted() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket("test", 60, 3, 0);
+
+        // Act
+        boolean first = bucket.tryAcquire(CallPriority.INTERACTIVE, 0);
+        boolean second = bucket.tryAcquire(CallPriority.INTERACTIVE, 0);
+        boolean third = bucket.tryAcquire(CallPriority.INTERACTIVE, 0);
+        boolean fourth = bucket.tryAcquire(CallPriority.INTERACTIVE, 0);
+
+        // Assert
+        assertThat(first && second && third).isTrue();
+        assertThat(fourth).isFalse();
+        assertThat(bucket.getGrantedCount()).isEqualTo(3);
+        assertThat(bucket.getDeniedCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep reserved tokens for interactive callers")
+    void shouldReserveTokensForInteractiveCalls() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket("test", 60, 3, 2);
+
+        // Act
+        boolean background = bucket.tryAcquire(CallPriority.BACKGROUND, 0);
+        boolean backgroundAgain = bucket.tryAcquire(CallPriority.BACKGROUND, 0);
+        boolean interactive = bucket.tryAcquire(CallPriority.INTERACTIVE, 0);
+
+        // Assert
+        assertThat(background).isTrue();
+        assertThat(backgroundAgain).isFalse();
+        assertThat(interactive).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should stop granting after the provider throttles")
+    void shouldDrainOnThrottle() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket("test", 60, 5, 0);
+
+        // Act
+        bucket.drain();
+        boolean acquired = bucket.tryAcquire(CallPriority.INTERACTIVE, 0);
+
+        // Assert
+        assertThat(acquired).isFalse();
+    }
+}
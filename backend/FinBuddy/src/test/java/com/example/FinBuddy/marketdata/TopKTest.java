@@ -0,0 +1,43 @@
+package com.example.FinBuddy.marketdata;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for TopK
+ */
+@DisplayName("TopK Tests")
+class TopKTest {
+
+    @Test
+    @DisplayName("Should keep only the k best items, best first")
+    void shouldKeepBestItems() {
+        // Arrange
+        TopK<Integer> top = new TopK<>(3, Comparator.reverseOrder());
+
+        // Act
+        for (int value : new int[] {5, 1, 9, 7, 3, 9, 2}) {
+            top.offer(value);
+        }
+
+        // Assert
+        assertThat(top.size()).isEqualTo(3);
+        assertThat(top.toList()).containsExactly(9, 9, 7);
+        assertThat(new TopK<Integer>(0, Comparator.naturalOrder()).toList()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should merge sorted lists into the k best overall")
+    void shouldMergeSortedLists() {
+        List<List<Integer>> sorted = List.of(List.of(1, 4, 9), List.of(), List.of(2, 3, 10), List.of(5));
+
+        assertThat(TopK.merge(sorted, Comparator.naturalOrder(), 5)).containsExactly(1, 2, 3, 4, 5);
+        assertThat(TopK.merge(sorted, Comparator.naturalOrder(), 20)).containsExactly(1, 2, 3, 4, 5, 9, 10);
+        assertThat(TopK.merge(List.of(List.of(1, 2)), Comparator.naturalOrder(), 1)).containsExactly(1);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.FinBuddy.marketdata.provider;
+
+import com.example.FinBuddy.marketdata.CallPriority;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for MarketDataProviderChain and ReplayMarketDataProvider
+ */
+@DisplayName("MarketDataProviderChain Tests")
+class MarketDataProviderChainTest {
+
+    @Test
+    @DisplayName("Should replay recorded quotes in file order and loop")
+    void shouldReplayRecordedQuotes() throws Exception {
+        // Arrange
+        Map<String, List<BigDecimal>> recorded = ReplayMarketDataProvider.parse(new StringReader(
+                "symbol,price\n# comment\nAAPL,180.00\nMSFT,370.00\naapl,181.50\n"));
+        ReplayMarketDataProvider replay = new ReplayMarketDataProvider(true, recorded, 0, 0, 0, true);
+
+        // Act
+        BigDecimal first = replay.getQuote("AAPL", CallPriority.INTERACTIVE);
+        BigDecimal second = replay.getQuote("AAPL", CallPriority.INTERACTIVE);
+        BigDecimal third = replay.getQuote("AAPL", CallPriority.INTERACTIVE);
+
+        // Assert
+        assertThat(first).isEqualByComparingTo("180.00");
+        assertThat(second).isEqualByComparingTo("181.50");
+        assertThat(third).isEqualByComparingTo("180.00");
+        assertThat(replay.getQuote("TSLA", CallPriority.INTERACTIVE)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should ask providers in order and only pass on unanswered symbols")
+    void shouldFallThroughProvidersInOrder() {
+        // Arrange
+        ReplayMarketDataProvider secondary = new ReplayMarketDataProvider(true,
+                Map.of("AAPL", List.of(new BigDecimal("1.00")), "MSFT", List.of(new BigDecimal("2.00"))),
+                20, 0, 0, true);
+        ReplayMarketDataProvider primary = new ReplayMarketDataProvider(true,
+                Map.of("AAPL", List.of(new BigDecimal("180.00"))), 10, 0, 0, true);
+        ReplayMarketDataProvider disabled = new ReplayMarketDataProvider(false,
+                Map.of("MSFT", List.of(new BigDecimal("999.00"))), 0, 0, 0, true);
+        MarketDataProviderChain chain = new MarketDataProviderChain(List.of(secondary, primary, disabled));
+
+        // Act
+        Map<String, BigDecimal> quotes = chain.getQuotes(List.of("AAPL", "MSFT", "TSLA"), CallPriority.BACKGROUND);
+
+        // Assert
+        assertThat(quotes).containsOnlyKeys("AAPL", "MSFT");
+        assertThat(quotes.get("AAPL")).isEqualByComparingTo("180.00");
+        assertThat(quotes.get("MSFT")).isEqualByComparingTo("2.00");
+        assertThat(chain.getQuote("MSFT", CallPriority.INTERACTIVE)).isEqualByComparingTo("2.00");
+    }
+}
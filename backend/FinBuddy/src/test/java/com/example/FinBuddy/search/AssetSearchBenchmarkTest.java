@@ -0,0 +1,118 @@
+package com.example.FinBuddy.search;
+
+import com.example.FinBuddy.entities.Asset;
+import com.example.FinBuddy.entities.Portfolio;
+import com.example.FinBuddy.entities.Stock;
+import com.example.FinBuddy.repositories.AssetRepository;
+import com.example.FinBuddy.repositories.PortfolioRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Microbenchmark: asset search through the n-gram index vs. the LIKE query it replaces.
+ * Opt-in, run with {@code mvn test -Dtest=AssetSearchBenchmarkTest -Dbenchmark=true}.
+ */
+@DataJpaTest(showSql = false)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Asset search benchmark")
+class AssetSearchBenchmarkTest {
+
+    private static final int ASSETS = 20_000;
+    private static final int ITERATIONS = 50;
+    private static final String[] WORDS = {"Global", "Apple", "Energy", "Capital", "Health", "Micro", "Systems",
+            "Bank", "Pharma", "Motors", "Tech", "Retail", "Power", "Mining", "Foods", "Digital", "Holdings"};
+    private static final String[] QUERIES = {"ap", "tech", "motors", "capital hea", "xq", "ab1"};
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Test
+    void compareIndexWithLikeQuery() {
+        seed();
+        AssetSearchIndex searchIndex = new AssetSearchIndex(assetRepository, true);
+        long buildStart = System.nanoTime();
+        searchIndex.rebuild();
+        System.out.printf("Index build over %d assets: %d ms%n", ASSETS,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - buildStart));
+
+        for (String query : QUERIES) {
+            List<Long> likeIds = ids(assetRepository.searchByNameOrSymbol(query));
+            List<Long> indexIds = searchIndex.search(query, null);
+            assertThat(indexIds).containsExactlyInAnyOrderElementsOf(likeIds);
+
+            long likeNanos = time(() -> assetRepository.searchByNameOrSymbol(query));
+            long lookupNanos = time(() -> searchIndex.search(query, null));
+            long indexNanos = time(() -> assetRepository.findAllById(searchIndex.search(query, null)));
+            System.out.printf("%-13s %5d hits   LIKE %8.3f ms/op   index lookup %7.3f ms/op   lookup + load %8.3f ms/op%n",
+                    "'" + query + "'", likeIds.size(), likeNanos / 1e6, lookupNanos / 1e6, indexNanos / 1e6);
+        }
+    }
+
+    private void seed() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("Benchmark");
+        portfolio.setBaseCurrency("USD");
+        portfolio = portfolioRepository.save(portfolio);
+
+        Random random = new Random(42);
+        List<Asset> assets = new ArrayList<>(ASSETS);
+        for (int i = 0; i < ASSETS; i++) {
+            Stock stock = new Stock();
+            stock.setPortfolio(portfolio);
+            stock.setName(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i);
+            stock.setSymbol(Character.toString('A' + random.nextInt(26)) + (char) ('A' + random.nextInt(26)) + i);
+            stock.setQuantity(1);
+            stock.setPurchasePrice(BigDecimal.TEN);
+            stock.setCurrentPrice(BigDecimal.TEN);
+            stock.setPurchaseDate(LocalDate.now());
+            stock.calculateMetrics();
+            assets.add(stock);
+        }
+        assetRepository.saveAll(assets);
+        assetRepository.flush();
+        // Start from an empty persistence context so both paths really read from the database
+        testEntityManager.clear();
+    }
+
+    /**
+     * Average nanoseconds per call after a warm-up round; loaded entities are evicted after each call
+     */
+    private long time(Runnable search) {
+        for (int i = 0; i < ITERATIONS / 5; i++) {
+            search.run();
+            testEntityManager.clear();
+        }
+        long elapsed = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            search.run();
+            elapsed += System.nanoTime() - start;
+            testEntityManager.clear();
+        }
+        return elapsed / ITERATIONS;
+    }
+
+    private static List<Long> ids(List<Asset> assets) {
+        return assets.stream().map(Asset::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.FinBuddy.search;
+
+import com.example.FinBuddy.dto.AssetSummaryDTO;
+import com.example.FinBuddy.repositories.AssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the asset search index
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AssetSearchIndex Tests")
+class AssetSearchIndexTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    private AssetSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(assetRepository.findSummariesAfter(eq(0L), any(Pageable.class))).thenReturn(Arrays.asList(
+                row(1L, "STOCK", "AAPL", "Apple Inc."),
+                row(2L, "STOCK", "APP", "AppLovin Corp"),
+                row(3L, "STOCK", "PAPL", "Pineapple Holdings"),
+                row(4L, "BOND", "US10Y", "US Treasury 10 Year"),
+                row(5L, "MUTUAL_FUND", "VFIAX", "Vanguard 500 Index Admiral")));
+        searchIndex = new AssetSearchIndex(assetRepository, true);
+        searchIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should rank exact symbol, then symbol prefix, then name matches")
+    void shouldRankMatches() {
+        assertThat(searchIndex.isReady()).isTrue();
+        assertThat(searchIndex.search("app", null)).containsExactly(2L, 1L, 3L);
+        assertThat(searchIndex.search("APPLE", null)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should match short terms and filter by asset type")
+    void shouldMatchShortTermsByType() {
+        assertThat(searchIndex.search("us", "BOND")).containsExactly(4L);
+        assertThat(searchIndex.search("a", "MUTUAL_FUND")).containsExactly(5L);
+        assertThat(searchIndex.search("zz", null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not return documents that only share the term's trigrams")
+    void shouldVerifyTrigramCandidates() {
+        NGramIndex index = new NGramIndex();
+        index.put(1L, "abc bcd");
+        index.put(2L, "xabcdx");
+
+        assertThat(index.search("abcd")).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Should re-index renamed assets and forget removed ones")
+    void shouldReindexAndRemove() {
+        NGramIndex index = new NGramIndex();
+        index.put(1L, "TSLA", "Tesla");
+        index.put(1L, "TSLA", "Tesla Motors");
+        index.put(2L, "F", "Ford Motor");
+
+        assertThat(index.search("motors")).containsExactly(1L);
+        index.remove(1L);
+        assertThat(index.search("tesla")).isEmpty();
+        assertThat(index.search("motor")).containsExactly(2L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private static AssetSummaryDTO row(Long id, String type, String symbol, String name) {
+        AssetSummaryDTO row = new AssetSummaryDTO();
+        row.setId(id);
+        row.setAssetType(type);
+        row.setSymbol(symbol);
+        row.setName(name);
+        return row;
+    }
+}
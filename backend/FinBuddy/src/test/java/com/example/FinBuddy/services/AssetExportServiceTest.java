@@ -0,0 +1,88 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.entities.Portfolio;
+import com.example.FinBuddy.entities.Stock;
+import com.example.FinBuddy.repositories.AssetRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AssetExportService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AssetExportService Tests")
+class AssetExportServiceTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private AssetExportService assetExportService;
+
+    @BeforeEach
+    void setUp() {
+        assetExportService = new AssetExportService(assetRepository, entityManager, objectMapper);
+    }
+
+    private Stock stock(Long id, String symbol, Long portfolioId) {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setId(portfolioId);
+        Stock stock = new Stock();
+        stock.setId(id);
+        stock.setName(symbol + " Inc.");
+        stock.setSymbol(symbol);
+        stock.setQuantity(10);
+        stock.setPurchasePrice(new BigDecimal("100.00"));
+        stock.setCurrentPrice(new BigDecimal("150.00"));
+        stock.setPurchaseDate(LocalDate.of(2024, 1, 15));
+        stock.setPortfolio(portfolio);
+        stock.calculateMetrics();
+        return stock;
+    }
+
+    @Test
+    @DisplayName("Should write one JSON line per asset, with its portfolio id")
+    void shouldExportAssetsWithPortfolioId() throws Exception {
+        // Arrange
+        Stock apple = stock(1L, "AAPL", 7L);
+        Stock microsoft = stock(2L, "MSFT", 8L);
+        when(assetRepository.streamAll()).thenReturn(Stream.of(apple, microsoft));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = assetExportService.exportAssets(out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("portfolioId").asLong()).isEqualTo(7L);
+        assertThat(first.get("id").asLong()).isEqualTo(1L);
+        assertThat(first.get("symbol").asText()).isEqualTo("AAPL");
+        assertThat(first.get("assetType").asText()).isEqualTo("STOCK");
+        assertThat(objectMapper.readTree(lines[1]).get("portfolioId").asLong()).isEqualTo(8L);
+        verify(entityManager).detach(apple);
+        verify(entityManager).detach(microsoft);
+    }
+}
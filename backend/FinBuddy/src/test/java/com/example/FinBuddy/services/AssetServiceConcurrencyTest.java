@@ -0,0 +1,111 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.entities.Portfolio;
+import com.example.FinBuddy.entities.Stock;
+import com.example.FinBuddy.repositories.AssetRepository;
+import com.example.FinBuddy.repositories.PortfolioHistoryRepository;
+import com.example.FinBuddy.repositories.PortfolioRepository;
+import com.example.FinBuddy.search.AssetSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Concurrent asset writes against a real database: every write must land in the portfolio totals
+ */
+@DataJpaTest(showSql = false)
+@Import({AssetService.class, PortfolioService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("AssetService Concurrency Tests")
+class AssetServiceConcurrencyTest {
+
+    @Autowired
+    private AssetService assetService;
+
+    @Autowired
+    private PortfolioRepository portfolioRepository;
+
+    @Autowired
+    private AssetRepository assetRepository;
+
+    @Autowired
+    private PortfolioHistoryRepository portfolioHistoryRepository;
+
+    @MockBean
+    private AssetSearchIndex assetSearchIndex;
+
+    @MockBean
+    private PortfolioHistoryRollupService historyRollupService;
+
+    @MockBean
+    private PortfolioHistoryBackfillService historyBackfillService;
+
+    @AfterEach
+    void tearDown() {
+        portfolioHistoryRepository.deleteAll();
+        assetRepository.deleteAll();
+        portfolioRepository.deleteAll();
+    }
+
+    private Stock stock(String symbol) {
+        Stock stock = new Stock();
+        stock.setName(symbol + " Inc.");
+        stock.setSymbol(symbol);
+        stock.setQuantity(10);
+        stock.setPurchasePrice(new BigDecimal("100.00"));
+        stock.setCurrentPrice(new BigDecimal("150.00"));
+        stock.setPurchaseDate(LocalDate.now());
+        return stock;
+    }
+
+    @Test
+    @DisplayName("Should keep both totals when two assets are added after both writers read the portfolio")
+    void shouldNotLoseConcurrentAssetDeltas() throws Exception {
+        // Arrange
+        Portfolio portfolio = new Portfolio();
+        portfolio.setName("Concurrent");
+        Long portfolioId = portfolioRepository.save(portfolio).getId();
+
+        // Each writer has read the portfolio and saved its asset before either applies its delta
+        CyclicBarrier bothRead = new CyclicBarrier(2);
+        doAnswer(invocation -> {
+            bothRead.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(assetSearchIndex).onAssetSaved(any());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Act
+        try {
+            Future<?> first = executor.submit(() -> assetService.createAsset(stock("AAPL"), portfolioId));
+            Future<?> second = executor.submit(() -> assetService.createAsset(stock("MSFT"), portfolioId));
+            first.get(30, TimeUnit.SECONDS);
+            second.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        Portfolio saved = portfolioRepository.findById(portfolioId).orElseThrow();
+        assertThat(saved.getTotalValue()).isEqualByComparingTo("3000.00");
+        assertThat(saved.getTotalInvestment()).isEqualByComparingTo("2000.00");
+        assertThat(saved.getTotalGainLoss()).isEqualByComparingTo("1000.00");
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.FinBuddy.services;
 
+import com.example.FinBuddy.dto.AssetSummaryDTO;
+import com.example.FinBuddy.dto.CursorPage;
+import com.example.FinBuddy.dto.PageCursor;
 import com.example.FinBuddy.entities.Asset;
 import com.example.FinBuddy.entities.Portfolio;
 import com.example.FinBuddy.entities.Stock;
+import com.example.FinBuddy.exceptions.InvalidRequestException;
 import com.example.FinBuddy.repositories.AssetRepository;
 import com.example.FinBuddy.repositories.PortfolioRepository;
+import com.example.FinBuddy.search.AssetSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -12,6 +17,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -24,6 +31,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -42,6 +50,9 @@ class AssetServiceTest {
     @Mock
     private PortfolioService portfolioService;
 
+    @Mock
+    private AssetSearchIndex assetSearchIndex;
+
     @InjectMocks
     private AssetService assetService;
 
@@ -85,7 +96,8 @@ class AssetServiceTest {
 
         when(portfolioRepository.findById(1L)).thenReturn(Optional.of(testPortfolio));
         when(assetRepository.save(any(Asset.class))).thenReturn(newStock);
-        doNothing().when(portfolioService).recalculatePortfolioMetrics(1L);
+        when(portfolioService.applyAssetDelta(eq(1L), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(testPortfolio);
 
         // Act
         Asset created = assetService.createAsset(newStock, 1L);
@@ -95,7 +107,8 @@ class AssetServiceTest {
         assertThat(created.getSymbol()).isEqualTo("MSFT");
         verify(portfolioRepository, times(1)).findById(1L);
         verify(assetRepository, times(1)).save(any(Asset.class));
-        verify(portfolioService, times(1)).recalculatePortfolioMetrics(1L);
+        verify(portfolioService, times(1)).applyAssetDelta(1L, new BigDecimal("1750.00"), new BigDecimal("1500.00"));
+        verify(portfolioService, never()).recalculatePortfolioMetrics(anyLong());
     }
 
     @Test
@@ -239,7 +252,8 @@ class AssetServiceTest {
 
         when(assetRepository.findById(1L)).thenReturn(Optional.of(testStock));
         when(assetRepository.save(any(Asset.class))).thenReturn(testStock);
-        when(portfolioService.recalculatePortfolioMetrics(anyLong())).thenReturn(testPortfolio);
+        when(portfolioService.applyAssetDelta(anyLong(), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(testPortfolio);
 
         // Act
         Asset updated = assetService.updateAsset(1L, updates);
@@ -248,7 +262,7 @@ class AssetServiceTest {
         assertThat(updated).isNotNull();
         verify(assetRepository, times(1)).findById(1L);
         verify(assetRepository, times(1)).save(any(Asset.class));
-        verify(portfolioService, times(1)).recalculatePortfolioMetrics(anyLong());
+        verify(portfolioService, times(1)).applyAssetDelta(anyLong(), any(BigDecimal.class), any(BigDecimal.class));
     }
 
     @Test
@@ -272,7 +286,8 @@ class AssetServiceTest {
         // Arrange
         when(assetRepository.findById(1L)).thenReturn(Optional.of(testStock));
         doNothing().when(assetRepository).deleteById(1L);
-        when(portfolioService.recalculatePortfolioMetrics(anyLong())).thenReturn(testPortfolio);
+        when(portfolioService.applyAssetDelta(anyLong(), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(testPortfolio);
 
         // Act
         assetService.deleteAsset(1L);
@@ -280,7 +295,7 @@ class AssetServiceTest {
         // Assert
         verify(assetRepository, times(1)).findById(1L);
         verify(assetRepository, times(1)).deleteById(1L);
-        verify(portfolioService, times(1)).recalculatePortfolioMetrics(anyLong());
+        verify(portfolioService, times(1)).applyAssetDelta(1L, new BigDecimal("-1800.00"), new BigDecimal("-1500.00"));
     }
 
     @Test
@@ -304,15 +319,66 @@ class AssetServiceTest {
         BigDecimal newPrice = new BigDecimal("190.00");
         when(assetRepository.findById(1L)).thenReturn(Optional.of(testStock));
         when(assetRepository.save(any(Asset.class))).thenReturn(testStock);
-        when(portfolioService.recalculatePortfolioMetrics(anyLong())).thenReturn(testPortfolio);
+        when(portfolioService.applyAssetDelta(anyLong(), any(BigDecimal.class), any(BigDecimal.class)))
+                .thenReturn(testPortfolio);
 
         // Act
         Asset updated = assetService.updateAssetPrice(1L, newPrice);
 
-        // Assert
+        // Assert: only this asset's change in value reaches the portfolio
         assertThat(updated).isNotNull();
         verify(assetRepository, times(1)).findById(1L);
         verify(assetRepository, times(1)).save(any(Asset.class));
-        verify(portfolioService, times(1)).recalculatePortfolioMetrics(anyLong());
+        verify(portfolioService, times(1)).applyAssetDelta(1L, new BigDecimal("100.00"), new BigDecimal("0.00"));
+        verify(portfolioService, never()).recalculatePortfolioMetrics(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should page asset rows by id and hand out a cursor while more remain")
+    void shouldPageAssetSummariesWithCursor() {
+        // Arrange: limit + 1 rows come back, so there is a next page
+        List<AssetSummaryDTO> rows = Arrays.asList(summary(11L), summary(12L), summary(13L));
+        when(assetRepository.findSummariesAfter(eq(10L), any(Pageable.class))).thenReturn(rows);
+
+        // Act
+        CursorPage<AssetSummaryDTO> page = assetService.getAssetSummaryPage(PageCursor.of(10L).encode(), 2);
+
+        // Assert
+        assertThat(page.getItems()).extracting(AssetSummaryDTO::getId).containsExactly(11L, 12L);
+        assertThat(PageCursor.decode(page.getNextCursor()).getId()).isEqualTo(12L);
+        verify(assetRepository).findSummariesAfter(10L, PageRequest.ofSize(3));
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed page cursor")
+    void shouldRejectMalformedCursor() {
+        assertThatThrownBy(() -> assetService.getAssetSummaryPage("not-a-cursor", 10))
+                .isInstanceOf(InvalidRequestException.class);
+        verifyNoInteractions(assetRepository);
+    }
+
+    private static AssetSummaryDTO summary(Long id) {
+        AssetSummaryDTO row = new AssetSummaryDTO();
+        row.setId(id);
+        return row;
+    }
+
+    @Test
+    @DisplayName("Should serve search from the index in rank order once it is built")
+    void shouldSearchThroughIndex() {
+        // Arrange: the index ranks id 2 first; id 3 no longer exists in the database
+        Stock other = new Stock();
+        other.setId(2L);
+        when(assetSearchIndex.isReady()).thenReturn(true);
+        when(assetSearchIndex.search("app", "STOCK")).thenReturn(Arrays.asList(2L, 1L, 3L));
+        when(assetRepository.findAllById(Arrays.asList(2L, 1L, 3L))).thenReturn(Arrays.asList(testStock, other));
+
+        // Act
+        List<Asset> result = assetService.searchStocks("app");
+
+        // Assert
+        assertThat(result).extracting(Asset::getId).containsExactly(2L, 1L);
+        verify(assetSearchIndex).remove(3L);
+        verify(assetRepository, never()).searchStocks(any());
     }
 }
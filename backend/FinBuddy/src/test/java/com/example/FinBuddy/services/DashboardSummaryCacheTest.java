@@ -0,0 +1,88 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.dto.DashboardSummaryDTO;
+import com.example.FinBuddy.events.PortfolioChangedEvent;
+import com.example.FinBuddy.services.DashboardSummaryCache.CachedDashboard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DashboardSummaryCache
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardSummaryCache Tests")
+class DashboardSummaryCacheTest {
+
+    @Mock
+    private PortfolioService portfolioService;
+
+    private DashboardSummaryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DashboardSummaryCache(portfolioService);
+    }
+
+    @Test
+    @DisplayName("Should serve the cached summary until the portfolio changes")
+    void shouldCacheUntilPortfolioChanges() {
+        // Arrange
+        when(portfolioService.getDashboardSummary(1L))
+                .thenReturn(new DashboardSummaryDTO(), new DashboardSummaryDTO());
+
+        // Act
+        CachedDashboard first = cache.get(1L);
+        CachedDashboard second = cache.get(1L);
+        cache.onPortfolioChanged(new PortfolioChangedEvent(1L, false));
+        CachedDashboard third = cache.get(1L);
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        assertThat(third.getSummary()).isNotSameAs(first.getSummary());
+        assertThat(third.getEtag()).isNotEqualTo(first.getEtag());
+        verify(portfolioService, times(2)).getDashboardSummary(1L);
+    }
+
+    @Test
+    @DisplayName("Should only invalidate the changed portfolio")
+    void shouldInvalidateOnlyChangedPortfolio() {
+        // Arrange
+        when(portfolioService.getDashboardSummary(anyLong())).thenAnswer(invocation -> new DashboardSummaryDTO());
+        CachedDashboard other = cache.get(2L);
+        cache.get(1L);
+
+        // Act
+        cache.onPortfolioChanged(new PortfolioChangedEvent(1L, false));
+
+        // Assert
+        assertThat(cache.get(2L)).isSameAs(other);
+        assertThat(cache.getStats()).containsEntry("invalidations", 1L);
+    }
+
+    @Test
+    @DisplayName("Should not cache a summary the portfolio changed under while it was computed")
+    void shouldNotCacheSummaryComputedDuringChange() {
+        // Arrange - the portfolio changes while the first summary is being computed
+        when(portfolioService.getDashboardSummary(1L)).thenAnswer(invocation -> {
+            cache.onPortfolioChanged(new PortfolioChangedEvent(1L, false));
+            return new DashboardSummaryDTO();
+        }).thenReturn(new DashboardSummaryDTO());
+
+        // Act
+        CachedDashboard during = cache.get(1L);
+        CachedDashboard after = cache.get(1L);
+
+        // Assert
+        assertThat(after).isNotSameAs(during);
+        assertThat(after.getVersion()).isGreaterThan(during.getVersion());
+        assertThat(cache.get(1L)).isSameAs(after);
+        verify(portfolioService, times(2)).getDashboardSummary(1L);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.dto.PortfolioAnalyticsDTO;
+import com.example.FinBuddy.entities.Asset;
+import com.example.FinBuddy.entities.PortfolioHistory;
+import com.example.FinBuddy.entities.Stock;
+import com.example.FinBuddy.events.PortfolioChangedEvent;
+import com.example.FinBuddy.exceptions.ResourceNotFoundException;
+import com.example.FinBuddy.repositories.AssetRepository;
+import com.example.FinBuddy.repositories.PortfolioHistoryRepository;
+import com.example.FinBuddy.repositories.PortfolioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PortfolioAnalyticsService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PortfolioAnalyticsService Tests")
+class PortfolioAnalyticsServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    @Mock
+    private PortfolioHistoryRepository portfolioHistoryRepository;
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    private PortfolioAnalyticsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PortfolioAnalyticsService(portfolioRepository, portfolioHistoryRepository, assetRepository, 0.0);
+    }
+
+    @Test
+    @DisplayName("Should compute returns net of added investment and locate the drawdown")
+    void shouldComputeAnalyticsFromHistory() {
+        // Arrange: +10%, 1000 invested (value +1000), then -5%
+        List<PortfolioHistory> history = List.of(
+                snapshot(0, "1000", "1000"),
+                snapshot(1, "1100", "1000"),
+                snapshot(2, "2100", "2000"),
+                snapshot(3, "1995", "2000"));
+
+        // Act
+        PortfolioAnalyticsDTO analytics = service.compute(1L, history, List.of(), START.plusDays(3));
+
+        // Assert
+        assertThat(analytics.getObservations()).isEqualTo(4);
+        assertThat(analytics.getTimeWeightedReturn()).isCloseTo(1.10 * 0.95 - 1, within(1e-9));
+        assertThat(analytics.getMaxDrawdown()).isCloseTo(0.05, within(1e-9));
+        // The growth index peaks on day 1; adding money on day 2 is not a new high
+        assertThat(analytics.getMaxDrawdownPeakDate()).isEqualTo(START.plusDays(1));
+        assertThat(analytics.getMaxDrawdownTroughDate()).isEqualTo(START.plusDays(3));
+        assertThat(analytics.getAnnualizedVolatility()).isPositive();
+        assertThat(analytics.getXirr()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should leave backfilled snapshots out of the analytics")
+    void shouldIgnoreBackfilledHistory() {
+        // Arrange: a straight backfilled climb, then recorded days with +10% and -5%
+        PortfolioHistory backfilled = snapshot(0, "900", "1000");
+        backfilled.setSynthetic(true);
+        PortfolioHistory backfilledLater = snapshot(1, "950", "1000");
+        backfilledLater.setSynthetic(true);
+        List<PortfolioHistory> history = List.of(
+                backfilled,
+                backfilledLater,
+                snapshot(2, "1000", "1000"),
+                snapshot(3, "1100", "1000"),
+                snapshot(4, "1045", "1000"));
+
+        // Act
+        PortfolioAnalyticsDTO analytics = service.compute(1L, history, List.of(), START.plusDays(4));
+
+        // Assert
+        assertThat(analytics.getObservations()).isEqualTo(3);
+        assertThat(analytics.getStartDate()).isEqualTo(START.plusDays(2));
+        assertThat(analytics.getTimeWeightedReturn()).isCloseTo(0.045, within(1e-9));
+        assertThat(analytics.getMaxDrawdown()).isCloseTo(0.05, within(1e-9));
+        assertThat(analytics.getMaxDrawdownPeakDate()).isEqualTo(START.plusDays(3));
+    }
+
+    @Test
+    @DisplayName("Should compute XIRR from asset purchases and current value")
+    void shouldComputeXirrFromAssets() {
+        Asset asset = new Stock();
+        asset.setPurchaseDate(START);
+        asset.setInvestedAmount(new BigDecimal("1000"));
+        asset.setCurrentValue(new BigDecimal("1100"));
+
+        PortfolioAnalyticsDTO analytics = service.compute(1L, List.of(), List.of(asset), START.plusDays(365));
+
+        assertThat(analytics.getXirr()).isCloseTo(Math.pow(1.1, 365.25 / 365) - 1, within(1e-9));
+        assertThat(analytics.getTimeWeightedReturn()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should serve cached analytics until the portfolio changes")
+    void shouldCacheUntilPortfolioChanges() {
+        // Arrange
+        when(portfolioRepository.existsById(1L)).thenReturn(true);
+        when(portfolioHistoryRepository.findByPortfolioIdOrderByRecordDateAsc(1L)).thenReturn(List.of());
+        when(assetRepository.findByPortfolioIdAndIsWishlistFalse(1L)).thenReturn(List.of());
+
+        // Act
+        PortfolioAnalyticsDTO first = service.getAnalytics(1L);
+        PortfolioAnalyticsDTO second = service.getAnalytics(1L);
+        service.onPortfolioChanged(new PortfolioChangedEvent(1L, false));
+        PortfolioAnalyticsDTO third = service.getAnalytics(1L);
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        assertThat(third).isNotSameAs(first);
+        verify(portfolioHistoryRepository, times(2)).findByPortfolioIdOrderByRecordDateAsc(1L);
+        assertThat(service.getStats()).containsEntry("hits", 1L);
+    }
+
+    @Test
+    @DisplayName("Should not cache analytics the portfolio changed under while they were computed")
+    void shouldNotCacheAnalyticsComputedDuringChange() {
+        // Arrange - the portfolio changes while the first analytics are being computed
+        when(portfolioRepository.existsById(1L)).thenReturn(true);
+        when(portfolioHistoryRepository.findByPortfolioIdOrderByRecordDateAsc(1L)).thenAnswer(invocation -> {
+            service.onPortfolioChanged(new PortfolioChangedEvent(1L, false));
+            return List.of();
+        }).thenReturn(List.of());
+        when(assetRepository.findByPortfolioIdAndIsWishlistFalse(1L)).thenReturn(List.of());
+
+        // Act
+        PortfolioAnalyticsDTO during = service.getAnalytics(1L);
+        PortfolioAnalyticsDTO after = service.getAnalytics(1L);
+
+        // Assert
+        assertThat(after).isNotSameAs(during);
+        assertThat(service.getAnalytics(1L)).isSameAs(after);
+        verify(portfolioHistoryRepository, times(2)).findByPortfolioIdOrderByRecordDateAsc(1L);
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown portfolio")
+    void shouldRejectUnknownPortfolio() {
+        when(portfolioRepository.existsById(9L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.getAnalytics(9L)).isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private static PortfolioHistory snapshot(int day, String value, String investment) {
+        PortfolioHistory snapshot = new PortfolioHistory();
+        snapshot.setRecordDate(START.plusDays(day));
+        snapshot.setTotalValue(new BigDecimal(value));
+        snapshot.setTotalInvestment(new BigDecimal(investment));
+        return snapshot;
+    }
+}
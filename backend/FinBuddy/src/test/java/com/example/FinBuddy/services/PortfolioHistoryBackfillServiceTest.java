@@ -0,0 +1,118 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.entities.Portfolio;
+import com.example.FinBuddy.entities.PortfolioHistory;
+import com.example.FinBuddy.entities.Stock;
+import com.example.FinBuddy.marketdata.PriceCache;
+import com.example.FinBuddy.repositories.PortfolioHistoryRepository;
+import com.example.FinBuddy.repositories.PortfolioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PortfolioHistoryBackfillService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PortfolioHistoryBackfillService Tests")
+class PortfolioHistoryBackfillServiceTest {
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    @Mock
+    private PortfolioHistoryRepository portfolioHistoryRepository;
+
+    @Mock
+    private PortfolioHistoryRollupService historyRollupService;
+
+    @Mock
+    private PriceCache priceCache;
+
+    private PortfolioHistoryBackfillService backfillService;
+    private Portfolio portfolio;
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        backfillService = new PortfolioHistoryBackfillService(portfolioRepository, portfolioHistoryRepository,
+                historyRollupService, priceCache, true, 30);
+
+        portfolio = new Portfolio();
+        portfolio.setId(1L);
+        Stock stock = new Stock();
+        stock.setId(10L);
+        stock.setSymbol("AAPL");
+        stock.setQuantity(10);
+        stock.setPurchasePrice(new BigDecimal("100.00"));
+        stock.setCurrentPrice(new BigDecimal("150.00"));
+        stock.setPurchaseDate(today.minusDays(10));
+        stock.setIsWishlist(false);
+        portfolio.getAssets().add(stock);
+    }
+
+    @Test
+    @DisplayName("Should write one deterministic snapshot per day before the first recorded one")
+    void shouldBackfillDaysBeforeFirstSnapshot() {
+        // Arrange: today is already recorded
+        PortfolioHistory recorded = new PortfolioHistory();
+        recorded.setRecordDate(today);
+        when(portfolioRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(portfolio));
+        when(portfolioRepository.findByIdWithAssets(1L)).thenReturn(Optional.of(portfolio));
+        when(portfolioHistoryRepository.findFirstByPortfolioIdOrderByRecordDateAsc(1L))
+                .thenReturn(Optional.of(recorded));
+
+        // Act
+        List<PortfolioHistory> snapshots = backfillService.backfill(1L);
+
+        // Assert: purchase day at cost, halfway at the midpoint price
+        assertThat(snapshots).hasSize(10);
+        assertThat(snapshots.get(0).getRecordDate()).isEqualTo(today.minusDays(10));
+        assertThat(snapshots.get(0).getTotalValue()).isEqualByComparingTo("1000.00");
+        assertThat(snapshots.get(5).getTotalValue()).isEqualByComparingTo("1250.00");
+        assertThat(snapshots.get(5).getTotalInvestment()).isEqualByComparingTo("1000.00");
+        assertThat(snapshots).allMatch(PortfolioHistory::getSynthetic);
+        verify(portfolioHistoryRepository).saveAll(snapshots);
+        verify(historyRollupService).recordBackfill(1L, snapshots);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when history already covers the holdings")
+    void shouldSkipWhenHistoryCoversHoldings() {
+        // Arrange
+        PortfolioHistory recorded = new PortfolioHistory();
+        recorded.setRecordDate(today.minusDays(10));
+        when(portfolioRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(portfolio));
+        when(portfolioRepository.findByIdWithAssets(1L)).thenReturn(Optional.of(portfolio));
+        when(portfolioHistoryRepository.findFirstByPortfolioIdOrderByRecordDateAsc(1L))
+                .thenReturn(Optional.of(recorded));
+
+        // Act & Assert
+        assertThat(backfillService.backfill(1L)).isEmpty();
+        verify(portfolioHistoryRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should start the backfill at the purchase date, capped at max-days")
+    void shouldCapBackfillStartAtMaxDays() {
+        // Arrange
+        PortfolioHistoryBackfillService disabled = new PortfolioHistoryBackfillService(portfolioRepository,
+                portfolioHistoryRepository, historyRollupService, priceCache, false, 30);
+
+        // Act & Assert
+        assertThat(backfillService.backfillStart(today.minusDays(10), today)).isEqualTo(today.minusDays(10));
+        assertThat(backfillService.backfillStart(today.minusDays(90), today)).isEqualTo(today.minusDays(30));
+        assertThat(disabled.backfillStart(today.minusDays(10), today)).isNull();
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.entities.PortfolioHistory;
+import com.example.FinBuddy.entities.PortfolioHistoryRollup;
+import com.example.FinBuddy.entities.PortfolioHistoryRollup.Resolution;
+import com.example.FinBuddy.repositories.PortfolioHistoryRepository;
+import com.example.FinBuddy.repositories.PortfolioHistoryRollupRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PortfolioHistoryRollupService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PortfolioHistoryRollupService Tests")
+class PortfolioHistoryRollupServiceTest {
+
+    @Mock
+    private PortfolioHistoryRollupRepository rollupRepository;
+
+    @Mock
+    private PortfolioHistoryRepository portfolioHistoryRepository;
+
+    @InjectMocks
+    private PortfolioHistoryRollupService rollupService;
+
+    @Test
+    @DisplayName("Should pick the finest resolution that fits the point budget")
+    void shouldSelectResolutionForBudget() {
+        LocalDate end = LocalDate.of(2025, 12, 31);
+
+        assertThat(PortfolioHistoryRollupService.selectResolution(end.minusYears(1), end, 500))
+                .isEqualTo(Resolution.DAILY);
+        assertThat(PortfolioHistoryRollupService.selectResolution(end.minusYears(3), end, 500))
+                .isEqualTo(Resolution.WEEKLY);
+        assertThat(PortfolioHistoryRollupService.selectResolution(end.minusYears(10), end, 500))
+                .isEqualTo(Resolution.MONTHLY);
+    }
+
+    @Test
+    @DisplayName("Should fold a snapshot into its day, week and month")
+    @SuppressWarnings("unchecked")
+    void shouldRecordSnapshotInAllResolutions() {
+        // Arrange: Wednesday 2025-06-18 already has a daily rollup
+        LocalDate date = LocalDate.of(2025, 6, 18);
+        PortfolioHistoryRollup daily = new PortfolioHistoryRollup();
+        daily.setPortfolioId(1L);
+        daily.setResolution(Resolution.DAILY);
+        daily.setPeriodStart(date);
+        daily.addSample(new BigDecimal("100"), new BigDecimal("80"));
+        when(rollupRepository.findByPortfolioIdAndResolutionInAndPeriodStartIn(eq(1L), anyList(), anyList()))
+                .thenReturn(new ArrayList<>(List.of(daily)));
+
+        // Act
+        rollupService.record(1L, date, new BigDecimal("90"), new BigDecimal("80"));
+
+        // Assert
+        ArgumentCaptor<Iterable<PortfolioHistoryRollup>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(rollupRepository).saveAll(saved.capture());
+        List<PortfolioHistoryRollup> rollups = new ArrayList<>();
+        saved.getValue().forEach(rollups::add);
+        assertThat(rollups).extracting(PortfolioHistoryRollup::getPeriodStart)
+                .containsExactly(date, LocalDate.of(2025, 6, 16), LocalDate.of(2025, 6, 1));
+        assertThat(daily.getOpenValue()).isEqualByComparingTo("100");
+        assertThat(daily.getLowValue()).isEqualByComparingTo("90");
+        assertThat(daily.getCloseValue()).isEqualByComparingTo("90");
+        assertThat(daily.getSampleCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should fold backfilled days in front of recorded periods without losing their intraday range")
+    @SuppressWarnings("unchecked")
+    void shouldRecordBackfillBeforeRecordedDays() {
+        // Arrange: the week of Monday 2025-06-16 and its month were recorded intraday on the 18th
+        PortfolioHistoryRollup weekly = rollup(Resolution.WEEKLY, LocalDate.of(2025, 6, 16), "1000", "1200", "900");
+        PortfolioHistoryRollup monthly = rollup(Resolution.MONTHLY, LocalDate.of(2025, 6, 1), "1000", "1200", "900");
+        when(rollupRepository.findByPortfolioIdAndResolutionInAndPeriodStartIn(eq(1L), anyList(), anyList()))
+                .thenReturn(List.of(weekly, monthly));
+        List<PortfolioHistory> backfilled = List.of(
+                snapshot(LocalDate.of(2025, 6, 13), "940"),
+                snapshot(LocalDate.of(2025, 6, 16), "950"),
+                snapshot(LocalDate.of(2025, 6, 17), "1250"));
+
+        // Act
+        rollupService.recordBackfill(1L, backfilled);
+
+        // Assert
+        assertThat(weekly.getOpenValue()).isEqualByComparingTo("950");
+        assertThat(weekly.getHighValue()).isEqualByComparingTo("1250");
+        assertThat(weekly.getLowValue()).isEqualByComparingTo("900");
+        assertThat(weekly.getCloseValue()).isEqualByComparingTo("1000");
+        assertThat(weekly.getSampleCount()).isEqualTo(6);
+        assertThat(monthly.getOpenValue()).isEqualByComparingTo("940");
+        assertThat(monthly.getCloseValue()).isEqualByComparingTo("1000");
+
+        ArgumentCaptor<Iterable<PortfolioHistoryRollup>> saved = ArgumentCaptor.forClass(Iterable.class);
+        verify(rollupRepository).saveAll(saved.capture());
+        List<PortfolioHistoryRollup> rollups = new ArrayList<>();
+        saved.getValue().forEach(rollups::add);
+        // Three new daily rollups and the week before, next to the two updated ones
+        assertThat(rollups).hasSize(6).contains(weekly, monthly);
+        verify(rollupRepository, never()).deleteByPortfolioId(any());
+    }
+
+    @Test
+    @DisplayName("Should seed empty rollups one portfolio at a time")
+    void shouldSeedRollupsPerPortfolio() {
+        // Arrange
+        when(rollupRepository.count()).thenReturn(0L);
+        when(portfolioHistoryRepository.findPortfolioIds()).thenReturn(List.of(1L, 2L));
+        when(portfolioHistoryRepository.findByPortfolioIdOrderByRecordDateAscIdAsc(1L)).thenReturn(List.of(
+                snapshot(LocalDate.of(2025, 6, 16), "1000"),
+                snapshot(LocalDate.of(2025, 6, 17), "1100")));
+        when(portfolioHistoryRepository.findByPortfolioIdOrderByRecordDateAscIdAsc(2L)).thenReturn(List.of(
+                snapshot(LocalDate.of(2025, 6, 17), "500")));
+
+        // Act
+        int folded = rollupService.rebuildIfEmpty();
+
+        // Assert: each portfolio's rollups are written before the next portfolio is read
+        assertThat(folded).isEqualTo(3);
+        InOrder order = inOrder(portfolioHistoryRepository, rollupRepository);
+        order.verify(portfolioHistoryRepository).findByPortfolioIdOrderByRecordDateAscIdAsc(1L);
+        order.verify(rollupRepository).saveAll(anyCollection());
+        order.verify(portfolioHistoryRepository).findByPortfolioIdOrderByRecordDateAscIdAsc(2L);
+        order.verify(rollupRepository).saveAll(anyCollection());
+        verify(portfolioHistoryRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("Should not seed rollups that already exist")
+    void shouldNotSeedExistingRollups() {
+        when(rollupRepository.count()).thenReturn(12L);
+
+        assertThat(rollupService.rebuildIfEmpty()).isZero();
+
+        verifyNoInteractions(portfolioHistoryRepository);
+    }
+
+    private static PortfolioHistoryRollup rollup(Resolution resolution, LocalDate periodStart,
+            String open, String high, String low) {
+        PortfolioHistoryRollup rollup = new PortfolioHistoryRollup();
+        rollup.setPortfolioId(1L);
+        rollup.setResolution(resolution);
+        rollup.setPeriodStart(periodStart);
+        rollup.addSample(new BigDecimal(open), new BigDecimal("800"));
+        rollup.addSample(new BigDecimal(high), new BigDecimal("800"));
+        rollup.addSample(new BigDecimal(low), new BigDecimal("800"));
+        rollup.addSample(new BigDecimal("1000"), new BigDecimal("800"));
+        return rollup;
+    }
+
+    private static PortfolioHistory snapshot(LocalDate date, String value) {
+        PortfolioHistory snapshot = new PortfolioHistory();
+        snapshot.setRecordDate(date);
+        snapshot.setTotalValue(new BigDecimal(value));
+        snapshot.setTotalInvestment(new BigDecimal("800"));
+        return snapshot;
+    }
+}
@@ -2,10 +2,14 @@ package com.example.FinBuddy.services;
 
 import com.example.FinBuddy.entities.Portfolio;
 import com.example.FinBuddy.entities.Asset;
+import com.example.FinBuddy.entities.PortfolioHistory;
 import com.example.FinBuddy.entities.Stock;
+import com.example.FinBuddy.exceptions.InvalidRequestException;
 import com.example.FinBuddy.repositories.PortfolioRepository;
 import com.example.FinBuddy.repositories.AssetRepository;
 import com.example.FinBuddy.repositories.PortfolioHistoryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -13,12 +17,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -43,6 +49,18 @@ class PortfolioServiceTest {
     @Mock
     private PortfolioHistoryRepository portfolioHistoryRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PortfolioHistoryRollupService historyRollupService;
+
+    @Mock
+    private PortfolioHistoryBackfillService historyBackfillService;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private PortfolioService portfolioService;
 
@@ -241,4 +259,121 @@ class PortfolioServiceTest {
                 .hasMessageContaining("Portfolio not found");
         verify(portfolioRepository, times(1)).findByIdWithAssets(999L);
     }
+
+    @Test
+    @DisplayName("Should apply an asset delta without loading the portfolio's assets")
+    void shouldApplyAssetDelta() {
+        // Arrange
+        when(portfolioRepository.findById(1L)).thenReturn(Optional.of(testPortfolio));
+        when(portfolioRepository.save(any(Portfolio.class))).thenReturn(testPortfolio);
+
+        // Act
+        Portfolio result = portfolioService.applyAssetDelta(1L, new BigDecimal("500.00"), new BigDecimal("200.00"));
+
+        // Assert
+        assertThat(result.getTotalValue()).isEqualByComparingTo("10500.00");
+        assertThat(result.getTotalInvestment()).isEqualByComparingTo("8200.00");
+        assertThat(result.getTotalGainLoss()).isEqualByComparingTo("2300.00");
+        verify(entityManager).refresh(testPortfolio, LockModeType.PESSIMISTIC_WRITE);
+        verify(portfolioRepository, never()).findByIdWithAssets(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should correct totals that drifted from the assets")
+    void shouldReconcileDriftedTotals() {
+        // Arrange: stored totals (10000/8000) do not match the single asset (1800/1500)
+        when(portfolioRepository.findByIdWithAssets(1L)).thenReturn(Optional.of(testPortfolio));
+
+        // Act
+        boolean corrected = portfolioService.reconcilePortfolioMetrics(1L);
+
+        // Assert
+        assertThat(corrected).isTrue();
+        assertThat(testPortfolio.getTotalValue()).isEqualByComparingTo("1800.00");
+        assertThat(testPortfolio.getTotalInvestment()).isEqualByComparingTo("1500.00");
+        verify(portfolioRepository, times(1)).save(testPortfolio);
+    }
+
+    @Test
+    @DisplayName("Should revalue held symbols in one batch and snapshot once")
+    void shouldRevaluePortfolio() {
+        // Arrange
+        when(portfolioRepository.findByIdWithAssets(1L)).thenReturn(Optional.of(testPortfolio));
+        when(portfolioRepository.save(any(Portfolio.class))).thenReturn(testPortfolio);
+
+        // Act
+        Portfolio result = portfolioService.revaluePortfolio(1L,
+                Map.of("aapl", new BigDecimal("200.00"), "TSLA", new BigDecimal("250.00")));
+
+        // Assert
+        assertThat(result.getTotalValue()).isEqualByComparingTo("2000.00");
+        assertThat(result.getTotalInvestment()).isEqualByComparingTo("1500.00");
+        verify(assetRepository, times(1)).saveAll(List.of(testAssets.get(0)));
+        verify(portfolioHistoryRepository, times(1)).save(any(PortfolioHistory.class));
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive prices when revaluing")
+    void shouldRejectInvalidRevaluationPrice() {
+        assertThatThrownBy(() -> portfolioService.revaluePortfolio(1L, Map.of("AAPL", BigDecimal.ZERO)))
+                .isInstanceOf(InvalidRequestException.class);
+        verify(portfolioRepository, never()).findByIdWithAssets(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should update today's history snapshot in place")
+    void shouldUpsertDailySnapshot() {
+        // Arrange
+        PortfolioHistory today = new PortfolioHistory();
+        today.setId(7L);
+        today.setPortfolio(testPortfolio);
+        today.setRecordDate(LocalDate.now());
+        when(portfolioRepository.findByIdWithAssets(1L)).thenReturn(Optional.of(testPortfolio));
+        when(portfolioRepository.save(any(Portfolio.class))).thenReturn(testPortfolio);
+        when(portfolioHistoryRepository.findByPortfolioIdAndRecordDate(1L, LocalDate.now()))
+                .thenReturn(Optional.of(today));
+
+        // Act
+        portfolioService.recalculatePortfolioMetrics(1L);
+
+        // Assert
+        verify(portfolioHistoryRepository, times(1)).save(today);
+        assertThat(today.getId()).isEqualTo(7L);
+        assertThat(today.getTotalValue()).isEqualByComparingTo("1800.00");
+    }
+
+    @Test
+    @DisplayName("Should not backfill a portfolio whose history only predates the chart window")
+    void shouldNotBackfillOlderHistory() {
+        // Arrange: recorded 90 days ago, nothing since, backfill would start 30 days ago
+        LocalDate today = LocalDate.now();
+        PortfolioHistory older = new PortfolioHistory();
+        older.setRecordDate(today.minusDays(90));
+        when(portfolioRepository.findByIdWithAssets(1L)).thenReturn(Optional.of(testPortfolio));
+        when(historyBackfillService.backfillStart(any(LocalDate.class), eq(today))).thenReturn(today.minusDays(30));
+        when(portfolioHistoryRepository.findFirstByPortfolioIdOrderByRecordDateAsc(1L)).thenReturn(Optional.of(older));
+
+        // Act
+        portfolioService.getDashboardSummary(1L);
+
+        // Assert
+        verify(historyBackfillService, never()).backfill(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should backfill a portfolio with no recorded history")
+    void shouldBackfillMissingHistory() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        when(portfolioRepository.findByIdWithAssets(1L)).thenReturn(Optional.of(testPortfolio));
+        when(historyBackfillService.backfillStart(any(LocalDate.class), eq(today))).thenReturn(today.minusDays(30));
+        when(portfolioHistoryRepository.findFirstByPortfolioIdOrderByRecordDateAsc(1L)).thenReturn(Optional.empty());
+        when(historyBackfillService.backfill(1L)).thenReturn(List.of());
+
+        // Act
+        portfolioService.getDashboardSummary(1L);
+
+        // Assert
+        verify(historyBackfillService).backfill(1L);
+    }
 }
@@ -0,0 +1,125 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.entities.Portfolio;
+import com.example.FinBuddy.entities.Stock;
+import com.example.FinBuddy.marketdata.PriceCache;
+import com.example.FinBuddy.repositories.PortfolioRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PortfolioValuationService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PortfolioValuationService Tests")
+class PortfolioValuationServiceTest {
+
+    private static final String TOPIC = "/topic/portfolios/1/valuation";
+
+    @Mock
+    private PortfolioRepository portfolioRepository;
+
+    @Mock
+    private MessageChannel brokerChannel;
+
+    @Mock
+    private MessageChannel clientOutboundChannel;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PriceCache priceCache;
+    private PortfolioValuationService valuationService;
+
+    @BeforeEach
+    void setUp() {
+        Portfolio portfolio = new Portfolio();
+        portfolio.setId(1L);
+        portfolio.getAssets().add(stock(10L, "AAPL", 10, "100.00", "150.00"));
+        portfolio.getAssets().add(stock(11L, "MSFT", 5, "200.00", "300.00"));
+        portfolio.recalculateMetrics();
+        when(portfolioRepository.findByIdWithAssets(1L)).thenReturn(Optional.of(portfolio));
+        when(brokerChannel.send(any())).thenReturn(true);
+        when(clientOutboundChannel.send(any())).thenReturn(true);
+
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate(brokerChannel);
+        messagingTemplate.setMessageConverter(new MappingJackson2MessageConverter());
+        priceCache = new PriceCache();
+        valuationService = new PortfolioValuationService(portfolioRepository, priceCache, messagingTemplate,
+                clientOutboundChannel);
+        valuationService.registerPriceListener();
+    }
+
+    private Stock stock(Long id, String symbol, int quantity, String purchasePrice, String currentPrice) {
+        Stock stock = new Stock();
+        stock.setId(id);
+        stock.setSymbol(symbol);
+        stock.setQuantity(quantity);
+        stock.setPurchasePrice(new BigDecimal(purchasePrice));
+        stock.setCurrentPrice(new BigDecimal(currentPrice));
+        stock.calculateMetrics();
+        return stock;
+    }
+
+    private static SessionSubscribeEvent subscribe(String sessionId, String subscriptionId) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        headers.setSessionId(sessionId);
+        headers.setSubscriptionId(subscriptionId);
+        headers.setDestination(TOPIC);
+        return new SessionSubscribeEvent(new Object(), MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders()));
+    }
+
+    @Test
+    @DisplayName("Should send the full current valuation to every new subscription")
+    @SuppressWarnings("unchecked")
+    void shouldSendSnapshotToEachSubscriber() throws Exception {
+        // Arrange - the first subscriber is tracking when AAPL moves
+        valuationService.onSubscribe(subscribe("s1", "sub-0"));
+        priceCache.put("AAPL", new BigDecimal("160.00"));
+
+        // Act
+        valuationService.onSubscribe(subscribe("s2", "sub-0"));
+
+        // Assert - one snapshot per subscription, addressed to that session only
+        ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(clientOutboundChannel, times(2)).send(sent.capture());
+        List<Message<?>> snapshots = sent.getAllValues();
+        assertThat(snapshots).extracting(message -> SimpMessageHeaderAccessor.getSessionId(message.getHeaders()))
+                .containsExactly("s1", "s2");
+        assertThat(SimpMessageHeaderAccessor.getSubscriptionId(snapshots.get(1).getHeaders())).isEqualTo("sub-0");
+
+        // Assert - the later subscriber gets cache-priced totals and the asset that never moved
+        JsonNode later = objectMapper.readTree((byte[]) snapshots.get(1).getPayload());
+        assertThat(later.get("totalValue").decimalValue()).isEqualByComparingTo("3100.00");
+        assertThat(later.get("totalGainLoss").decimalValue()).isEqualByComparingTo("1100.00");
+        assertThat(later.get("assets")).hasSize(2);
+        assertThat(later.get("assets").get(1).get("id").asLong()).isEqualTo(11L);
+        assertThat(later.get("assets").get(1).get("currentValue").decimalValue()).isEqualByComparingTo("1500.00");
+
+        // Assert - the move itself went to the topic once, and the portfolio was loaded once
+        verify(brokerChannel).send(any());
+        verify(portfolioRepository, times(1)).findByIdWithAssets(1L);
+    }
+}
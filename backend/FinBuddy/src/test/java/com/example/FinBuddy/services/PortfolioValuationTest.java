@@ -0,0 +1,95 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.entities.Portfolio;
+import com.example.FinBuddy.entities.Stock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PortfolioValuation
+ */
+@DisplayName("PortfolioValuation Tests")
+class PortfolioValuationTest {
+
+    private Portfolio portfolio;
+
+    @BeforeEach
+    void setUp() {
+        portfolio = new Portfolio();
+        portfolio.setId(1L);
+        portfolio.getAssets().add(stock(10L, "AAPL", 10, "100.00", "150.00"));
+        portfolio.getAssets().add(stock(11L, "MSFT", 5, "200.00", "300.00"));
+        portfolio.recalculateMetrics();
+    }
+
+    private Stock stock(Long id, String symbol, int quantity, String purchasePrice, String currentPrice) {
+        Stock stock = new Stock();
+        stock.setId(id);
+        stock.setSymbol(symbol);
+        stock.setQuantity(quantity);
+        stock.setPurchasePrice(new BigDecimal(purchasePrice));
+        stock.setCurrentPrice(new BigDecimal(currentPrice));
+        stock.calculateMetrics();
+        return stock;
+    }
+
+    @Test
+    @DisplayName("Should report nothing until a price moves")
+    void shouldReportNothingWhenUnchanged() {
+        // Arrange
+        PortfolioValuation valuation = new PortfolioValuation(portfolio);
+
+        // Act
+        boolean held = valuation.applyPrice("AAPL", new BigDecimal("150.00"));
+
+        // Assert
+        assertThat(held).isTrue();
+        assertThat(valuation.drainChanges()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should send only the totals and the repriced asset")
+    @SuppressWarnings("unchecked")
+    void shouldSendOnlyChangedFields() {
+        // Arrange
+        PortfolioValuation valuation = new PortfolioValuation(portfolio);
+
+        // Act
+        valuation.applyPrice("aapl", new BigDecimal("160.00"));
+        Map<String, Object> delta = valuation.drainChanges();
+
+        // Assert
+        assertThat(delta).containsEntry("portfolioId", 1L);
+        assertThat((BigDecimal) delta.get("totalValue")).isEqualByComparingTo("3100.00");
+        assertThat((BigDecimal) delta.get("totalGainLoss")).isEqualByComparingTo("1100.00");
+        List<Map<String, Object>> assets = (List<Map<String, Object>>) delta.get("assets");
+        assertThat(assets).hasSize(1);
+        assertThat(assets.get(0)).containsEntry("id", 10L);
+        assertThat((BigDecimal) assets.get(0).get("currentValue")).isEqualByComparingTo("1600.00");
+        assertThat((BigDecimal) assets.get(0).get("gainLossPercentage")).isEqualByComparingTo("60.00");
+
+        // Assert - already reported
+        assertThat(valuation.drainChanges()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should ignore symbols the portfolio does not hold")
+    void shouldIgnoreUnheldSymbol() {
+        // Arrange
+        PortfolioValuation valuation = new PortfolioValuation(portfolio);
+
+        // Act
+        boolean held = valuation.applyPrice("TSLA", new BigDecimal("250.00"));
+
+        // Assert
+        assertThat(held).isFalse();
+        assertThat(valuation.getSymbols()).containsExactly("AAPL", "MSFT");
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.marketdata.CachedPrice;
+import com.example.FinBuddy.marketdata.CallPriority;
+import com.example.FinBuddy.repositories.AssetRepository;
+import com.example.FinBuddy.repositories.BenchmarkRepository;
+import com.example.FinBuddy.repositories.WishlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PriceRefreshService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceRefreshService Tests")
+class PriceRefreshServiceTest {
+
+    @Mock
+    private AssetRepository assetRepository;
+
+    @Mock
+    private WishlistRepository wishlistRepository;
+
+    @Mock
+    private BenchmarkRepository benchmarkRepository;
+
+    @Mock
+    private StockPriceService stockPriceService;
+
+    @Mock
+    private PriceStreamService priceStreamService;
+
+    private PriceRefreshService priceRefreshService;
+
+    @BeforeEach
+    void setUp() {
+        priceRefreshService = new PriceRefreshService(assetRepository, wishlistRepository, benchmarkRepository,
+                stockPriceService, priceStreamService, true, 90_000, 2, 40, 900_000);
+    }
+
+    private void stubTrackedSymbols() {
+        when(assetRepository.findDistinctSymbols()).thenReturn(List.of("AAPL", "MSFT"));
+        when(wishlistRepository.findDistinctSymbols()).thenReturn(List.of("MSFT", "TSLA"));
+        when(benchmarkRepository.findDistinctSymbols()).thenReturn(List.of("SP500"));
+        when(stockPriceService.resolveBenchmarkSymbol("SP500")).thenReturn("^GSPC");
+    }
+
+    @Test
+    @DisplayName("Should collect distinct symbols across assets, wishlist, benchmarks and price streams")
+    void shouldCollectDistinctSymbols() {
+        // Arrange
+        stubTrackedSymbols();
+        when(priceStreamService.getSubscribedSymbols()).thenReturn(Set.of("NVDA"));
+
+        // Act & Assert
+        assertThat(priceRefreshService.collectTrackedSymbols())
+                .containsExactly("AAPL", "MSFT", "TSLA", "^GSPC", "NVDA");
+    }
+
+    @Test
+    @DisplayName("Should refresh only quotes due to expire, in background batches")
+    void shouldRefreshDueSymbolsInBatches() {
+        // Arrange
+        stubTrackedSymbols();
+        when(stockPriceService.isLiveDataAvailable()).thenReturn(true);
+        when(stockPriceService.getCachedQuote(anyString())).thenReturn(null);
+        when(stockPriceService.getCachedQuote("MSFT"))
+                .thenReturn(new CachedPrice(new BigDecimal("370.00"), 300_000));
+        when(stockPriceService.refreshPrices(any(), eq(CallPriority.BACKGROUND))).thenReturn(2, 1);
+
+        // Act
+        priceRefreshService.refreshTrackedSymbols();
+
+        // Assert
+        verify(stockPriceService).refreshPrices(List.of("AAPL", "TSLA"), CallPriority.BACKGROUND);
+        verify(stockPriceService).refreshPrices(List.of("^GSPC"), CallPriority.BACKGROUND);
+        verify(stockPriceService, never()).refreshPrices(argThat(batch -> batch.contains("MSFT")), any());
+    }
+
+    @Test
+    @DisplayName("Should skip refreshing when only mock data is available")
+    void shouldSkipWithoutLiveProvider() {
+        // Arrange
+        when(stockPriceService.isLiveDataAvailable()).thenReturn(false);
+
+        // Act
+        priceRefreshService.refreshTrackedSymbols();
+
+        // Assert
+        verify(stockPriceService, never()).refreshPrices(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should back off symbols no provider could quote")
+    void shouldBackOffUnquotableSymbols() {
+        // Arrange - AAPL gets a quote, DELISTED never does
+        when(assetRepository.findDistinctSymbols()).thenReturn(List.of("AAPL", "DELISTED"));
+        when(wishlistRepository.findDistinctSymbols()).thenReturn(List.of());
+        when(benchmarkRepository.findDistinctSymbols()).thenReturn(List.of());
+        when(stockPriceService.isLiveDataAvailable()).thenReturn(true);
+        AtomicReference<CachedPrice> aaplQuote = new AtomicReference<>();
+        when(stockPriceService.getCachedQuote("DELISTED")).thenReturn(null);
+        when(stockPriceService.getCachedQuote("AAPL")).thenAnswer(invocation -> aaplQuote.get());
+        when(stockPriceService.refreshPrices(any(), eq(CallPriority.BACKGROUND))).thenAnswer(invocation -> {
+            aaplQuote.set(new CachedPrice(new BigDecimal("180.00"), 60_000));
+            return 1;
+        });
+
+        // Act - two runs
+        priceRefreshService.refreshTrackedSymbols();
+        priceRefreshService.refreshTrackedSymbols();
+
+        // Assert - the second run retries AAPL (still due under the lead time) but not DELISTED
+        verify(stockPriceService).refreshPrices(List.of("AAPL", "DELISTED"), CallPriority.BACKGROUND);
+        verify(stockPriceService).refreshPrices(List.of("AAPL"), CallPriority.BACKGROUND);
+    }
+}
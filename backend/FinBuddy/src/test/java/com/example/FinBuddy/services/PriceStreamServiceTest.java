@@ -0,0 +1,136 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.exceptions.InvalidRequestException;
+import com.example.FinBuddy.marketdata.PriceCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PriceStreamService
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceStreamService Tests")
+class PriceStreamServiceTest {
+
+    @Mock
+    private StockPriceService stockPriceService;
+
+    private PriceCache priceCache;
+    private PriceStreamService priceStreamService;
+
+    @BeforeEach
+    void setUp() {
+        priceCache = new PriceCache();
+        priceStreamService = new PriceStreamService(stockPriceService, priceCache, 3, 60_000, 30_000, 2) {
+            @Override
+            SseEmitter newEmitter() {
+                return mock(SseEmitter.class);
+            }
+        };
+        priceStreamService.registerPriceListener();
+    }
+
+    @AfterEach
+    void tearDown() {
+        priceStreamService.shutdown();
+    }
+
+    /**
+     * Callback the service registered to unsubscribe when the emitter completes
+     */
+    private static Runnable completionOf(SseEmitter emitter) {
+        ArgumentCaptor<Runnable> callback = ArgumentCaptor.forClass(Runnable.class);
+        verify(emitter).onCompletion(callback.capture());
+        return callback.getValue();
+    }
+
+    @Test
+    @DisplayName("Should subscribe normalized symbols and reject empty or oversized requests")
+    void shouldSubscribe() {
+        // Act
+        priceStreamService.subscribe(List.of(" aapl", "MSFT", "AAPL"));
+
+        // Assert
+        Map<String, Object> stats = priceStreamService.getStats();
+        assertThat(stats.get("openStreams")).isEqualTo(1);
+        assertThat(stats.get("subscribedSymbols")).isEqualTo(2);
+        assertThatThrownBy(() -> priceStreamService.subscribe(List.of(" ")))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> priceStreamService.subscribe(List.of("A", "B", "C", "D")))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Should fan a changed price out to every subscriber of the symbol")
+    void shouldFanOutPriceChanges() throws Exception {
+        // Arrange
+        SseEmitter first = priceStreamService.subscribe(List.of("AAPL"));
+        SseEmitter second = priceStreamService.subscribe(List.of("AAPL", "MSFT"));
+        SseEmitter other = priceStreamService.subscribe(List.of("MSFT"));
+
+        // Act
+        priceStreamService.publish("AAPL", new BigDecimal("180.00"));
+        priceStreamService.publish("AAPL", new BigDecimal("180.00"));
+
+        // Assert - one event each for the AAPL subscribers; the unchanged price is not sent again
+        verify(first, timeout(1000)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(second, timeout(1000)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(other, never()).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(priceStreamService.getStats().get("ticksPublished")).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should stop sending to a stream once it is closed")
+    void shouldUnsubscribe() throws Exception {
+        // Arrange
+        SseEmitter closed = priceStreamService.subscribe(List.of("AAPL"));
+        SseEmitter open = priceStreamService.subscribe(List.of("MSFT"));
+
+        // Act
+        completionOf(closed).run();
+        priceStreamService.publish("AAPL", new BigDecimal("180.00"));
+        priceStreamService.publish("MSFT", new BigDecimal("370.00"));
+
+        // Assert
+        verify(open, timeout(1000)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(closed, never()).send(any(SseEmitter.SseEventBuilder.class));
+        Map<String, Object> stats = priceStreamService.getStats();
+        assertThat(stats.get("openStreams")).isEqualTo(1);
+        assertThat(stats.get("subscribedSymbols")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should publish cached price moves without fetching prices itself")
+    void shouldPublishCachedPriceMoves() throws Exception {
+        // Arrange
+        SseEmitter stream = priceStreamService.subscribe(List.of("AAPL"));
+
+        // Act
+        priceCache.put("aapl", new BigDecimal("180.00"));
+        priceCache.put("MSFT", new BigDecimal("370.00"));
+
+        // Assert
+        verify(stream, timeout(1000)).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(priceStreamService.getStats().get("ticksPublished")).isEqualTo(1L);
+        assertThat(priceStreamService.getSubscribedSymbols()).containsExactly("AAPL");
+        // The only lookup is the snapshot sent when the stream opened
+        verify(stockPriceService, timeout(1000)).getBatchPrices(List.of("AAPL"));
+        verifyNoMoreInteractions(stockPriceService);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.FinBuddy.services;
+
+import com.example.FinBuddy.marketdata.BatchQuoteEngine;
+import com.example.FinBuddy.marketdata.CallPriority;
+import com.example.FinBuddy.marketdata.CircuitBreakerRegistry;
+import com.example.FinBuddy.marketdata.InstrumentCatalog;
+import com.example.FinBuddy.marketdata.PriceCache;
+import com.example.FinBuddy.marketdata.PriceHistoryStore;
+import com.example.FinBuddy.marketdata.PriceSlice;
+import com.example.FinBuddy.marketdata.QuotaScheduler;
+import com.example.FinBuddy.marketdata.RevalidationExecutor;
+import com.example.FinBuddy.marketdata.provider.MarketDataProviderChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for StockPriceService background refreshes through the provider chain
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StockPriceService Refresh Tests")
+class StockPriceServiceRefreshTest {
+
+    @Mock
+    private MarketDataProviderChain providerChain;
+
+    private PriceCache priceCache;
+    private PriceHistoryStore priceHistory;
+    private StockPriceService stockPriceService;
+
+    @BeforeEach
+    void setUp() {
+        priceCache = new PriceCache();
+        priceHistory = new PriceHistoryStore();
+        stockPriceService = new StockPriceService(providerChain, priceCache, new BatchQuoteEngine(),
+                new QuotaScheduler(), new CircuitBreakerRegistry(), new RevalidationExecutor(),
+                new InstrumentCatalog(), priceHistory);
+    }
+
+    @Test
+    @DisplayName("Should cache and record in the price history every quote a refresh fetches")
+    void shouldRecordRefreshedQuotesInHistory() {
+        // Arrange
+        List<String> symbols = List.of("AAPL", "MSFT");
+        when(providerChain.hasAvailableProvider()).thenReturn(true);
+        when(providerChain.getQuotes(symbols, CallPriority.BACKGROUND))
+                .thenReturn(Map.of("AAPL", new BigDecimal("180.50"), "MSFT", new BigDecimal("370.25")));
+        long before = System.currentTimeMillis();
+
+        // Act
+        int refreshed = stockPriceService.refreshPrices(symbols, CallPriority.BACKGROUND);
+
+        // Assert
+        long after = System.currentTimeMillis();
+        assertThat(refreshed).isEqualTo(2);
+        assertThat(priceCache.peekFresh("AAPL")).isEqualByComparingTo("180.50");
+        PriceSlice history = priceHistory.range("AAPL", before, after + 1);
+        assertThat(history.size()).isEqualTo(1);
+        assertThat(history.getPrices()[0]).isEqualTo(180.50);
+        assertThat(history.getTimes()[0]).isBetween(before, after);
+        assertThat(priceHistory.range("MSFT", before, after + 1).size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should record nothing when no provider is available")
+    void shouldNotRefreshWithoutProvider() {
+        // Arrange
+        when(providerChain.hasAvailableProvider()).thenReturn(false);
+
+        // Act
+        int refreshed = stockPriceService.refreshPrices(List.of("AAPL"), CallPriority.BACKGROUND);
+
+        // Assert
+        assertThat(refreshed).isZero();
+        assertThat(priceHistory.getSeries("AAPL")).isNull();
+    }
+}
@@ -532,7 +532,7 @@ function displaySearchResults(results) {
         <div class="result-details">
           <span class="result-type ${typeClass}">${type}</span>
           ${extra}
-          <span class="result-price">${formatCurrency(r.price || 0, r.currency || "USD")}</span>
+          <span class="result-price">${r.price != null ? formatCurrency(r.price, r.currency || "USD") : "—"}</span>
         </div>
       </div>
     `;